@@ -0,0 +1,97 @@
+package io.github.volyx.benchmark;
+
+import io.github.volyx.SortedIterators;
+import io.github.volyx.SortedLongColumn;
+import io.github.volyx.SortedLongIterators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Chains an intersection and an exclusion, keeping the intersection in a {@link TreeSet}, in a heap
+ * {@code long[]} or in a {@link SortedLongColumn}. The last two are excluded through the same primitive
+ * {@link SortedLongIterators#exclude}, so that they differ only in where the intermediate lives.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SortedColumnBench {
+    private long[] longs1;
+    private long[] longs2;
+    private long[] longs3;
+
+    @Setup
+    public void setup() {
+        longs1 = LongStream.range(0, 4_000_000).filter(i -> i % 2 == 0).toArray();
+        longs2 = LongStream.range(0, 4_000_000).filter(i -> i % 3 == 0).toArray();
+        longs3 = LongStream.range(0, 4_000_000).filter(i -> i % 5 == 0).toArray();
+    }
+
+    @Benchmark
+    public void testHeapIntermediate(Blackhole blackhole) {
+        final TreeSet<Long> intermediate = new TreeSet<>();
+        SortedLongIterators.intersection(Arrays.stream(longs1).iterator(), Arrays.stream(longs2).iterator())
+                .forEachRemaining((long value) -> intermediate.add(value));
+
+        final Iterator<Long> iterator = SortedIterators.exclude(intermediate.iterator(), Arrays.stream(longs3).iterator(), Long::compare);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void testHeapArrayIntermediate(Blackhole blackhole) {
+        final LongStream.Builder builder = LongStream.builder();
+        SortedLongIterators.intersection(Arrays.stream(longs1).iterator(), Arrays.stream(longs2).iterator())
+                .forEachRemaining(builder);
+        final long[] intermediate = builder.build().toArray();
+
+        final PrimitiveIterator.OfLong iterator = SortedLongIterators.exclude(Arrays.stream(intermediate).iterator(), Arrays.stream(longs3).iterator());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextLong());
+        }
+    }
+
+    @Benchmark
+    public void testOffHeapIntermediate(Blackhole blackhole) {
+        final SortedLongColumn intermediate = SortedLongColumn.copyOf(
+                SortedLongIterators.intersection(Arrays.stream(longs1).iterator(), Arrays.stream(longs2).iterator()));
+
+        final PrimitiveIterator.OfLong iterator = SortedLongIterators.exclude(intermediate.iterator(), Arrays.stream(longs3).iterator());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextLong());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(SortedColumnBench.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
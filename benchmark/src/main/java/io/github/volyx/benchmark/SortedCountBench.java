@@ -0,0 +1,102 @@
+package io.github.volyx.benchmark;
+
+import com.google.common.collect.Iterators;
+import io.github.volyx.SortedIntIterators;
+import io.github.volyx.SortedIterators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Counts an intersection by draining the result iterator versus with the counting operations.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SortedCountBench {
+    private List<Integer> list1;
+    private List<Integer> list2;
+    private int[] ints1;
+    private int[] ints2;
+
+    @Setup
+    public void setup() {
+        ints1 = IntStream.range(0, 2_000_000).filter(i -> i % 2 == 0).toArray();
+        ints2 = IntStream.range(0, 2_000_000).filter(i -> i % 3 == 0).toArray();
+        list1 = Arrays.stream(ints1).boxed().collect(Collectors.toList());
+        list2 = Arrays.stream(ints2).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int testIntersectionIteratorSize() {
+        return Iterators.size(SortedIterators.intersection(list1.iterator(), list2.iterator(), Integer::compare));
+    }
+
+    @Benchmark
+    public long testCountIntersection() {
+        return SortedIterators.countIntersection(list1.iterator(), list2.iterator(), Integer::compare);
+    }
+
+    @Benchmark
+    public long testCountUnion() {
+        return SortedIterators.countUnion(list1.iterator(), list2.iterator(), Integer::compare);
+    }
+
+    @Benchmark
+    public double testJaccard() {
+        return SortedIterators.jaccard(list1.iterator(), list2.iterator(), Integer::compare);
+    }
+
+    @Benchmark
+    public long testIntIntersectionIteratorSize() {
+        final PrimitiveIterator.OfInt iterator = SortedIntIterators.intersection(
+                Arrays.stream(ints1).iterator(), Arrays.stream(ints2).iterator());
+        long count = 0;
+        while (iterator.hasNext()) {
+            iterator.nextInt();
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long testIntCountIntersection() {
+        return SortedIntIterators.countIntersection(Arrays.stream(ints1).iterator(), Arrays.stream(ints2).iterator());
+    }
+
+    @Benchmark
+    public double testIntJaccard() {
+        return SortedIntIterators.jaccard(Arrays.stream(ints1).iterator(), Arrays.stream(ints2).iterator());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(SortedCountBench.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
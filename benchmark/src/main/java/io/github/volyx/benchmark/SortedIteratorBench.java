@@ -1,7 +1,16 @@
 package io.github.volyx.benchmark;
 
 import com.google.common.collect.Sets;
+import io.github.volyx.BatchIterator;
+import io.github.volyx.BatchIterators;
+import io.github.volyx.CompressedIntRun;
+import io.github.volyx.InputValidation;
+import io.github.volyx.ParallelSortedIterators;
+import io.github.volyx.SortedIntIterators;
 import io.github.volyx.SortedIterators;
+import io.github.volyx.SortedLongIterators;
+import io.github.volyx.SortedOperatorListener;
+import io.github.volyx.SortedSources;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -24,10 +33,13 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PrimitiveIterator;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -41,6 +53,14 @@
 public class SortedIteratorBench {
     private TreeSet<Integer> set1;
     private TreeSet<Integer> set2;
+    private int[] ints1;
+    private int[] ints2;
+    private long[] longs1;
+    private long[] longs2;
+    private Integer[] array1;
+    private Integer[] array2;
+    private CompressedIntRun compressed1;
+    private CompressedIntRun compressed2;
 
     @Setup
     public void setup() {
@@ -48,6 +68,14 @@ public void setup() {
         set2 = IntStream.range(1, 17_000_000).boxed().sorted().collect(Collectors.toCollection(TreeSet::new));
         set1.removeIf(i -> i > 100 && i < 200);
         set2.removeIf(i -> i > 1000 && i < 2000);
+        ints1 = set1.stream().mapToInt(Integer::intValue).toArray();
+        ints2 = set2.stream().mapToInt(Integer::intValue).toArray();
+        longs1 = set1.stream().mapToLong(Integer::longValue).toArray();
+        longs2 = set2.stream().mapToLong(Integer::longValue).toArray();
+        array1 = set1.toArray(new Integer[0]);
+        array2 = set2.toArray(new Integer[0]);
+        compressed1 = CompressedIntRun.copyOf(Arrays.stream(ints1).iterator());
+        compressed2 = CompressedIntRun.copyOf(Arrays.stream(ints2).iterator());
     }
 
     @Benchmark
@@ -66,6 +94,22 @@ public void testUnionIterator(Blackhole blackhole) {
         }
     }
 
+    @Benchmark
+    public void testUnionIntIterator(Blackhole blackhole) {
+        final PrimitiveIterator.OfInt iterator = SortedIntIterators.union(List.of(Arrays.stream(ints1).iterator(), Arrays.stream(ints2).iterator()));
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextInt());
+        }
+    }
+
+    @Benchmark
+    public void testUnionLongIterator(Blackhole blackhole) {
+        final PrimitiveIterator.OfLong iterator = SortedLongIterators.union(List.of(Arrays.stream(longs1).iterator(), Arrays.stream(longs2).iterator()));
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextLong());
+        }
+    }
+
     @Benchmark
     public void testDifference(Blackhole blackhole) {
         final Iterator<Integer> iterator = new TreeSet<Integer>(Sets.symmetricDifference(set1, set2)).iterator();
@@ -82,6 +126,45 @@ public void testDifferenceIterator(Blackhole blackhole) {
         }
     }
 
+    @Benchmark
+    public void testDifferenceIntIterator(Blackhole blackhole) {
+        final PrimitiveIterator.OfInt iterator = SortedIntIterators.difference(Arrays.stream(ints1).iterator(), Arrays.stream(ints2).iterator());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextInt());
+        }
+    }
+
+    @Benchmark
+    public void testDifferenceLongIterator(Blackhole blackhole) {
+        final PrimitiveIterator.OfLong iterator = SortedLongIterators.difference(Arrays.stream(longs1).iterator(), Arrays.stream(longs2).iterator());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextLong());
+        }
+    }
+
+    @Benchmark
+    public void testDifferenceParallel(Blackhole blackhole) {
+        final Iterator<Integer> iterator = ParallelSortedIterators.difference(SortedSources.forSet(set1), SortedSources.forSet(set2), Integer::compare, ForkJoinPool.commonPool());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void testDifferenceConsumer(Blackhole blackhole) {
+        SortedIterators.differenceConsumer(set1.iterator(), set2.iterator(), Integer::compare, blackhole::consume, blackhole::consume);
+    }
+
+    @Benchmark
+    public void testDifferenceIntConsumer(Blackhole blackhole) {
+        SortedIntIterators.differenceConsumer(Arrays.stream(ints1).iterator(), Arrays.stream(ints2).iterator(), blackhole::consume, blackhole::consume);
+    }
+
+    @Benchmark
+    public void testDifferenceLongConsumer(Blackhole blackhole) {
+        SortedLongIterators.differenceConsumer(Arrays.stream(longs1).iterator(), Arrays.stream(longs2).iterator(), blackhole::consume, blackhole::consume);
+    }
+
     @Benchmark
     public void testIntersection(Blackhole blackhole) {
         final Iterator<Integer> iterator = new TreeSet<Integer>(Sets.intersection(set1, set2)).iterator();
@@ -98,10 +181,72 @@ public void testIntersectionIterator(Blackhole blackhole) {
         }
     }
 
+    @Benchmark
+    public void testIntersectionIteratorTrusted(Blackhole blackhole) {
+        final Iterator<Integer> iterator = SortedIterators.intersection(set1.iterator(), set2.iterator(), Integer::compare, InputValidation.TRUSTED);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void testIntersectionIteratorNoopListener(Blackhole blackhole) {
+        final Iterator<Integer> iterator = SortedIterators.intersection(set1.iterator(), set2.iterator(), Integer::compare,
+                InputValidation.CHECKED, SortedOperatorListener.noop());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void testIntersectionIteratorInstrumented(Blackhole blackhole) {
+        final Iterator<Integer> iterator = SortedIterators.intersection(set1.iterator(), set2.iterator(), Integer::compare,
+                InputValidation.CHECKED, blackhole::consume);
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void testIntersectionIntIterator(Blackhole blackhole) {
+        final PrimitiveIterator.OfInt iterator = SortedIntIterators.intersection(Arrays.stream(ints1).iterator(), Arrays.stream(ints2).iterator());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextInt());
+        }
+    }
+
+    @Benchmark
+    public void testIntersectionLongIterator(Blackhole blackhole) {
+        final PrimitiveIterator.OfLong iterator = SortedLongIterators.intersection(Arrays.stream(longs1).iterator(), Arrays.stream(longs2).iterator());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextLong());
+        }
+    }
+
+    @Benchmark
+    public void testIntersectionCompressed(Blackhole blackhole) {
+        final PrimitiveIterator.OfInt iterator = SortedIntIterators.intersection(compressed1.iterator(), compressed2.iterator());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextInt());
+        }
+    }
+
+    @Benchmark
+    public void testIntersectionBatch(Blackhole blackhole) {
+        final Iterator<Integer> iterator = SortedIterators.intersection(BatchIterators.forArray(array1), BatchIterators.forArray(array2), Integer::compare);
+        final BatchIterator<Integer> batchIterator = BatchIterators.of(iterator);
+        final Integer[] buffer = new Integer[256];
+        int count;
+        while ((count = batchIterator.fill(buffer)) > 0) {
+            for (int i = 0; i < count; i++) {
+                blackhole.consume(buffer[i]);
+            }
+        }
+    }
+
     @Benchmark
     public void testExclude(Blackhole blackhole) {
-        set1.removeIf(set2::contains);
-        final Iterator<Integer> iterator = set1.iterator();
+        final Iterator<Integer> iterator = new TreeSet<Integer>(Sets.difference(set1, set2)).iterator();
         while (iterator.hasNext()) {
             blackhole.consume(iterator.next());
         }
@@ -115,6 +260,22 @@ public void testExcludeIterator(Blackhole blackhole) {
         }
     }
 
+    @Benchmark
+    public void testExcludeIntIterator(Blackhole blackhole) {
+        final PrimitiveIterator.OfInt iterator = SortedIntIterators.exclude(Arrays.stream(ints1).iterator(), Arrays.stream(ints2).iterator());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextInt());
+        }
+    }
+
+    @Benchmark
+    public void testExcludeLongIterator(Blackhole blackhole) {
+        final PrimitiveIterator.OfLong iterator = SortedLongIterators.exclude(Arrays.stream(longs1).iterator(), Arrays.stream(longs2).iterator());
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.nextLong());
+        }
+    }
+
     public static void main(String[] args) throws RunnerException, IOException {
 
         final ChainedOptionsBuilder optionsBuilder = new OptionsBuilder()
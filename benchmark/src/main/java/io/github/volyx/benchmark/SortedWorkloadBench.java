@@ -0,0 +1,326 @@
+package io.github.volyx.benchmark;
+
+import com.google.common.collect.Iterators;
+import io.github.volyx.SkippableSortedIterators;
+import io.github.volyx.SortedIterators;
+import io.github.volyx.SortedKeyedIterators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Set operations over generated inputs of different shapes. Input 0 has {@code size} elements, every other input
+ * {@code size / skew}, of which the {@code overlap} fraction is taken from input 0 and the rest is absent from it.
+ * Binary operations run on inputs 0 and 1, {@code union} and the k-way intersection on the first {@code fanIn}
+ * inputs, and the builder pipeline unions inputs 1 to {@code fanIn - 1}, intersects with input 0 and excludes
+ * input {@code fanIn}. The {@code Keyed} variants run the {@link SortedKeyedIterators} operations on the
+ * {@code long} key of each type instead of its comparator, {@code Row::id} for records.
+ * <p>
+ * The full cross product of the parameters takes hours, narrow it with {@code -p}, for example
+ * {@code -p size=1000000 -p type=RECORD -p source=ARRAY_LIST}. {@link #main} adds the GC profiler, which reports
+ * the bytes allocated per operation as {@code gc.alloc.rate.norm}; from the benchmarks jar pass {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortedWorkloadBench {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"0.01", "0.5", "0.99"})
+    private double overlap;
+
+    @Param({"1", "100"})
+    private int skew;
+
+    @Param({"2", "16"})
+    private int fanIn;
+
+    @Param({"BOXED", "RECORD", "STRING"})
+    private ElementType type;
+
+    @Param({"TREE_SET", "ARRAY_LIST", "ARRAY", "SKIPPABLE_ARRAY"})
+    private SourceType source;
+
+    private Comparator<Object> comparator;
+    private ToLongFunction<Object> key;
+    private Object[][] arrays;
+    private List<List<Object>> lists;
+    private List<TreeSet<Object>> sets;
+
+    public enum ElementType {
+        BOXED {
+            @Override
+            Object element(long value) {
+                return (int) value;
+            }
+
+            @Override
+            Comparator<?> comparator() {
+                return Comparator.<Integer>naturalOrder();
+            }
+
+            @Override
+            ToLongFunction<Object> key() {
+                return value -> (Integer) value;
+            }
+        },
+        /**
+         * Objects compared by a {@code long} key extracted from them.
+         */
+        RECORD {
+            @Override
+            Object element(long value) {
+                return new Row(value, (int) value);
+            }
+
+            @Override
+            Comparator<?> comparator() {
+                return Comparator.comparingLong(Row::id);
+            }
+
+            @Override
+            ToLongFunction<Object> key() {
+                return value -> ((Row) value).id();
+            }
+        },
+        /**
+         * Zero padded numbers, so that the order of the strings is the order of the numbers. Their key is the
+         * parsed number, so the keyed variants also measure the parsing.
+         */
+        STRING {
+            @Override
+            Object element(long value) {
+                return String.format("%012d", value);
+            }
+
+            @Override
+            Comparator<?> comparator() {
+                return Comparator.<String>naturalOrder();
+            }
+
+            @Override
+            ToLongFunction<Object> key() {
+                return value -> Long.parseLong((String) value);
+            }
+        };
+
+        abstract Object element(long value);
+
+        abstract Comparator<?> comparator();
+
+        abstract ToLongFunction<Object> key();
+    }
+
+    public enum SourceType {
+        TREE_SET, ARRAY_LIST, ARRAY, SKIPPABLE_ARRAY
+    }
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        comparator = (Comparator<Object>) type.comparator();
+        key = type.key();
+        final Random random = new Random(42);
+        arrays = new Object[fanIn + 1][];
+        arrays[0] = elements(sample(random, size, size, 0));
+        final int count = Math.max(1, size / skew);
+        final int shared = (int) Math.round(count * overlap);
+        for (int i = 1; i < arrays.length; i++) {
+            final long[] values = Arrays.copyOf(sample(random, size, shared, 0), count);
+            System.arraycopy(sample(random, size, count - shared, 1), 0, values, shared, count - shared);
+            Arrays.sort(values);
+            arrays[i] = elements(values);
+        }
+
+        lists = new ArrayList<>();
+        sets = new ArrayList<>();
+        for (Object[] array : arrays) {
+            if (source == SourceType.ARRAY_LIST) {
+                lists.add(new ArrayList<>(Arrays.asList(array)));
+            } else if (source == SourceType.TREE_SET) {
+                final TreeSet<Object> set = new TreeSet<>(comparator);
+                set.addAll(Arrays.asList(array));
+                sets.add(set);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code count} distinct values out of {@code 2 * i + offset} for {@code i} below {@code universe},
+     * in order. Input 0 takes the even values, so odd values are never in it.
+     */
+    private static long[] sample(Random random, int universe, int count, int offset) {
+        final int[] indices = new int[universe];
+        for (int i = 0; i < universe; i++) {
+            indices[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            final int j = i + random.nextInt(universe - i);
+            final int index = indices[j];
+            indices[j] = indices[i];
+            indices[i] = index;
+        }
+        final long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = 2L * indices[i] + offset;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private Object[] elements(long[] values) {
+        final Object[] elements = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            elements[i] = type.element(values[i]);
+        }
+        return elements;
+    }
+
+    private Iterator<Object> iterator(int input) {
+        switch (source) {
+            case TREE_SET:
+                return sets.get(input).iterator();
+            case ARRAY_LIST:
+                return lists.get(input).iterator();
+            case ARRAY:
+                return Iterators.forArray(arrays[input]);
+            case SKIPPABLE_ARRAY:
+                return SkippableSortedIterators.forArray(arrays[input], comparator);
+            default:
+                throw new IllegalStateException("unknown source " + source);
+        }
+    }
+
+    private List<Iterator<Object>> iterators(int from, int to) {
+        final List<Iterator<Object>> iterators = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            iterators.add(iterator(i));
+        }
+        return iterators;
+    }
+
+    private static void drain(Iterator<Object> iterator, Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void union(Blackhole blackhole) {
+        drain(SortedIterators.union(iterators(0, fanIn), comparator), blackhole);
+    }
+
+    @Benchmark
+    public void intersection(Blackhole blackhole) {
+        drain(SortedIterators.intersection(iterator(0), iterator(1), comparator), blackhole);
+    }
+
+    @Benchmark
+    public void intersectionFanIn(Blackhole blackhole) {
+        drain(SortedIterators.intersection(iterators(0, fanIn), comparator), blackhole);
+    }
+
+    @Benchmark
+    public void exclude(Blackhole blackhole) {
+        drain(SortedIterators.exclude(iterator(0), iterator(1), comparator), blackhole);
+    }
+
+    @Benchmark
+    public void difference(Blackhole blackhole) {
+        drain(SortedIterators.difference(iterator(0), iterator(1), comparator), blackhole);
+    }
+
+    @Benchmark
+    public void differenceConsumer(Blackhole blackhole) {
+        SortedIterators.differenceConsumer(iterator(0), iterator(1), comparator, blackhole::consume, blackhole::consume);
+    }
+
+    @Benchmark
+    public void unionKeyed(Blackhole blackhole) {
+        drain(SortedKeyedIterators.union(iterators(0, fanIn), key), blackhole);
+    }
+
+    @Benchmark
+    public void intersectionKeyed(Blackhole blackhole) {
+        drain(SortedKeyedIterators.intersection(List.of(iterator(0), iterator(1)), key), blackhole);
+    }
+
+    @Benchmark
+    public void excludeKeyed(Blackhole blackhole) {
+        drain(SortedKeyedIterators.exclude(iterator(0), iterator(1), key), blackhole);
+    }
+
+    @Benchmark
+    public void differenceKeyed(Blackhole blackhole) {
+        drain(SortedKeyedIterators.difference(iterator(0), iterator(1), key), blackhole);
+    }
+
+    @Benchmark
+    public void builderPipeline(Blackhole blackhole) {
+        final SortedIterators.SortedIteratorsBuilder<Object> builder = SortedIterators.builder().comparator(comparator);
+        for (int i = 1; i < fanIn; i++) {
+            builder.union(iterator(i), arrays[i].length);
+        }
+        builder.intersect(iterator(0), arrays[0].length)
+                .exclude(iterator(fanIn), arrays[fanIn].length);
+        drain(builder.build(), blackhole);
+    }
+
+    private static final class Row {
+
+        private final long id;
+        private final int payload;
+
+        Row(long id, int payload) {
+            this.id = id;
+            this.payload = payload;
+        }
+
+        long id() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "Row{id=" + id + ", payload=" + payload + '}';
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(SortedWorkloadBench.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
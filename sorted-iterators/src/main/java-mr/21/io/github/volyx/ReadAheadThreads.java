@@ -0,0 +1,19 @@
+package io.github.volyx;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Threads of {@link ReadAheadIterators}, virtual so that reading ahead many slow inputs does not tie up
+ * platform threads.
+ */
+final class ReadAheadThreads {
+
+    private static final ThreadFactory FACTORY = Thread.ofVirtual().name("sorted-read-ahead-", 0).factory();
+
+    private ReadAheadThreads() {
+    }
+
+    static ThreadFactory factory() {
+        return FACTORY;
+    }
+}
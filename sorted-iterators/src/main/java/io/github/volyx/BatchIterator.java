@@ -0,0 +1,19 @@
+package io.github.volyx;
+
+import java.util.Iterator;
+
+/**
+ * Iterator that can hand over its elements in blocks. All operators returned by {@link SortedIterators}
+ * implement it, and read inputs that implement it block by block.
+ *
+ * @see BatchIterators
+ */
+public interface BatchIterator<T> extends Iterator<T> {
+
+    /**
+     * Moves up to {@code buffer.length} next elements into {@code buffer}, starting at index 0.
+     *
+     * @return number of elements written, {@code 0} only when the iterator is exhausted
+     */
+    int fill(T[] buffer);
+}
@@ -0,0 +1,186 @@
+package io.github.volyx;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class BatchIterators {
+
+    private static final BatchIterator<Object> EMPTY = new ArrayIterator<>(new Object[0], 0, 0);
+
+    private BatchIterators() {
+    }
+
+    public static <T> BatchIterator<T> forArray(T[] array) {
+        checkNotNull(array, "array");
+        return new ArrayIterator<>(array, 0, array.length);
+    }
+
+    public static <T> BatchIterator<T> forArray(T[] array, int from, int to) {
+        checkNotNull(array, "array");
+        checkArgument(0 <= from && from <= to && to <= array.length, "invalid range [%s, %s)", from, to);
+        return new ArrayIterator<>(array, from, to);
+    }
+
+    /**
+     * The list must support fast random access.
+     */
+    public static <T> BatchIterator<T> forList(List<T> list) {
+        checkNotNull(list, "list");
+        checkArgument(list instanceof RandomAccess, "list must support random access");
+        return new ListIterator<>(list);
+    }
+
+    /**
+     * Returns {@code iterator} itself when it already supports batches, otherwise fills batches element by element.
+     */
+    public static <T> BatchIterator<T> of(Iterator<T> iterator) {
+        checkNotNull(iterator, "iterator");
+        if (iterator instanceof BatchIterator) {
+            return (BatchIterator<T>) iterator;
+        }
+        return new IteratorAdapter<>(iterator);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> BatchIterator<T> empty() {
+        return (BatchIterator<T>) EMPTY;
+    }
+
+    /**
+     * Wraps {@code iterator} even when it already supports batches, hiding any other interface it implements.
+     */
+    static <T> BatchIterator<T> hide(Iterator<T> iterator) {
+        return new IteratorAdapter<>(iterator);
+    }
+
+    /**
+     * Passes the remaining elements of {@code iterator} to {@code consumer} in batches of {@code buffer.length}.
+     * The buffer is reused between calls, so only the first {@code count} elements of each batch are valid.
+     */
+    public static <T> void drainTo(Iterator<T> iterator, T[] buffer, BatchConsumer<T> consumer) {
+        checkNotNull(buffer, "buffer");
+        checkNotNull(consumer, "consumer");
+        checkArgument(buffer.length > 0, "buffer must not be empty");
+
+        final BatchIterator<T> batchIterator = of(iterator);
+        int count;
+        while ((count = batchIterator.fill(buffer)) > 0) {
+            consumer.accept(buffer, count);
+        }
+    }
+
+    public interface BatchConsumer<T> {
+
+        void accept(T[] buffer, int count);
+    }
+
+    private static final class ArrayIterator<T> implements BatchIterator<T> {
+
+        private final T[] array;
+        private final int to;
+        private int position;
+
+        ArrayIterator(T[] array, int from, int to) {
+            this.array = array;
+            this.position = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < to;
+        }
+
+        @Override
+        public T next() {
+            if (position >= to) throw new NoSuchElementException("no element");
+            return array[position++];
+        }
+
+        @Override
+        public int fill(T[] buffer) {
+            final int count = Math.min(buffer.length, to - position);
+            System.arraycopy(array, position, buffer, 0, count);
+            position += count;
+            return count;
+        }
+    }
+
+    private static final class ListIterator<T> implements BatchIterator<T> {
+
+        private final List<T> list;
+        private final int size;
+        private int position;
+
+        ListIterator(List<T> list) {
+            this.list = list;
+            this.size = list.size();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < size;
+        }
+
+        @Override
+        public T next() {
+            if (position >= size) throw new NoSuchElementException("no element");
+            return list.get(position++);
+        }
+
+        @Override
+        public int fill(T[] buffer) {
+            final int count = Math.min(buffer.length, size - position);
+            for (int i = 0; i < count; i++) {
+                buffer[i] = list.get(position + i);
+            }
+            position += count;
+            return count;
+        }
+    }
+
+    /**
+     * Fills batches element by element, or with the batches of the wrapped iterator when it has them.
+     */
+    private static final class IteratorAdapter<T> implements BatchIterator<T> {
+
+        private final Iterator<T> iterator;
+
+        IteratorAdapter(Iterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            iterator.forEachRemaining(action);
+        }
+
+        @Override
+        public int fill(T[] buffer) {
+            if (iterator instanceof BatchIterator) {
+                return ((BatchIterator<T>) iterator).fill(buffer);
+            }
+            int count = 0;
+            while (count < buffer.length && iterator.hasNext()) {
+                buffer[count++] = iterator.next();
+            }
+            return count;
+        }
+    }
+}
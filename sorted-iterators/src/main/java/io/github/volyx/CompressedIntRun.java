@@ -0,0 +1,274 @@
+package io.github.volyx;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Immutable ascending distinct {@code int} values compressed in blocks of {@value #BLOCK_SIZE}.
+ * <p>
+ * Every block keeps its first value uncompressed in a skip table next to the bit offset of its data. The
+ * remaining values are stored as gaps to their predecessors, bit packed with the smallest width that fits
+ * the largest gap of the block, so dense ranges take no space at all. Iterators decode one block at a time
+ * and {@link SkippableIntIterator#advanceTo(int) seek} through the skip table without decoding the blocks
+ * they jump over.
+ */
+public final class CompressedIntRun {
+
+    public static final int BLOCK_SIZE = 128;
+
+    private final long[] words;
+    private final int[] blockFirst;
+    private final long[] blockOffset;
+    private final byte[] blockWidth;
+    private final long size;
+
+    private CompressedIntRun(long[] words, int[] blockFirst, long[] blockOffset, byte[] blockWidth, long size) {
+        this.words = words;
+        this.blockFirst = blockFirst;
+        this.blockOffset = blockOffset;
+        this.blockWidth = blockWidth;
+        this.size = size;
+    }
+
+    public static Appender appender() {
+        return new Appender();
+    }
+
+    public static CompressedIntRun copyOf(PrimitiveIterator.OfInt iterator) {
+        return appender().appendAll(iterator).build();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the approximate memory taken by the compressed data and the skip table.
+     */
+    public long sizeInBytes() {
+        return (long) words.length * Long.BYTES + (long) blockFirst.length * (Integer.BYTES + Long.BYTES + 1);
+    }
+
+    public SkippableIntIterator iterator() {
+        return new RunIterator();
+    }
+
+    private int blockLength(int block) {
+        return block == blockFirst.length - 1 ? (int) (size - (long) block * BLOCK_SIZE) : BLOCK_SIZE;
+    }
+
+    /**
+     * Collects ascending values into a new run. Duplicates are skipped and a value less than its predecessor
+     * fails with {@link IllegalStateException}.
+     */
+    public static final class Appender implements IntConsumer {
+
+        private final int[] block = new int[BLOCK_SIZE];
+        private int blockLength;
+        private long[] words = new long[16];
+        private long bitPosition;
+        private int[] blockFirst = new int[16];
+        private long[] blockOffset = new long[16];
+        private byte[] blockWidth = new byte[16];
+        private int blockCount;
+        private long size;
+        private int last;
+        private boolean built;
+
+        private Appender() {
+        }
+
+        @Override
+        public void accept(int value) {
+            checkState(!built, "run is already built");
+            if (size > 0) {
+                if (value == last) {
+                    return;
+                }
+                if (value < last) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+            }
+            block[blockLength++] = value;
+            last = value;
+            size++;
+            if (blockLength == BLOCK_SIZE) {
+                flush();
+            }
+        }
+
+        public Appender appendAll(PrimitiveIterator.OfInt iterator) {
+            checkNotNull(iterator, "iterator");
+            while (iterator.hasNext()) {
+                accept(iterator.nextInt());
+            }
+            return this;
+        }
+
+        public CompressedIntRun build() {
+            checkState(!built, "run is already built");
+            if (blockLength > 0) {
+                flush();
+            }
+            built = true;
+            return new CompressedIntRun(Arrays.copyOf(words, (int) ((bitPosition + 63) >>> 6)),
+                    Arrays.copyOf(blockFirst, blockCount), Arrays.copyOf(blockOffset, blockCount),
+                    Arrays.copyOf(blockWidth, blockCount), size);
+        }
+
+        private void flush() {
+            long maxGap = 0;
+            for (int i = 1; i < blockLength; i++) {
+                maxGap |= gap(block[i - 1], block[i]);
+            }
+            final int width = 64 - Long.numberOfLeadingZeros(maxGap);
+
+            if (blockCount == blockFirst.length) {
+                blockFirst = Arrays.copyOf(blockFirst, blockCount * 2);
+                blockOffset = Arrays.copyOf(blockOffset, blockCount * 2);
+                blockWidth = Arrays.copyOf(blockWidth, blockCount * 2);
+            }
+            blockFirst[blockCount] = block[0];
+            blockOffset[blockCount] = bitPosition;
+            blockWidth[blockCount] = (byte) width;
+            blockCount++;
+
+            final long required = (bitPosition + (long) width * (blockLength - 1) + 64) >>> 6;
+            if (required > words.length) {
+                words = Arrays.copyOf(words, (int) Math.max(required, words.length * 2L));
+            }
+            if (width > 0) {
+                for (int i = 1; i < blockLength; i++) {
+                    write(gap(block[i - 1], block[i]), width);
+                }
+            }
+            blockLength = 0;
+        }
+
+        private void write(long value, int width) {
+            final int index = (int) (bitPosition >>> 6);
+            final int shift = (int) (bitPosition & 63);
+            words[index] |= value << shift;
+            if (shift + width > 64) {
+                words[index + 1] |= value >>> (64 - shift);
+            }
+            bitPosition += width;
+        }
+
+        private static long gap(int previous, int value) {
+            return ((long) value - previous) - 1;
+        }
+    }
+
+    private final class RunIterator implements SkippableIntIterator {
+
+        private final int[] buffer = new int[BLOCK_SIZE];
+        private int block = -1;
+        private int position;
+        private int length;
+
+        RunIterator() {
+            if (blockFirst.length > 0) {
+                decode(0);
+            }
+        }
+
+        private void decode(int target) {
+            block = target;
+            position = 0;
+            length = blockLength(target);
+            final int width = blockWidth[target];
+            int value = blockFirst[target];
+            buffer[0] = value;
+            if (width == 0) {
+                for (int i = 1; i < length; i++) {
+                    buffer[i] = ++value;
+                }
+                return;
+            }
+            final long mask = (1L << width) - 1;
+            long bit = blockOffset[target];
+            for (int i = 1; i < length; i++) {
+                final int index = (int) (bit >>> 6);
+                final int shift = (int) (bit & 63);
+                long gap = words[index] >>> shift;
+                if (shift + width > 64) {
+                    gap |= words[index + 1] << (64 - shift);
+                }
+                value += (int) (gap & mask) + 1;
+                buffer[i] = value;
+                bit += width;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < length;
+        }
+
+        @Override
+        public int peekInt() {
+            if (position == length) throw new NoSuchElementException("no element");
+            return buffer[position];
+        }
+
+        @Override
+        public int nextInt() {
+            if (position == length) throw new NoSuchElementException("no element");
+            final int value = buffer[position++];
+            if (position == length && block + 1 < blockFirst.length) {
+                decode(block + 1);
+            }
+            return value;
+        }
+
+        @Override
+        public void advanceTo(int target) {
+            if (position == length || buffer[position] >= target) {
+                return;
+            }
+            if (block + 1 < blockFirst.length && blockFirst[block + 1] <= target) {
+                // gallop over the skip table to the last block starting at or before target
+                int low = block + 1;
+                int step = 1;
+                int high = low + step;
+                while (high < blockFirst.length && blockFirst[high] <= target) {
+                    low = high;
+                    step <<= 1;
+                    high = low + step;
+                }
+                if (high > blockFirst.length) {
+                    high = blockFirst.length;
+                }
+                while (high - low > 1) {
+                    final int middle = (low + high) >>> 1;
+                    if (blockFirst[middle] <= target) {
+                        low = middle;
+                    } else {
+                        high = middle;
+                    }
+                }
+                decode(low);
+            }
+            int low = position;
+            int high = length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (buffer[middle] < target) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            position = low;
+            if (position == length && block + 1 < blockFirst.length) {
+                decode(block + 1);
+            }
+        }
+    }
+}
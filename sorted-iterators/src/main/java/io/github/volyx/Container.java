@@ -0,0 +1,175 @@
+package io.github.volyx;
+
+import java.util.Arrays;
+
+/**
+ * The low 16 bits of ascending values that share their high bits. Kept as a sorted array, or additionally as a
+ * bitmap once there are more than {@value #DENSE_THRESHOLD} of them, where set operations become word-wide
+ * AND, OR, ANDNOT and XOR.
+ */
+final class Container {
+
+    static final int DENSE_THRESHOLD = 4096;
+
+    private static final int WORDS = 1 << 10;
+
+    char[] values = new char[16];
+    int cardinality;
+    private long[] bitmap;
+    private boolean dense;
+
+    void clear() {
+        cardinality = 0;
+        dense = false;
+    }
+
+    /**
+     * Appends {@code low}, which must be greater than the values added since the last {@link #clear()}.
+     */
+    void add(int low) {
+        if (cardinality == values.length) {
+            values = Arrays.copyOf(values, cardinality * 2);
+        }
+        values[cardinality++] = (char) low;
+    }
+
+    /**
+     * Switches a dense container to the bitmap, called once all values are added.
+     */
+    void seal() {
+        if (cardinality > DENSE_THRESHOLD) {
+            toBitmap();
+        }
+    }
+
+    /**
+     * Replaces the content of this container with the result of {@code operation} over {@code left} and
+     * {@code right}, as a sorted array.
+     */
+    void apply(SetOperation operation, Container left, Container right) {
+        clear();
+        ensureCapacity(left.cardinality + right.cardinality);
+        if (!left.dense && !right.dense) {
+            merge(operation, left, right);
+        } else if (operation == SetOperation.INTERSECTION && left.dense != right.dense) {
+            filter(left.dense ? right : left, left.dense ? left : right, true);
+        } else if (operation == SetOperation.EXCLUDE && !left.dense) {
+            filter(left, right, false);
+        } else {
+            if (!left.dense) {
+                left.toBitmap();
+            }
+            if (!right.dense) {
+                right.toBitmap();
+            }
+            combine(operation, left.bitmap, right.bitmap);
+        }
+    }
+
+    private void merge(SetOperation operation, Container left, Container right) {
+        final boolean keepLeft = operation != SetOperation.INTERSECTION;
+        final boolean keepRight = operation == SetOperation.UNION || operation == SetOperation.DIFFERENCE;
+        final boolean keepBoth = operation == SetOperation.UNION || operation == SetOperation.INTERSECTION;
+        final char[] leftValues = left.values;
+        final char[] rightValues = right.values;
+        int i = 0;
+        int j = 0;
+        while (i < left.cardinality && j < right.cardinality) {
+            final char a = leftValues[i];
+            final char b = rightValues[j];
+            if (a < b) {
+                if (keepLeft) {
+                    values[cardinality++] = a;
+                }
+                i++;
+            } else if (a > b) {
+                if (keepRight) {
+                    values[cardinality++] = b;
+                }
+                j++;
+            } else {
+                if (keepBoth) {
+                    values[cardinality++] = a;
+                }
+                i++;
+                j++;
+            }
+        }
+        if (keepLeft) {
+            while (i < left.cardinality) {
+                values[cardinality++] = leftValues[i++];
+            }
+        }
+        if (keepRight) {
+            while (j < right.cardinality) {
+                values[cardinality++] = rightValues[j++];
+            }
+        }
+    }
+
+    /**
+     * Keeps the values of the sparse container that are present in, or absent from, the dense one.
+     */
+    private void filter(Container sparse, Container dense, boolean present) {
+        final long[] bits = dense.bitmap;
+        for (int i = 0; i < sparse.cardinality; i++) {
+            final char value = sparse.values[i];
+            if (((bits[value >>> 6] & (1L << value)) != 0) == present) {
+                values[cardinality++] = value;
+            }
+        }
+    }
+
+    private void combine(SetOperation operation, long[] left, long[] right) {
+        switch (operation) {
+            case UNION:
+                for (int i = 0; i < WORDS; i++) {
+                    addWord(i, left[i] | right[i]);
+                }
+                break;
+            case INTERSECTION:
+                for (int i = 0; i < WORDS; i++) {
+                    addWord(i, left[i] & right[i]);
+                }
+                break;
+            case EXCLUDE:
+                for (int i = 0; i < WORDS; i++) {
+                    addWord(i, left[i] & ~right[i]);
+                }
+                break;
+            case DIFFERENCE:
+                for (int i = 0; i < WORDS; i++) {
+                    addWord(i, left[i] ^ right[i]);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported operation " + operation);
+        }
+    }
+
+    private void addWord(int index, long word) {
+        while (word != 0) {
+            values[cardinality++] = (char) (index << 6 | Long.numberOfTrailingZeros(word));
+            word &= word - 1;
+        }
+    }
+
+    private void toBitmap() {
+        if (bitmap == null) {
+            bitmap = new long[WORDS];
+        } else {
+            Arrays.fill(bitmap, 0L);
+        }
+        for (int i = 0; i < cardinality; i++) {
+            final char value = values[i];
+            bitmap[value >>> 6] |= 1L << value;
+        }
+        dense = true;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (values.length < capacity) {
+            values = new char[Math.min(Math.max(capacity, values.length * 2), 1 << 16)];
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.volyx;
+
+/**
+ * How much the set operations trust their inputs.
+ */
+public enum InputValidation {
+
+    /**
+     * Inputs must be sorted, duplicates are allowed and dropped. Unsorted input fails with
+     * {@link IllegalStateException}. A {@link SkippableSortedIterator} seeks with its own comparator, one
+     * that is found to order elements differently from the comparator of the operation fails with
+     * {@link IllegalArgumentException}.
+     */
+    CHECKED,
+
+    /**
+     * Inputs are declared strictly sorted and distinct and are not checked. Violating this gives undefined results.
+     */
+    TRUSTED
+}
@@ -0,0 +1,51 @@
+package io.github.volyx;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Objects;
+
+/**
+ * A row of a {@link SortedIterators#mergeJoin merge join}, either side is {@code null} when it has no match.
+ */
+public final class JoinRow<K, L, R> {
+
+    private final K key;
+    private final @Nullable L left;
+    private final @Nullable R right;
+
+    JoinRow(K key, @Nullable L left, @Nullable R right) {
+        this.key = key;
+        this.left = left;
+        this.right = right;
+    }
+
+    public K key() {
+        return key;
+    }
+
+    public @Nullable L left() {
+        return left;
+    }
+
+    public @Nullable R right() {
+        return right;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final JoinRow<?, ?, ?> that = (JoinRow<?, ?, ?>) o;
+        return key.equals(that.key) && Objects.equals(left, that.left) && Objects.equals(right, that.right);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, left, right);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + key + ", " + left + ", " + right + ")";
+    }
+}
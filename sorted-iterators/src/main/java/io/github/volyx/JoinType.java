@@ -0,0 +1,22 @@
+package io.github.volyx;
+
+/**
+ * Which rows a {@link SortedIterators#mergeJoin merge join} emits besides the matching pairs.
+ */
+public enum JoinType {
+
+    /**
+     * Only pairs of rows with equal keys.
+     */
+    INNER,
+
+    /**
+     * Also left rows without a match, paired with {@code null}.
+     */
+    LEFT,
+
+    /**
+     * Also unmatched rows of either side, paired with {@code null}.
+     */
+    FULL
+}
@@ -0,0 +1,33 @@
+package io.github.volyx;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of the keys stored in a {@link SortedRun}.
+ */
+public interface KeyCodec<T> {
+
+    void write(T value, DataOutput output) throws IOException;
+
+    /**
+     * Decodes a key at the position of {@code buffer} and moves the position past it.
+     */
+    T read(ByteBuffer buffer);
+
+    static KeyCodec<Integer> integers() {
+        return KeyCodecs.INTEGER;
+    }
+
+    static KeyCodec<Long> longs() {
+        return KeyCodecs.LONG;
+    }
+
+    /**
+     * UTF-8 bytes prefixed with their length.
+     */
+    static KeyCodec<String> strings() {
+        return KeyCodecs.STRING;
+    }
+}
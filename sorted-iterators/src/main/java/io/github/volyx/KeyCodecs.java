@@ -0,0 +1,55 @@
+package io.github.volyx;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The codecs returned by the {@link KeyCodec} factories.
+ */
+final class KeyCodecs {
+
+    private KeyCodecs() {
+    }
+
+    static final KeyCodec<Integer> INTEGER = new KeyCodec<>() {
+        @Override
+        public void write(Integer value, DataOutput output) throws IOException {
+            output.writeInt(value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    static final KeyCodec<Long> LONG = new KeyCodec<>() {
+        @Override
+        public void write(Long value, DataOutput output) throws IOException {
+            output.writeLong(value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    };
+
+    static final KeyCodec<String> STRING = new KeyCodec<>() {
+        @Override
+        public void write(String value, DataOutput output) throws IOException {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        @Override
+        public String read(ByteBuffer buffer) {
+            final byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
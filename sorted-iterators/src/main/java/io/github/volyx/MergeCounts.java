@@ -0,0 +1,323 @@
+package io.github.volyx;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * Sizes of the parts of two sorted inputs, counted in one merge pass without producing any elements.
+ */
+final class MergeCounts {
+
+    long sourceOnly;
+    long targetOnly;
+    long both;
+
+    long union() {
+        return sourceOnly + targetOnly + both;
+    }
+
+    long difference() {
+        return sourceOnly + targetOnly;
+    }
+
+    /**
+     * Size of the intersection over the size of the union, {@code 0} when both inputs are empty.
+     */
+    double jaccard() {
+        final long union = union();
+        return union == 0 ? 0 : (double) both / union;
+    }
+
+    /**
+     * Size of the intersection over the size of the smaller input, {@code 0} when either input is empty.
+     */
+    double overlap() {
+        final long smaller = Math.min(sourceOnly, targetOnly) + both;
+        return smaller == 0 ? 0 : (double) both / smaller;
+    }
+
+    static <T> MergeCounts count(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                 Comparator<T> comparator, InputValidation validation) {
+        return count(new ObjectHeads<>(sourceIterator, targetIterator, comparator, validation));
+    }
+
+    static MergeCounts count(PrimitiveIterator.OfInt sourceIterator, PrimitiveIterator.OfInt targetIterator) {
+        return count(new IntHeads(sourceIterator, targetIterator));
+    }
+
+    static MergeCounts count(PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+        return count(new LongHeads(sourceIterator, targetIterator));
+    }
+
+    private static MergeCounts count(Heads heads) {
+        final MergeCounts counts = new MergeCounts();
+        while (heads.hasSource() && heads.hasTarget()) {
+            final int compare = heads.compare();
+            if (compare < 0) {
+                counts.sourceOnly++;
+                heads.advanceSource();
+            } else if (compare > 0) {
+                counts.targetOnly++;
+                heads.advanceTarget();
+            } else {
+                counts.both++;
+                heads.advanceSource();
+                heads.advanceTarget();
+            }
+        }
+        while (heads.hasSource()) {
+            counts.sourceOnly++;
+            heads.advanceSource();
+        }
+        while (heads.hasTarget()) {
+            counts.targetOnly++;
+            heads.advanceTarget();
+        }
+        return counts;
+    }
+
+    /**
+     * Stops at the end of the shorter input and seeks the inputs that support it.
+     */
+    static <T> long countIntersection(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                      Comparator<T> comparator, InputValidation validation) {
+        if (sourceIterator instanceof SkippableSortedIterator || targetIterator instanceof SkippableSortedIterator) {
+            return countIntersection(new SkippableHeads<>(SkippableSortedIterators.of(sourceIterator, comparator, validation),
+                    SkippableSortedIterators.of(targetIterator, comparator, validation), comparator));
+        }
+        return countIntersection(new ObjectHeads<>(sourceIterator, targetIterator, comparator, validation));
+    }
+
+    static long countIntersection(PrimitiveIterator.OfInt sourceIterator, PrimitiveIterator.OfInt targetIterator) {
+        return countIntersection(new IntHeads(sourceIterator, targetIterator));
+    }
+
+    static long countIntersection(PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+        return countIntersection(new LongHeads(sourceIterator, targetIterator));
+    }
+
+    private static long countIntersection(Heads heads) {
+        long count = 0;
+        while (heads.hasSource() && heads.hasTarget()) {
+            final int compare = heads.compare();
+            if (compare < 0) {
+                heads.seekSource();
+            } else if (compare > 0) {
+                heads.seekTarget();
+            } else {
+                count++;
+                heads.advanceSource();
+                heads.advanceTarget();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The cursors over the two inputs of a count, so that the generic, {@code int} and {@code long} counts share
+     * one merge loop. The seeks move the behind cursor to the first element not less than the other head.
+     */
+    private abstract static class Heads {
+
+        abstract boolean hasSource();
+
+        abstract boolean hasTarget();
+
+        /**
+         * Compares the head of the source with the head of the target, both inputs must have one.
+         */
+        abstract int compare();
+
+        abstract void advanceSource();
+
+        abstract void advanceTarget();
+
+        void seekSource() {
+            advanceSource();
+        }
+
+        void seekTarget() {
+            advanceTarget();
+        }
+    }
+
+    private static final class ObjectHeads<T> extends Heads {
+
+        private final SortedIterators.Cursor<T> source;
+        private final SortedIterators.Cursor<T> target;
+        private final Comparator<T> comparator;
+
+        ObjectHeads(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator,
+                    InputValidation validation) {
+            this.source = new SortedIterators.Cursor<>(sourceIterator, comparator, validation);
+            this.target = new SortedIterators.Cursor<>(targetIterator, comparator, validation);
+            this.comparator = comparator;
+        }
+
+        @Override
+        boolean hasSource() {
+            return source.hasHead;
+        }
+
+        @Override
+        boolean hasTarget() {
+            return target.hasHead;
+        }
+
+        @Override
+        int compare() {
+            return comparator.compare(source.head, target.head);
+        }
+
+        @Override
+        void advanceSource() {
+            source.advance();
+        }
+
+        @Override
+        void advanceTarget() {
+            target.advance();
+        }
+    }
+
+    private static final class SkippableHeads<T> extends Heads {
+
+        private final SkippableSortedIterator<T> source;
+        private final SkippableSortedIterator<T> target;
+        private final Comparator<T> comparator;
+
+        SkippableHeads(SkippableSortedIterator<T> source, SkippableSortedIterator<T> target, Comparator<T> comparator) {
+            this.source = source;
+            this.target = target;
+            this.comparator = comparator;
+        }
+
+        @Override
+        boolean hasSource() {
+            return source.hasNext();
+        }
+
+        @Override
+        boolean hasTarget() {
+            return target.hasNext();
+        }
+
+        @Override
+        int compare() {
+            return comparator.compare(source.peek(), target.peek());
+        }
+
+        @Override
+        void advanceSource() {
+            source.next();
+        }
+
+        @Override
+        void advanceTarget() {
+            target.next();
+        }
+
+        @Override
+        void seekSource() {
+            source.advanceTo(target.peek());
+        }
+
+        @Override
+        void seekTarget() {
+            target.advanceTo(source.peek());
+        }
+    }
+
+    private static final class IntHeads extends Heads {
+
+        private final SortedIntIterators.Cursor source;
+        private final SortedIntIterators.Cursor target;
+
+        IntHeads(PrimitiveIterator.OfInt sourceIterator, PrimitiveIterator.OfInt targetIterator) {
+            this.source = new SortedIntIterators.Cursor(sourceIterator);
+            this.target = new SortedIntIterators.Cursor(targetIterator);
+        }
+
+        @Override
+        boolean hasSource() {
+            return source.hasHead;
+        }
+
+        @Override
+        boolean hasTarget() {
+            return target.hasHead;
+        }
+
+        @Override
+        int compare() {
+            return Integer.compare(source.head, target.head);
+        }
+
+        @Override
+        void advanceSource() {
+            source.advance();
+        }
+
+        @Override
+        void advanceTarget() {
+            target.advance();
+        }
+
+        @Override
+        void seekSource() {
+            source.advanceTo(target.head);
+        }
+
+        @Override
+        void seekTarget() {
+            target.advanceTo(source.head);
+        }
+    }
+
+    private static final class LongHeads extends Heads {
+
+        private final SortedLongIterators.Cursor source;
+        private final SortedLongIterators.Cursor target;
+
+        LongHeads(PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+            this.source = new SortedLongIterators.Cursor(sourceIterator);
+            this.target = new SortedLongIterators.Cursor(targetIterator);
+        }
+
+        @Override
+        boolean hasSource() {
+            return source.hasHead;
+        }
+
+        @Override
+        boolean hasTarget() {
+            return target.hasHead;
+        }
+
+        @Override
+        int compare() {
+            return Long.compare(source.head, target.head);
+        }
+
+        @Override
+        void advanceSource() {
+            source.advance();
+        }
+
+        @Override
+        void advanceTarget() {
+            target.advance();
+        }
+
+        @Override
+        void seekSource() {
+            source.advanceTo(target.head);
+        }
+
+        @Override
+        void seekTarget() {
+            target.advanceTo(source.head);
+        }
+    }
+}
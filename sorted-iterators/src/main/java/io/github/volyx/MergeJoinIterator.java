@@ -0,0 +1,132 @@
+package io.github.volyx;
+
+import com.google.common.collect.AbstractIterator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Streams the left input and buffers one group of right rows with equal keys at a time, every left row of
+ * that key is then paired with each buffered row.
+ */
+final class MergeJoinIterator<K, L, R> extends AbstractIterator<JoinRow<K, L, R>> {
+
+    private final Iterator<L> leftIterator;
+    private final Iterator<R> rightIterator;
+    private final Function<? super L, ? extends K> leftKeyExtractor;
+    private final Function<? super R, ? extends K> rightKeyExtractor;
+    private final Comparator<? super K> keyComparator;
+    private final JoinType type;
+    private final int maxGroupSize;
+
+    private L left;
+    private K leftKey;
+    private boolean hasLeft;
+    private R right;
+    private K rightKey;
+    private boolean hasRight;
+
+    private final List<R> group = new ArrayList<>();
+    private K groupKey;
+    private L groupLeft;
+    private int groupIndex;
+
+    MergeJoinIterator(Iterator<L> leftIterator, Function<? super L, ? extends K> leftKeyExtractor,
+                      Iterator<R> rightIterator, Function<? super R, ? extends K> rightKeyExtractor,
+                      Comparator<? super K> keyComparator, JoinType type, int maxGroupSize) {
+        this.leftIterator = leftIterator;
+        this.rightIterator = rightIterator;
+        this.leftKeyExtractor = leftKeyExtractor;
+        this.rightKeyExtractor = rightKeyExtractor;
+        this.keyComparator = keyComparator;
+        this.type = type;
+        this.maxGroupSize = maxGroupSize;
+        advanceLeft();
+        advanceRight();
+    }
+
+    @Override
+    protected JoinRow<K, L, R> computeNext() {
+        while (true) {
+            if (groupLeft != null) {
+                if (groupIndex < group.size()) {
+                    return new JoinRow<>(groupKey, groupLeft, group.get(groupIndex++));
+                }
+                groupLeft = null;
+            }
+            if (!hasLeft && !hasRight) {
+                return endOfData();
+            }
+            final int compare = !hasLeft ? 1 : !hasRight ? -1 : keyComparator.compare(leftKey, rightKey);
+            if (compare < 0) {
+                if (!group.isEmpty() && keyComparator.compare(leftKey, groupKey) == 0) {
+                    startGroup();
+                    continue;
+                }
+                final JoinRow<K, L, R> row = new JoinRow<>(leftKey, left, null);
+                advanceLeft();
+                if (type != JoinType.INNER) {
+                    return row;
+                }
+            } else if (compare > 0) {
+                final JoinRow<K, L, R> row = new JoinRow<>(rightKey, null, right);
+                advanceRight();
+                if (type == JoinType.FULL) {
+                    return row;
+                }
+            } else {
+                group.clear();
+                groupKey = rightKey;
+                do {
+                    if (group.size() == maxGroupSize) {
+                        throw new IllegalStateException("more than " + maxGroupSize + " right rows with key " + groupKey);
+                    }
+                    group.add(right);
+                    advanceRight();
+                } while (hasRight && keyComparator.compare(rightKey, groupKey) == 0);
+                startGroup();
+            }
+        }
+    }
+
+    private void startGroup() {
+        groupLeft = left;
+        groupIndex = 0;
+        advanceLeft();
+    }
+
+    private void advanceLeft() {
+        final K previous = leftKey;
+        hasLeft = leftIterator.hasNext();
+        if (hasLeft) {
+            left = checkNotNull(leftIterator.next(), "row");
+            leftKey = leftKeyExtractor.apply(left);
+            checkOrder(previous, leftKey);
+        } else {
+            left = null;
+        }
+    }
+
+    private void advanceRight() {
+        final K previous = rightKey;
+        hasRight = rightIterator.hasNext();
+        if (hasRight) {
+            right = checkNotNull(rightIterator.next(), "row");
+            rightKey = rightKeyExtractor.apply(right);
+            checkOrder(previous, rightKey);
+        } else {
+            right = null;
+        }
+    }
+
+    private void checkOrder(K previous, K key) {
+        if (previous != null && keyComparator.compare(previous, key) > 0) {
+            throw new IllegalStateException("sorted predicate failed");
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package io.github.volyx;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Collects the {@link OperatorStats} of one operation. The operation runs on inputs and a comparator wrapped by
+ * this probe: the inputs count their elements and time their {@code hasNext()}, and unless
+ * {@link InputValidation#TRUSTED} also check the order and drop duplicates, so that the operation itself runs
+ * trusted and every dropped duplicate is counted here.
+ */
+final class OperatorProbe<T> {
+
+    static final SortedOperatorListener NOOP = stats -> {
+    };
+
+    private final String operator;
+    private final SortedOperatorListener listener;
+    private final boolean merging;
+    private final long start = System.nanoTime();
+    private final List<InputProbe> inputs = new ArrayList<>();
+
+    private long emitted;
+    private long comparisons;
+    private boolean completed;
+
+    /**
+     * @param merging whether the operation returns every distinct element of its inputs once, so that the
+     *                elements it did not return are duplicates
+     */
+    OperatorProbe(String operator, SortedOperatorListener listener, boolean merging) {
+        this.operator = operator;
+        this.listener = listener;
+        this.merging = merging;
+    }
+
+    Comparator<T> comparator(Comparator<T> comparator) {
+        return (o1, o2) -> {
+            comparisons++;
+            return comparator.compare(o1, o2);
+        };
+    }
+
+    /**
+     * Wraps an input, {@code comparator} should be the one returned by {@link #comparator}.
+     */
+    Iterator<T> input(Iterator<T> iterator, Comparator<T> comparator, InputValidation validation) {
+        if (iterator instanceof SkippableSortedIterator) {
+            return new SkippableInput((SkippableSortedIterator<T>) iterator);
+        }
+        return new LinearInput(iterator, comparator, validation == InputValidation.CHECKED);
+    }
+
+    Iterator<T> output(Iterator<T> iterator) {
+        return new Output(iterator);
+    }
+
+    Consumer<T> output(Consumer<T> consumer) {
+        return value -> {
+            emitted++;
+            consumer.accept(value);
+        };
+    }
+
+    /**
+     * Reports the stats once, {@code exhausted} tells whether every input was read to the end.
+     */
+    void complete(boolean exhausted) {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        final long[] pulled = new long[inputs.size()];
+        final long[] blockedNanos = new long[inputs.size()];
+        long duplicates = 0;
+        for (int i = 0; i < pulled.length; i++) {
+            final InputProbe input = inputs.get(i);
+            pulled[i] = input.pulled;
+            blockedNanos[i] = input.blockedNanos;
+            duplicates += input.duplicates;
+        }
+        if (merging && exhausted) {
+            long distinct = -duplicates;
+            for (long count : pulled) {
+                distinct += count;
+            }
+            duplicates += distinct - emitted;
+        }
+        listener.onComplete(new OperatorStats(operator, pulled, blockedNanos, emitted, comparisons, duplicates,
+                System.nanoTime() - start));
+    }
+
+    private abstract class InputProbe {
+
+        long pulled;
+        long blockedNanos;
+        long duplicates;
+
+        InputProbe() {
+            inputs.add(this);
+        }
+    }
+
+    private final class LinearInput extends InputProbe implements Iterator<T> {
+
+        private final Iterator<T> iterator;
+        private final Comparator<T> comparator;
+        private final boolean checked;
+        private T head;
+        private boolean hasHead;
+        private boolean fetched;
+
+        LinearInput(Iterator<T> iterator, Comparator<T> comparator, boolean checked) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+            this.checked = checked;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                fetch();
+            }
+            return hasHead;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched = false;
+            return head;
+        }
+
+        private void fetch() {
+            fetched = true;
+            while (true) {
+                final long begin = System.nanoTime();
+                final boolean hasNext = iterator.hasNext();
+                blockedNanos += System.nanoTime() - begin;
+                if (!hasNext) {
+                    head = null;
+                    hasHead = false;
+                    return;
+                }
+                final T value = iterator.next();
+                pulled++;
+                if (checked && hasHead) {
+                    final int compare = comparator.compare(value, head);
+                    if (compare < 0) {
+                        throw new IllegalStateException("sorted predicate failed");
+                    }
+                    if (compare == 0) {
+                        duplicates++;
+                        continue;
+                    }
+                }
+                head = value;
+                hasHead = true;
+                return;
+            }
+        }
+    }
+
+    private final class SkippableInput extends InputProbe implements SkippableSortedIterator<T> {
+
+        private final SkippableSortedIterator<T> iterator;
+
+        SkippableInput(SkippableSortedIterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final long begin = System.nanoTime();
+            final boolean hasNext = iterator.hasNext();
+            blockedNanos += System.nanoTime() - begin;
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            final T value = iterator.next();
+            pulled++;
+            return value;
+        }
+
+        @Override
+        public T peek() {
+            return iterator.peek();
+        }
+
+        @Override
+        public void advanceTo(T target) {
+            final long begin = System.nanoTime();
+            iterator.advanceTo(target);
+            blockedNanos += System.nanoTime() - begin;
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return iterator.comparator();
+        }
+    }
+
+    private final class Output implements BatchIterator<T>, AutoCloseable {
+
+        private final Iterator<T> iterator;
+
+        Output(Iterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (iterator.hasNext()) {
+                return true;
+            }
+            complete(true);
+            return false;
+        }
+
+        @Override
+        public T next() {
+            final T value = iterator.next();
+            emitted++;
+            return value;
+        }
+
+        @Override
+        public int fill(T[] buffer) {
+            final int count;
+            if (iterator instanceof BatchIterator) {
+                count = ((BatchIterator<T>) iterator).fill(buffer);
+            } else {
+                int filled = 0;
+                while (filled < buffer.length && iterator.hasNext()) {
+                    buffer[filled++] = iterator.next();
+                }
+                count = filled;
+            }
+            emitted += count;
+            if (count == 0) {
+                complete(true);
+            }
+            return count;
+        }
+
+        /**
+         * Reports the stats of a partially read result.
+         */
+        @Override
+        public void close() {
+            complete(false);
+        }
+    }
+}
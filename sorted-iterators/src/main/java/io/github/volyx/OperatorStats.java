@@ -0,0 +1,105 @@
+package io.github.volyx;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * What an instrumented operation did. Inputs are numbered in the order they were passed.
+ */
+public final class OperatorStats {
+
+    private final String operator;
+    private final long[] pulled;
+    private final long[] blockedNanos;
+    private final long emitted;
+    private final long comparisons;
+    private final long duplicatesDropped;
+    private final long elapsedNanos;
+
+    OperatorStats(String operator, long[] pulled, long[] blockedNanos, long emitted, long comparisons,
+                  long duplicatesDropped, long elapsedNanos) {
+        this.operator = operator;
+        this.pulled = pulled;
+        this.blockedNanos = blockedNanos;
+        this.emitted = emitted;
+        this.comparisons = comparisons;
+        this.duplicatesDropped = duplicatesDropped;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Name of the {@link SortedIterators} method, for example {@code "union"}.
+     */
+    public String operator() {
+        return operator;
+    }
+
+    public int inputs() {
+        return pulled.length;
+    }
+
+    /**
+     * Elements read from an input, elements passed over by a seek are not read.
+     */
+    public long pulled(int input) {
+        checkElementIndex(input, pulled.length, "input");
+        return pulled[input];
+    }
+
+    public long pulled() {
+        return Arrays.stream(pulled).sum();
+    }
+
+    /**
+     * Time spent waiting for an input in {@code hasNext()}, and in {@code advanceTo()} of skippable inputs.
+     */
+    public long blockedNanos(int input) {
+        checkElementIndex(input, blockedNanos.length, "input");
+        return blockedNanos[input];
+    }
+
+    public long blockedNanos() {
+        return Arrays.stream(blockedNanos).sum();
+    }
+
+    /**
+     * Elements returned, or passed to the consumers of {@code differenceConsumer}.
+     */
+    public long emitted() {
+        return emitted;
+    }
+
+    /**
+     * Calls of the comparator, seeks of skippable inputs compare with their own comparator and are not counted.
+     */
+    public long comparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Elements equal to the previous element of their input, and for a union elements equal to one of another
+     * input.
+     */
+    public long duplicatesDropped() {
+        return duplicatesDropped;
+    }
+
+    /**
+     * Time from creating the operation to its completion, including the time the caller spent between reads.
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "OperatorStats{operator=" + operator
+                + ", pulled=" + Arrays.toString(pulled)
+                + ", blockedNanos=" + Arrays.toString(blockedNanos)
+                + ", emitted=" + emitted
+                + ", comparisons=" + comparisons
+                + ", duplicatesDropped=" + duplicatesDropped
+                + ", elapsedNanos=" + elapsedNanos + '}';
+    }
+}
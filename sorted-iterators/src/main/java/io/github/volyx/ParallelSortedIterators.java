@@ -0,0 +1,284 @@
+package io.github.volyx;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Runs set operations over {@link SortedSource}s in parallel. Splitter keys are sampled from the largest source,
+ * every key range is computed by the same sequential algorithm as a task of the pool, and the results are
+ * concatenated in key order. Each range is collected into memory before it is returned.
+ * <p>
+ * Ranges are submitted in key order, at most one more than the parallelism of the pool at a time, and the next
+ * one when a computed range is taken. Closing the returned iterator, or dropping it, cancels the ranges in
+ * flight and submits no more.
+ * <p>
+ * Every range checks its inputs as {@link InputValidation} asks, {@link InputValidation#CHECKED} unless given.
+ */
+public final class ParallelSortedIterators {
+
+    private ParallelSortedIterators() {
+    }
+
+    public static <T> ParallelIterator<T> union(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator,
+                                                ForkJoinPool pool) {
+        return union(sources, comparator, InputValidation.CHECKED, pool);
+    }
+
+    public static <T> ParallelIterator<T> union(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator,
+                                                ForkJoinPool pool, int partitions) {
+        return union(sources, comparator, InputValidation.CHECKED, pool, partitions);
+    }
+
+    public static <T> ParallelIterator<T> union(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator,
+                                                InputValidation validation, ForkJoinPool pool) {
+        return execute(SetOperation.UNION, toList(sources), comparator, validation, pool, defaultPartitions(pool));
+    }
+
+    public static <T> ParallelIterator<T> union(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator,
+                                                InputValidation validation, ForkJoinPool pool, int partitions) {
+        return execute(SetOperation.UNION, toList(sources), comparator, validation, pool, partitions);
+    }
+
+    public static <T> ParallelIterator<T> intersection(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator,
+                                                       ForkJoinPool pool) {
+        return intersection(sources, comparator, InputValidation.CHECKED, pool);
+    }
+
+    public static <T> ParallelIterator<T> intersection(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator,
+                                                       ForkJoinPool pool, int partitions) {
+        return intersection(sources, comparator, InputValidation.CHECKED, pool, partitions);
+    }
+
+    public static <T> ParallelIterator<T> intersection(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator,
+                                                       InputValidation validation, ForkJoinPool pool) {
+        return execute(SetOperation.INTERSECTION, toList(sources), comparator, validation, pool, defaultPartitions(pool));
+    }
+
+    public static <T> ParallelIterator<T> intersection(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator,
+                                                       InputValidation validation, ForkJoinPool pool, int partitions) {
+        return execute(SetOperation.INTERSECTION, toList(sources), comparator, validation, pool, partitions);
+    }
+
+    public static <T> ParallelIterator<T> exclude(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator,
+                                                  ForkJoinPool pool) {
+        return exclude(source, target, comparator, InputValidation.CHECKED, pool);
+    }
+
+    public static <T> ParallelIterator<T> exclude(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator,
+                                                  ForkJoinPool pool, int partitions) {
+        return exclude(source, target, comparator, InputValidation.CHECKED, pool, partitions);
+    }
+
+    public static <T> ParallelIterator<T> exclude(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator,
+                                                  InputValidation validation, ForkJoinPool pool) {
+        return execute(SetOperation.EXCLUDE, toList(source, target), comparator, validation, pool, defaultPartitions(pool));
+    }
+
+    public static <T> ParallelIterator<T> exclude(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator,
+                                                  InputValidation validation, ForkJoinPool pool, int partitions) {
+        return execute(SetOperation.EXCLUDE, toList(source, target), comparator, validation, pool, partitions);
+    }
+
+    public static <T> ParallelIterator<T> difference(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator,
+                                                     ForkJoinPool pool) {
+        return difference(source, target, comparator, InputValidation.CHECKED, pool);
+    }
+
+    public static <T> ParallelIterator<T> difference(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator,
+                                                     ForkJoinPool pool, int partitions) {
+        return difference(source, target, comparator, InputValidation.CHECKED, pool, partitions);
+    }
+
+    public static <T> ParallelIterator<T> difference(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator,
+                                                     InputValidation validation, ForkJoinPool pool) {
+        return execute(SetOperation.DIFFERENCE, toList(source, target), comparator, validation, pool, defaultPartitions(pool));
+    }
+
+    public static <T> ParallelIterator<T> difference(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator,
+                                                     InputValidation validation, ForkJoinPool pool, int partitions) {
+        return execute(SetOperation.DIFFERENCE, toList(source, target), comparator, validation, pool, partitions);
+    }
+
+    private static int defaultPartitions(ForkJoinPool pool) {
+        return checkNotNull(pool, "pool").getParallelism() * 4;
+    }
+
+    private static <T> List<SortedSource<T>> toList(Iterable<? extends SortedSource<T>> sources) {
+        checkNotNull(sources, "sources");
+        final List<SortedSource<T>> sourceList = new ArrayList<>();
+        for (SortedSource<T> source : sources) {
+            sourceList.add(checkNotNull(source, "source"));
+        }
+        checkArgument(!sourceList.isEmpty(), "sources must not be empty");
+        return sourceList;
+    }
+
+    private static <T> List<SortedSource<T>> toList(SortedSource<T> source, SortedSource<T> target) {
+        return List.of(checkNotNull(source, "source"), checkNotNull(target, "target"));
+    }
+
+    private static <T> ParallelIterator<T> execute(SetOperation operation,
+                                                   List<SortedSource<T>> sources,
+                                                   Comparator<T> comparator,
+                                                   InputValidation validation,
+                                                   ForkJoinPool pool,
+                                                   int partitions) {
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+        checkNotNull(pool, "pool");
+        checkArgument(partitions > 0, "partitions must be positive");
+
+        SortedSource<T> largest = sources.get(0);
+        for (SortedSource<T> source : sources) {
+            if (source.estimateSize() > largest.estimateSize()) {
+                largest = source;
+            }
+        }
+        final Partitions<T> state = new Partitions<>(operation, sources, comparator, validation, pool,
+                largest.sample(partitions));
+        state.submit();
+        return new ParallelIterator<>(state);
+    }
+
+    /**
+     * Iterator over the concatenated ranges. Closing it cancels the computation of the remaining ranges, after
+     * which it has no more elements.
+     */
+    public static final class ParallelIterator<T> implements Iterator<T>, AutoCloseable {
+
+        private final Partitions<T> state;
+        private final Cleaner.Cleanable cleanable;
+        private Iterator<T> current = Collections.emptyIterator();
+
+        private ParallelIterator(Partitions<T> state) {
+            this.state = state;
+            this.cleanable = CleanerHolder.CLEANER.register(this, state);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                final List<T> partition = state.take();
+                if (partition == null) {
+                    return false;
+                }
+                current = partition.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException("no element");
+            return current.next();
+        }
+
+        @Override
+        public void close() {
+            current = Collections.emptyIterator();
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Ranges of one operation, shared with the tasks and with the cleaner, so it must not refer to the iterator.
+     * The cleaner may cancel the tasks while the caller takes a range, so the queue is guarded by this object.
+     */
+    private static final class Partitions<T> implements Runnable {
+
+        private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+        private final SetOperation operation;
+        private final List<SortedSource<T>> sources;
+        private final Comparator<T> comparator;
+        private final InputValidation validation;
+        private final ForkJoinPool pool;
+        private final List<T> splitters;
+        private final int window;
+        private final ArrayDeque<ForkJoinTask<List<T>>> tasks = new ArrayDeque<>();
+        private int submitted;
+        private volatile boolean closed;
+
+        Partitions(SetOperation operation, List<SortedSource<T>> sources, Comparator<T> comparator,
+                   InputValidation validation, ForkJoinPool pool, List<T> splitters) {
+            this.operation = operation;
+            this.sources = sources;
+            this.comparator = comparator;
+            this.validation = validation;
+            this.pool = pool;
+            this.splitters = splitters;
+            // one range more than the workers, so that they stay busy while the caller reads a computed range
+            this.window = pool.getParallelism() + 1;
+        }
+
+        synchronized void submit() {
+            while (!closed && tasks.size() < window && submitted <= splitters.size()) {
+                final T from = submitted == 0 ? null : splitters.get(submitted - 1);
+                final T to = submitted == splitters.size() ? null : splitters.get(submitted);
+                tasks.add(pool.submit(() -> compute(from, to)));
+                submitted++;
+            }
+        }
+
+        /**
+         * Waits for the next range in key order, or returns {@code null} when there is none.
+         */
+        @Nullable List<T> take() {
+            final ForkJoinTask<List<T>> task;
+            synchronized (this) {
+                task = closed ? null : tasks.poll();
+                if (task == null) {
+                    return null;
+                }
+                submit();
+            }
+            return task.join();
+        }
+
+        private List<T> compute(@Nullable T from, @Nullable T to) {
+            final List<Iterator<T>> iterators = new ArrayList<>(sources.size());
+            for (SortedSource<T> source : sources) {
+                iterators.add(source.range(from, to).iterator());
+            }
+            final Iterator<T> iterator = operation.apply(iterators, comparator, validation);
+            final List<T> result = new ArrayList<>();
+            while (iterator.hasNext()) {
+                if (result.size() % CANCEL_CHECK_INTERVAL == 0 && closed) {
+                    break;
+                }
+                result.add(iterator.next());
+            }
+            return result;
+        }
+
+        /**
+         * Cancels the ranges in flight, run on close or once the iterator is unreachable.
+         */
+        @Override
+        public synchronized void run() {
+            closed = true;
+            ForkJoinTask<List<T>> task;
+            while ((task = tasks.poll()) != null) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    private static final class CleanerHolder {
+
+        static final Cleaner CLEANER = Cleaner.create();
+    }
+}
@@ -0,0 +1,282 @@
+package io.github.volyx;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Node of an execution plan chosen by {@link SortedIterators.SortedIteratorsBuilder}. Planning never touches
+ * the input iterators, they are consumed by {@link #open} only.
+ */
+abstract class Plan<T> {
+
+    static final long UNKNOWN_SIZE = Long.MAX_VALUE;
+
+    /**
+     * Seeking pays off once the larger input is this many times the size of the smaller one,
+     * below that a linear merge makes fewer comparisons.
+     */
+    static final long SEEK_RATIO = 8;
+
+    enum Strategy {
+        MERGE, SEEK
+    }
+
+    final long size;
+
+    Plan(long size) {
+        this.size = size;
+    }
+
+    abstract Iterator<T> open(Comparator<T> comparator, InputValidation validation, SortedOperatorListener listener);
+
+    abstract void explain(StringBuilder output, String indent);
+
+    boolean skippable() {
+        return false;
+    }
+
+    final String explain() {
+        final StringBuilder output = new StringBuilder();
+        explain(output, "");
+        return output.toString();
+    }
+
+    final String describeSize() {
+        return size == UNKNOWN_SIZE ? "size=?" : "size=" + size;
+    }
+
+    /**
+     * Seek unless both sizes are known to be within {@link #SEEK_RATIO} of each other.
+     */
+    static Strategy strategy(long smaller, long larger) {
+        if (smaller != UNKNOWN_SIZE && larger != UNKNOWN_SIZE && larger / SEEK_RATIO < Math.max(smaller, 1)) {
+            return Strategy.MERGE;
+        }
+        return Strategy.SEEK;
+    }
+
+    static long estimateSize(SetOperation operation, List<? extends Plan<?>> plans) {
+        final long[] sizes = new long[plans.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = plans.get(i).size;
+        }
+        return operation.estimateSize(sizes);
+    }
+
+    /**
+     * Hides the ability to seek, so that operations fall back to a linear merge, keeping the batches.
+     */
+    static <T> Iterator<T> linear(Iterator<T> iterator) {
+        return iterator instanceof SkippableSortedIterator ? BatchIterators.hide(iterator) : iterator;
+    }
+
+    static final class Input<T> extends Plan<T> {
+
+        private final String name;
+        private final Iterator<T> iterator;
+
+        Input(String name, Iterator<T> iterator, long size) {
+            super(size);
+            this.name = name;
+            this.iterator = iterator;
+        }
+
+        @Override
+        Iterator<T> open(Comparator<T> comparator, InputValidation validation, SortedOperatorListener listener) {
+            return iterator;
+        }
+
+        /**
+         * Returns this input cut to {@code bounds}, the range is applied lazily on the first read.
+         */
+        Input<T> restrict(SortedBounds<T> bounds, Comparator<T> comparator, InputValidation validation) {
+            return new Input<>(name, bounds.restrict(iterator, comparator, validation), size);
+        }
+
+        @Override
+        boolean skippable() {
+            return iterator instanceof SkippableSortedIterator;
+        }
+
+        @Override
+        void explain(StringBuilder output, String indent) {
+            output.append(indent).append(name).append(' ').append(describeSize());
+            if (skippable()) {
+                output.append(" skippable");
+            }
+            output.append('\n');
+        }
+    }
+
+    static final class Empty<T> extends Plan<T> {
+
+        Empty() {
+            super(0);
+        }
+
+        @Override
+        Iterator<T> open(Comparator<T> comparator, InputValidation validation, SortedOperatorListener listener) {
+            return BatchIterators.empty();
+        }
+
+        @Override
+        void explain(StringBuilder output, String indent) {
+            output.append(indent).append("empty\n");
+        }
+    }
+
+    static final class Union<T> extends Plan<T> {
+
+        private final List<Plan<T>> inputs;
+
+        Union(List<Plan<T>> inputs) {
+            super(estimateSize(SetOperation.UNION, inputs));
+            this.inputs = inputs;
+        }
+
+        @Override
+        Iterator<T> open(Comparator<T> comparator, InputValidation validation, SortedOperatorListener listener) {
+            final List<Iterator<T>> iterators = new ArrayList<>();
+            for (Plan<T> input : inputs) {
+                iterators.add(input.open(comparator, validation, listener));
+            }
+            return SortedIterators.union(iterators, comparator, validation, listener);
+        }
+
+        @Override
+        void explain(StringBuilder output, String indent) {
+            output.append(indent).append("union ").append(describeSize()).append('\n');
+            for (Plan<T> input : inputs) {
+                input.explain(output, indent + "  ");
+            }
+        }
+    }
+
+    /**
+     * Intersects inputs ordered from the smallest, either with a chain of linear merges or by seeking
+     * the larger inputs to the elements of the smaller ones.
+     */
+    static final class Intersection<T> extends Plan<T> {
+
+        private final List<Plan<T>> inputs;
+        private final Strategy strategy;
+
+        Intersection(List<Plan<T>> inputs) {
+            super(estimateSize(SetOperation.INTERSECTION, inputs));
+            this.inputs = new ArrayList<>(inputs);
+            this.inputs.sort(Comparator.comparingLong(plan -> plan.size));
+
+            boolean seekable = false;
+            for (int i = 1; i < this.inputs.size(); i++) {
+                seekable |= this.inputs.get(i).skippable();
+            }
+            final long largest = this.inputs.get(this.inputs.size() - 1).size;
+            this.strategy = seekable ? strategy(this.inputs.get(0).size, largest) : Strategy.MERGE;
+        }
+
+        @Override
+        Iterator<T> open(Comparator<T> comparator, InputValidation validation, SortedOperatorListener listener) {
+            if (strategy == Strategy.SEEK) {
+                final List<Iterator<T>> iterators = new ArrayList<>();
+                for (Plan<T> input : inputs) {
+                    iterators.add(input.open(comparator, validation, listener));
+                }
+                return SortedIterators.intersection(iterators, comparator, validation, listener);
+            }
+            Iterator<T> iterator = linear(inputs.get(0).open(comparator, validation, listener));
+            for (int i = 1; i < inputs.size(); i++) {
+                iterator = SortedIterators.intersection(iterator, linear(inputs.get(i).open(comparator, validation, listener)), comparator, validation, listener);
+            }
+            return iterator;
+        }
+
+        @Override
+        void explain(StringBuilder output, String indent) {
+            output.append(indent).append("intersection ").append(strategy.name().toLowerCase())
+                    .append(' ').append(describeSize()).append('\n');
+            for (Plan<T> input : inputs) {
+                input.explain(output, indent + "  ");
+            }
+        }
+    }
+
+    /**
+     * Removes the union of the targets from the source with a single merge, or seeks every skippable target
+     * in turn.
+     */
+    static final class Exclude<T> extends Plan<T> {
+
+        private final Plan<T> source;
+        private final List<Plan<T>> targets;
+        private final Strategy strategy;
+
+        Exclude(Plan<T> source, List<Plan<T>> targets) {
+            super(source.size);
+            this.source = source;
+            this.targets = new ArrayList<>(targets);
+            this.targets.sort(Comparator.comparingLong((Plan<T> plan) -> plan.size).reversed());
+
+            boolean seekable = true;
+            long smallest = UNKNOWN_SIZE;
+            for (Plan<T> target : targets) {
+                seekable &= target.skippable();
+                smallest = Math.min(smallest, target.size);
+            }
+            this.strategy = seekable ? strategy(source.size, smallest) : Strategy.MERGE;
+        }
+
+        @Override
+        Iterator<T> open(Comparator<T> comparator, InputValidation validation, SortedOperatorListener listener) {
+            Iterator<T> iterator = source.open(comparator, validation, listener);
+            if (strategy == Strategy.SEEK) {
+                for (Plan<T> target : targets) {
+                    iterator = SortedIterators.exclude(iterator, target.open(comparator, validation, listener), comparator, validation, listener);
+                }
+                return iterator;
+            }
+            final Iterator<T> target = targets.size() == 1
+                    ? linear(targets.get(0).open(comparator, validation, listener))
+                    : new Union<>(targets).open(comparator, validation, listener);
+            return SortedIterators.exclude(iterator, target, comparator, validation, listener);
+        }
+
+        @Override
+        void explain(StringBuilder output, String indent) {
+            output.append(indent).append("exclude ").append(strategy.name().toLowerCase())
+                    .append(' ').append(describeSize()).append('\n');
+            source.explain(output, indent + "  ");
+            for (Plan<T> target : targets) {
+                target.explain(output, indent + "  ");
+            }
+        }
+    }
+
+    static final class Difference<T> extends Plan<T> {
+
+        private final List<Plan<T>> inputs;
+
+        Difference(List<Plan<T>> inputs) {
+            super(estimateSize(SetOperation.DIFFERENCE, inputs));
+            this.inputs = inputs;
+        }
+
+        @Override
+        Iterator<T> open(Comparator<T> comparator, InputValidation validation, SortedOperatorListener listener) {
+            Iterator<T> iterator = inputs.get(0).open(comparator, validation, listener);
+            for (int i = 1; i < inputs.size(); i++) {
+                iterator = SortedIterators.difference(iterator, inputs.get(i).open(comparator, validation, listener), comparator, validation, listener);
+            }
+            return iterator;
+        }
+
+        @Override
+        void explain(StringBuilder output, String indent) {
+            output.append(indent).append("difference ").append(describeSize()).append('\n');
+            for (Plan<T> input : inputs) {
+                input.explain(output, indent + "  ");
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Pulls slow inputs on background threads into bounded buffers, so that a merge over several of them waits for
+ * the slowest input instead of the sum of all of them:
+ * <pre>{@code
+ * SortedIterators.union(ReadAheadIterators.readAhead(cursors, 1024), comparator)
+ * }</pre>
+ * The default threads are daemon platform threads, or virtual threads when running on Java 21 or newer.
+ * Read-ahead iterators do not support seeking, operations over them merge linearly.
+ */
+public final class ReadAheadIterators {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final Object END = new Object();
+    private static final long PUBLISH_TIMEOUT_MILLIS = 100;
+
+    private ReadAheadIterators() {
+    }
+
+    public static <T> ReadAheadIterator<T> readAhead(Iterator<T> iterator) {
+        return readAhead(iterator, DEFAULT_CAPACITY);
+    }
+
+    public static <T> ReadAheadIterator<T> readAhead(Iterator<T> iterator, int capacity) {
+        final ThreadFactory threadFactory = ReadAheadThreads.factory();
+        return readAhead(iterator, capacity, command -> threadFactory.newThread(command).start());
+    }
+
+    /**
+     * Reads ahead up to {@code capacity} elements of {@code iterator} in a task submitted to {@code executor}.
+     * The task keeps running until the input is exhausted, fails, or the returned iterator is closed, so a
+     * bounded pool needs a thread per input being read.
+     */
+    public static <T> ReadAheadIterator<T> readAhead(Iterator<T> iterator, int capacity, Executor executor) {
+        checkNotNull(iterator, "iterator");
+        checkNotNull(executor, "executor");
+        checkArgument(capacity > 0, "capacity must be positive");
+        final ReadAheadIterator<T> readAhead = new ReadAheadIterator<>(iterator, capacity);
+        executor.execute(readAhead::fill);
+        return readAhead;
+    }
+
+    /**
+     * Starts reading ahead every input at once, each on its own thread.
+     */
+    public static <T> List<Iterator<T>> readAhead(List<? extends Iterator<T>> iterators, int capacity) {
+        checkNotNull(iterators, "iterators");
+        final ImmutableList.Builder<Iterator<T>> builder = ImmutableList.builderWithExpectedSize(iterators.size());
+        for (Iterator<T> iterator : iterators) {
+            builder.add(readAhead(iterator, capacity));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Closing stops the background read after the element it is currently fetching and drops the buffer.
+     */
+    public static final class ReadAheadIterator<T> implements Iterator<T>, AutoCloseable {
+
+        private final Iterator<T> source;
+        private final BlockingQueue<Object> buffer;
+        private volatile boolean closed;
+        /**
+         * The failure of a producer interrupted while the buffer was full, which could not be queued.
+         */
+        private volatile Failure interrupted;
+        private Object next;
+
+        private ReadAheadIterator(Iterator<T> source, int capacity) {
+            this.source = source;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void fill() {
+            try {
+                try {
+                    while (!closed && source.hasNext()) {
+                        publish(source.next());
+                    }
+                    publish(END);
+                } catch (RuntimeException | Error e) {
+                    publish(new Failure(e));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = new Failure(e);
+            }
+        }
+
+        /**
+         * Waits for space in the buffer, giving up once the iterator is closed.
+         */
+        private void publish(Object value) throws InterruptedException {
+            while (!closed && !buffer.offer(value, PUBLISH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                // the consumer is behind, keep waiting
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted while reading ahead", e);
+                }
+            }
+            if (next instanceof Failure) {
+                final Throwable cause = ((Failure) next).cause;
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("read ahead failed", cause);
+            }
+            return next != END;
+        }
+
+        /**
+         * Waits for the next element, or for the failure of an interrupted producer once the buffer is drained.
+         */
+        private Object take() throws InterruptedException {
+            while (true) {
+                final Object value = buffer.poll(PUBLISH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (value != null) {
+                    return value;
+                }
+                final Failure failure = interrupted;
+                if (failure != null) {
+                    // the producer stopped, anything it queued before is already visible
+                    final Object last = buffer.poll();
+                    return last != null ? last : failure;
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final T value = (T) next;
+            next = null;
+            return value;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            next = END;
+            buffer.clear();
+        }
+    }
+
+    private static final class Failure {
+
+        final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
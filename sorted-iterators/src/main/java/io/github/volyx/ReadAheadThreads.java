@@ -0,0 +1,23 @@
+package io.github.volyx;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Threads of {@link ReadAheadIterators}. Replaced by a virtual thread factory in the Java 21 version of the jar.
+ */
+final class ReadAheadThreads {
+
+    private static final ThreadFactory FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("sorted-read-ahead-%d")
+            .setDaemon(true)
+            .build();
+
+    private ReadAheadThreads() {
+    }
+
+    static ThreadFactory factory() {
+        return FACTORY;
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.volyx;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Set operations that can be replayed over several key ranges of the same inputs.
+ */
+enum SetOperation {
+
+    UNION {
+        @Override
+        <T> Iterator<T> apply(List<Iterator<T>> iterators, Comparator<T> comparator, InputValidation validation) {
+            return SortedIterators.union(iterators, comparator, validation);
+        }
+
+        @Override
+        long estimateSize(long[] sizes) {
+            long sum = 0;
+            for (long size : sizes) {
+                sum += Math.min(size, Long.MAX_VALUE - sum);
+            }
+            return sum;
+        }
+    },
+
+    INTERSECTION {
+        @Override
+        <T> Iterator<T> apply(List<Iterator<T>> iterators, Comparator<T> comparator, InputValidation validation) {
+            return SortedIterators.intersection(iterators, comparator, validation);
+        }
+
+        @Override
+        long estimateSize(long[] sizes) {
+            long min = Long.MAX_VALUE;
+            for (long size : sizes) {
+                min = Math.min(min, size);
+            }
+            return min;
+        }
+    },
+
+    EXCLUDE {
+        @Override
+        <T> Iterator<T> apply(List<Iterator<T>> iterators, Comparator<T> comparator, InputValidation validation) {
+            return SortedIterators.exclude(iterators.get(0), iterators.get(1), comparator, validation);
+        }
+
+        @Override
+        long estimateSize(long[] sizes) {
+            return sizes[0];
+        }
+    },
+
+    DIFFERENCE {
+        @Override
+        <T> Iterator<T> apply(List<Iterator<T>> iterators, Comparator<T> comparator, InputValidation validation) {
+            return SortedIterators.difference(iterators.get(0), iterators.get(1), comparator, validation);
+        }
+
+        @Override
+        long estimateSize(long[] sizes) {
+            return UNION.estimateSize(sizes);
+        }
+    };
+
+    abstract <T> Iterator<T> apply(List<Iterator<T>> iterators, Comparator<T> comparator, InputValidation validation);
+
+    /**
+     * Returns an upper bound of the result size for inputs of the given sizes.
+     */
+    abstract long estimateSize(long[] sizes);
+}
@@ -0,0 +1,22 @@
+package io.github.volyx;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * Ascending iterator over distinct {@code int} values that can jump forward without visiting everything
+ * in between. {@link SortedIntIterators} seeks such inputs instead of stepping through them.
+ *
+ * @see CompressedIntRun
+ */
+public interface SkippableIntIterator extends PrimitiveIterator.OfInt {
+
+    /**
+     * Returns the value that the next call to {@link #nextInt()} will return, without consuming it.
+     */
+    int peekInt();
+
+    /**
+     * Skips all values less than {@code target}. Never moves backwards.
+     */
+    void advanceTo(int target);
+}
@@ -0,0 +1,25 @@
+package io.github.volyx;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * Sorted iterator over distinct elements that can jump forward to a given element without visiting
+ * everything in between.
+ *
+ * @see SkippableSortedIterators
+ */
+public interface SkippableSortedIterator<T> extends Iterator<T> {
+
+    /**
+     * Returns the element that the next call to {@link #next()} will return, without consuming it.
+     */
+    T peek();
+
+    /**
+     * Skips all elements less than {@code target}. Never moves backwards.
+     */
+    void advanceTo(T target);
+
+    Comparator<? super T> comparator();
+}
@@ -0,0 +1,359 @@
+package io.github.volyx;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class SkippableSortedIterators {
+
+    private SkippableSortedIterators() {
+    }
+
+    /**
+     * Seeks with {@link NavigableSet#tailSet(Object, boolean)}, in the order of the set comparator.
+     */
+    public static <T> SkippableSortedIterator<T> forSet(NavigableSet<T> set) {
+        checkNotNull(set, "set");
+        return new SetIterator<>(set);
+    }
+
+    /**
+     * Seeks with an exponential search from the current position followed by a binary search.
+     * The list must be sorted by {@code comparator} and support fast random access.
+     */
+    public static <T> SkippableSortedIterator<T> forList(List<T> list, Comparator<? super T> comparator) {
+        checkNotNull(list, "list");
+        checkNotNull(comparator, "comparator");
+        checkArgument(list instanceof RandomAccess, "list must support random access");
+        return new ListIterator<>(list, comparator);
+    }
+
+    public static <T> SkippableSortedIterator<T> forArray(T[] array, Comparator<? super T> comparator) {
+        checkNotNull(array, "array");
+        checkNotNull(comparator, "comparator");
+        return new ListIterator<>(Arrays.asList(array), comparator);
+    }
+
+    /**
+     * Returns {@code iterator} itself when it is already skippable, otherwise wraps it into an iterator
+     * that seeks by stepping through the elements. With {@link InputValidation#CHECKED} a skippable iterator
+     * is wrapped too, checking its order against {@code comparator}. As it seeks with its own
+     * {@link SkippableSortedIterator#comparator()}, one that orders the elements and targets it is compared on
+     * differently from {@code comparator} fails with {@link IllegalArgumentException}.
+     */
+    public static <T> SkippableSortedIterator<T> of(Iterator<T> iterator, Comparator<? super T> comparator) {
+        return of(iterator, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> SkippableSortedIterator<T> of(Iterator<T> iterator, Comparator<? super T> comparator,
+                                                    InputValidation validation) {
+        checkNotNull(iterator, "iterator");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+        if (iterator instanceof SkippableSortedIterator) {
+            final SkippableSortedIterator<T> skippable = (SkippableSortedIterator<T>) iterator;
+            return validation == InputValidation.TRUSTED ? skippable : new CheckedIterator<>(skippable, comparator);
+        }
+        return new LinearIterator<>(iterator, comparator, validation == InputValidation.TRUSTED);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<? super T> comparatorOf(NavigableSet<T> set) {
+        final Comparator<? super T> comparator = set.comparator();
+        return comparator != null ? comparator : (Comparator<? super T>) Comparator.naturalOrder();
+    }
+
+    private abstract static class AbstractSkippableIterator<T> implements SkippableSortedIterator<T> {
+
+        T head;
+        boolean hasHead;
+
+        /**
+         * Moves {@link #head} to the next distinct element or clears {@link #hasHead}.
+         */
+        abstract void fetch();
+
+        @Override
+        public boolean hasNext() {
+            return hasHead;
+        }
+
+        @Override
+        public T peek() {
+            if (!hasHead) throw new NoSuchElementException("no element");
+            return head;
+        }
+
+        @Override
+        public T next() {
+            if (!hasHead) throw new NoSuchElementException("no element");
+            final T local = head;
+            fetch();
+            return local;
+        }
+    }
+
+    private static final class SetIterator<T> extends AbstractSkippableIterator<T> {
+
+        private final NavigableSet<T> set;
+        private final Comparator<? super T> comparator;
+        private Iterator<T> iterator;
+
+        SetIterator(NavigableSet<T> set) {
+            this.set = set;
+            this.comparator = comparatorOf(set);
+            this.iterator = set.iterator();
+            fetch();
+        }
+
+        @Override
+        void fetch() {
+            hasHead = iterator.hasNext();
+            head = hasHead ? iterator.next() : null;
+        }
+
+        @Override
+        public void advanceTo(T target) {
+            if (hasHead && comparator.compare(head, target) < 0) {
+                // a view rejects a target beyond its bounds, and no element follows its last one anyway
+                if (comparator.compare(target, set.last()) > 0) {
+                    hasHead = false;
+                    head = null;
+                    return;
+                }
+                iterator = set.tailSet(target, true).iterator();
+                fetch();
+            }
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return comparator;
+        }
+    }
+
+    private static final class ListIterator<T> extends AbstractSkippableIterator<T> {
+
+        private final List<T> list;
+        private final Comparator<? super T> comparator;
+        private final int size;
+        private int position;
+
+        ListIterator(List<T> list, Comparator<? super T> comparator) {
+            this.list = list;
+            this.comparator = comparator;
+            this.size = list.size();
+            this.position = 0;
+            hasHead = size > 0;
+            head = hasHead ? list.get(0) : null;
+        }
+
+        @Override
+        void fetch() {
+            while (++position < size) {
+                final T value = list.get(position);
+                final int compare = comparator.compare(value, head);
+                if (compare > 0) {
+                    head = value;
+                    return;
+                }
+                if (compare < 0) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+            }
+            hasHead = false;
+            head = null;
+        }
+
+        @Override
+        public void advanceTo(T target) {
+            if (!hasHead || comparator.compare(head, target) >= 0) {
+                return;
+            }
+
+            // list[low] < target, the first element not less than target is in (low, high]
+            int low = position;
+            int step = 1;
+            int high = position + step;
+            while (high < size && comparator.compare(list.get(high), target) < 0) {
+                low = high;
+                step <<= 1;
+                high = position + step;
+            }
+            if (high > size) {
+                high = size;
+            }
+
+            while (high - low > 1) {
+                final int middle = (low + high) >>> 1;
+                if (comparator.compare(list.get(middle), target) < 0) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+
+            position = high;
+            hasHead = position < size;
+            head = hasHead ? list.get(position) : null;
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return comparator;
+        }
+    }
+
+    private static final class LinearIterator<T> extends AbstractSkippableIterator<T> {
+
+        private final Iterator<T> iterator;
+        private final Comparator<? super T> comparator;
+        private final boolean trusted;
+
+        LinearIterator(Iterator<T> iterator, Comparator<? super T> comparator, boolean trusted) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+            this.trusted = trusted;
+            hasHead = iterator.hasNext();
+            head = hasHead ? iterator.next() : null;
+        }
+
+        @Override
+        void fetch() {
+            if (trusted) {
+                hasHead = iterator.hasNext();
+                head = hasHead ? iterator.next() : null;
+                return;
+            }
+            while (iterator.hasNext()) {
+                final T value = iterator.next();
+                final int compare = comparator.compare(value, head);
+                if (compare > 0) {
+                    head = value;
+                    return;
+                }
+                if (compare < 0) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+            }
+            hasHead = false;
+            head = null;
+        }
+
+        @Override
+        public void advanceTo(T target) {
+            while (hasHead && comparator.compare(head, target) < 0) {
+                fetch();
+            }
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return comparator;
+        }
+    }
+
+    /**
+     * Checks the order of the elements of a skippable input that are read and of the one following the head at
+     * each seek, the others it seeks over are not. Every comparison is also made with the comparator of the input,
+     * which must agree, unless the two comparators are equal.
+     */
+    private static final class CheckedIterator<T> extends AbstractSkippableIterator<T> {
+
+        private final SkippableSortedIterator<T> iterator;
+        private final Comparator<? super T> comparator;
+        private final boolean sameComparator;
+        private boolean started;
+
+        CheckedIterator(SkippableSortedIterator<T> iterator, Comparator<? super T> comparator) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+            this.sameComparator = comparator.equals(iterator.comparator());
+        }
+
+        /**
+         * Reads the first element on the first call rather than when the input is wrapped.
+         */
+        private void start() {
+            if (!started) {
+                started = true;
+                hasHead = iterator.hasNext();
+                head = hasHead ? iterator.next() : null;
+            }
+        }
+
+        private int compare(T value, T other) {
+            final int compare = comparator.compare(value, other);
+            if (!sameComparator && Integer.signum(iterator.comparator().compare(value, other)) != Integer.signum(compare)) {
+                throw new IllegalArgumentException("input is ordered by a different comparator");
+            }
+            return compare;
+        }
+
+        @Override
+        void fetch() {
+            while (iterator.hasNext()) {
+                final T value = iterator.next();
+                final int compare = compare(value, head);
+                if (compare > 0) {
+                    head = value;
+                    return;
+                }
+                if (compare < 0) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+            }
+            hasHead = false;
+            head = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            start();
+            return super.hasNext();
+        }
+
+        @Override
+        public T peek() {
+            start();
+            return super.peek();
+        }
+
+        @Override
+        public T next() {
+            start();
+            return super.next();
+        }
+
+        @Override
+        public void advanceTo(T target) {
+            start();
+            if (!hasHead || compare(head, target) >= 0) {
+                return;
+            }
+            // the element after the head is checked before the seek can pass over it
+            if (iterator.hasNext() && compare(iterator.peek(), head) < 0) {
+                throw new IllegalStateException("sorted predicate failed");
+            }
+            iterator.advanceTo(target);
+            hasHead = iterator.hasNext();
+            head = hasHead ? iterator.next() : null;
+            // the head before the seek was less than the target, so this also checks the order
+            if (hasHead && compare(head, target) < 0) {
+                throw new IllegalStateException("sorted predicate failed");
+            }
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return comparator;
+        }
+    }
+}
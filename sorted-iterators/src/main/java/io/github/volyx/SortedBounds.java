@@ -0,0 +1,270 @@
+package io.github.volyx;
+
+import com.google.common.collect.AbstractIterator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Key range {@code [from, to)} and result limit of a set operation, for example the next page of a hundred
+ * elements after {@code last}: {@code SortedBounds.after(last).limit(100)}.
+ * <p>
+ * Bounds are pushed down to the inputs: skippable inputs seek to {@code from}, the others skip to it, and every
+ * input stops being read at {@code to}. Once the limit is reached the operation stops pulling from its inputs.
+ */
+public final class SortedBounds<T> {
+
+    private static final SortedBounds<?> UNBOUNDED = new SortedBounds<>(null, true, null, Long.MAX_VALUE);
+
+    private final @Nullable T from;
+    private final boolean fromInclusive;
+    private final @Nullable T to;
+    private final long limit;
+
+    private SortedBounds(@Nullable T from, boolean fromInclusive, @Nullable T to, long limit) {
+        this.from = from;
+        this.fromInclusive = fromInclusive;
+        this.to = to;
+        this.limit = limit;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> SortedBounds<T> unbounded() {
+        return (SortedBounds<T>) UNBOUNDED;
+    }
+
+    public static <T> SortedBounds<T> range(T from, T to) {
+        return new SortedBounds<>(checkNotNull(from, "from"), true, checkNotNull(to, "to"), Long.MAX_VALUE);
+    }
+
+    public static <T> SortedBounds<T> from(T from) {
+        return new SortedBounds<>(checkNotNull(from, "from"), true, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Elements greater than {@code from}, to continue after the last element of a previous page.
+     */
+    public static <T> SortedBounds<T> after(T from) {
+        return new SortedBounds<>(checkNotNull(from, "from"), false, null, Long.MAX_VALUE);
+    }
+
+    public static <T> SortedBounds<T> to(T to) {
+        return new SortedBounds<>(null, true, checkNotNull(to, "to"), Long.MAX_VALUE);
+    }
+
+    public SortedBounds<T> limit(long limit) {
+        checkArgument(limit >= 0, "limit must not be negative");
+        return new SortedBounds<>(from, fromInclusive, to, limit);
+    }
+
+    boolean isUnbounded() {
+        return from == null && to == null && limit == Long.MAX_VALUE;
+    }
+
+    /**
+     * Restricts an input to the key range, keeping it skippable when it is. A skippable input seeks to the start
+     * of the range with its own comparator, with {@link InputValidation#CHECKED} it is checked against
+     * {@code comparator} by {@link SkippableSortedIterators#of}.
+     */
+    Iterator<T> restrict(Iterator<T> iterator, Comparator<? super T> comparator, InputValidation validation) {
+        if (from == null && to == null) {
+            return iterator;
+        }
+        if (iterator instanceof SkippableSortedIterator) {
+            return new SkippingRangeIterator<>(SkippableSortedIterators.of(iterator, comparator, validation), comparator,
+                    from, fromInclusive, to);
+        }
+        return new RangeIterator<>(iterator, comparator, from, fromInclusive, to);
+    }
+
+    Iterator<T> limit(Iterator<T> iterator) {
+        return limit == Long.MAX_VALUE ? iterator : new LimitIterator<>(iterator, limit);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        if (from != null || to != null) {
+            builder.append(from == null ? "(" : fromInclusive ? "[" : "(")
+                    .append(from == null ? "-inf" : from).append(", ")
+                    .append(to == null ? "+inf" : to).append(')');
+        }
+        if (limit != Long.MAX_VALUE) {
+            builder.append(builder.length() > 0 ? " " : "").append("limit ").append(limit);
+        }
+        return builder.length() > 0 ? builder.toString() : "unbounded";
+    }
+
+    private static <E> boolean belowFrom(E value, Comparator<? super E> comparator, @Nullable E from, boolean inclusive) {
+        if (from == null) {
+            return false;
+        }
+        final int compare = comparator.compare(value, from);
+        return compare < 0 || (compare == 0 && !inclusive);
+    }
+
+    /**
+     * Ends after {@code limit} elements, keeping the batches of the wrapped iterator.
+     */
+    private static final class LimitIterator<E> implements BatchIterator<E> {
+
+        private final Iterator<E> iterator;
+        private long remaining;
+
+        LimitIterator(Iterator<E> iterator, long limit) {
+            this.iterator = iterator;
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0 && iterator.hasNext();
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            return iterator.next();
+        }
+
+        @Override
+        public int fill(E[] buffer) {
+            if (remaining <= 0) {
+                return 0;
+            }
+            final int count;
+            if (iterator instanceof BatchIterator) {
+                final BatchIterator<E> batchIterator = (BatchIterator<E>) iterator;
+                if (buffer.length <= remaining) {
+                    count = batchIterator.fill(buffer);
+                } else {
+                    // only the last batch is smaller than the buffer
+                    final E[] last = Arrays.copyOf(buffer, (int) remaining);
+                    count = batchIterator.fill(last);
+                    System.arraycopy(last, 0, buffer, 0, count);
+                }
+            } else {
+                final int length = (int) Math.min(buffer.length, remaining);
+                int filled = 0;
+                while (filled < length && iterator.hasNext()) {
+                    buffer[filled++] = iterator.next();
+                }
+                count = filled;
+            }
+            remaining -= count;
+            return count;
+        }
+    }
+
+    /**
+     * Skips the elements before {@code from} on the first read and ends at the first element not below {@code to}.
+     */
+    private static final class RangeIterator<E> extends AbstractIterator<E> {
+
+        private final Iterator<E> iterator;
+        private final Comparator<? super E> comparator;
+        private final @Nullable E from;
+        private final boolean fromInclusive;
+        private final @Nullable E to;
+
+        RangeIterator(Iterator<E> iterator, Comparator<? super E> comparator, @Nullable E from, boolean fromInclusive,
+                      @Nullable E to) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+        }
+
+        @Override
+        protected E computeNext() {
+            while (iterator.hasNext()) {
+                final E value = iterator.next();
+                if (to != null && comparator.compare(value, to) >= 0) {
+                    break;
+                }
+                if (!belowFrom(value, comparator, from, fromInclusive)) {
+                    return value;
+                }
+            }
+            return endOfData();
+        }
+    }
+
+    /**
+     * Seeks to {@code from} on the first read, then behaves like the wrapped iterator cut at {@code to}.
+     */
+    private static final class SkippingRangeIterator<E> implements SkippableSortedIterator<E> {
+
+        private final SkippableSortedIterator<E> iterator;
+        private final Comparator<? super E> comparator;
+        private final @Nullable E from;
+        private final boolean fromInclusive;
+        private final @Nullable E to;
+        private boolean positioned;
+
+        SkippingRangeIterator(SkippableSortedIterator<E> iterator, Comparator<? super E> comparator,
+                              @Nullable E from, boolean fromInclusive, @Nullable E to) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+        }
+
+        private void position() {
+            if (positioned) {
+                return;
+            }
+            positioned = true;
+            if (from != null) {
+                iterator.advanceTo(from);
+                if (!fromInclusive && iterator.hasNext() && comparator.compare(iterator.peek(), from) == 0) {
+                    iterator.next();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            position();
+            return iterator.hasNext() && (to == null || comparator.compare(iterator.peek(), to) < 0);
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return iterator.next();
+        }
+
+        @Override
+        public E peek() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return iterator.peek();
+        }
+
+        @Override
+        public void advanceTo(E target) {
+            position();
+            iterator.advanceTo(target);
+        }
+
+        @Override
+        public Comparator<? super E> comparator() {
+            return iterator.comparator();
+        }
+    }
+}
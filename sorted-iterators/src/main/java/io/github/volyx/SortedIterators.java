@@ -1,23 +1,26 @@
 package io.github.volyx;
 
 import com.google.common.base.Predicate;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterators;
-import com.google.common.collect.UnmodifiableIterator;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public final class SortedIterators {
 
+    public static final int DEFAULT_MAX_JOIN_GROUP_SIZE = 1 << 16;
+
     private SortedIterators() {
     }
 
@@ -27,419 +30,897 @@ public static <T> SortedIteratorsBuilder<T> builder() {
 
     public static <T> Iterator<T> union(
             Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator) {
+        return union(iterators, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<T> union(
+            Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator, InputValidation validation) {
         checkNotNull(iterators, "iterators");
         checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
 
         final List<Iterator<T>> iteratorList = new ArrayList<>();
 
         for (Iterator<T> iterator : iterators) {
-            iteratorList.add(Iterators.filter(Iterators.filter(iterator, new CheckSortedPredicate<>(comparator)), new DeDuplicatePredicate<>()));
+            iteratorList.add(checkNotNull(iterator, "iterator"));
         }
 
-        final UnmodifiableIterator<T> mergedIterator = Iterators.mergeSorted(iteratorList, comparator);
-        return Iterators.filter(Iterators.filter(mergedIterator, new CheckSortedPredicate<>(comparator)), new DeDuplicatePredicate<>());
+        return new LoserTreeMergingIterator<>(iteratorList, comparator, validation);
+    }
+
+    /**
+     * Union of the elements within {@code bounds}, see {@link SortedBounds}.
+     */
+    public static <T> Iterator<T> union(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                        InputValidation validation, SortedBounds<T> bounds) {
+        checkNotNull(bounds, "bounds");
+        return bounds.limit(union(restrict(iterators, comparator, validation, bounds), comparator, validation));
+    }
+
+    /**
+     * Union that reports its {@link OperatorStats} to {@code listener}, see {@link SortedOperatorListener}.
+     */
+    public static <T> Iterator<T> union(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                        InputValidation validation, SortedOperatorListener listener) {
+        checkNotNull(listener, "listener");
+        if (listener == SortedOperatorListener.noop()) {
+            return union(iterators, comparator, validation);
+        }
+        final OperatorProbe<T> probe = new OperatorProbe<>("union", listener, true);
+        return probe.output(union(probe(probe, iterators, comparator, validation), probe.comparator(comparator),
+                InputValidation.TRUSTED));
     }
 
     public static <T> Iterator<T> intersection(Iterator<T> sourceIterator, Iterator<T> targetIterator,
                                                Comparator<T> comparator) {
+        return intersection(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<T> intersection(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                               Comparator<T> comparator, InputValidation validation) {
         checkNotNull(sourceIterator, "sourceIterator");
         checkNotNull(targetIterator, "targetIterator");
         checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
 
         if (!sourceIterator.hasNext()) {
-            return ImmutableList.<T>of().iterator();
+            return BatchIterators.empty();
         }
 
         if (!targetIterator.hasNext()) {
-            return ImmutableList.<T>of().iterator();
+            return BatchIterators.empty();
         }
 
-        return new IntersectionIterator<>(sourceIterator, targetIterator, comparator);
+        if (sourceIterator instanceof SkippableSortedIterator || targetIterator instanceof SkippableSortedIterator) {
+            return new SkippingIntersectionIterator<>(
+                    SkippableSortedIterators.of(sourceIterator, comparator, validation),
+                    SkippableSortedIterators.of(targetIterator, comparator, validation),
+                    comparator);
+        }
+
+        return new IntersectionIterator<>(sourceIterator, targetIterator, comparator, validation);
+    }
+
+    public static <T> Iterator<T> intersection(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator) {
+        return intersection(iterators, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<T> intersection(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                               InputValidation validation) {
+        checkNotNull(iterators, "iterators");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+
+        final List<Iterator<T>> iteratorList = new ArrayList<>();
+
+        for (Iterator<T> iterator : iterators) {
+            if (!iterator.hasNext()) {
+                return BatchIterators.empty();
+            }
+            iteratorList.add(iterator);
+        }
+
+        if (iteratorList.isEmpty()) {
+            return BatchIterators.empty();
+        }
+
+        if (iteratorList.size() == 1) {
+            return distinct(iteratorList.get(0), comparator, validation);
+        }
+
+        if (iteratorList.size() == 2) {
+            return intersection(iteratorList.get(0), iteratorList.get(1), comparator, validation);
+        }
+
+        return new LeapfrogIntersectionIterator<>(iteratorList, comparator, validation);
+    }
+
+    public static <T> Iterator<T> intersection(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                               InputValidation validation, SortedBounds<T> bounds) {
+        checkNotNull(bounds, "bounds");
+        return bounds.limit(intersection(restrict(iterators, comparator, validation, bounds), comparator, validation));
+    }
+
+    public static <T> Iterator<T> intersection(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                               Comparator<T> comparator, InputValidation validation,
+                                               SortedOperatorListener listener) {
+        return intersection(Arrays.asList(checkNotNull(sourceIterator, "sourceIterator"),
+                checkNotNull(targetIterator, "targetIterator")), comparator, validation, listener);
+    }
+
+    public static <T> Iterator<T> intersection(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                               InputValidation validation, SortedOperatorListener listener) {
+        checkNotNull(listener, "listener");
+        if (listener == SortedOperatorListener.noop()) {
+            return intersection(iterators, comparator, validation);
+        }
+        final OperatorProbe<T> probe = new OperatorProbe<>("intersection", listener, false);
+        return probe.output(intersection(probe(probe, iterators, comparator, validation), probe.comparator(comparator),
+                InputValidation.TRUSTED));
     }
 
     public static <T> Iterator<T> exclude(Iterator<T> sourceIterator,
                                           Iterator<T> targetIterator,
                                           Comparator<T> comparator) {
+        return exclude(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<T> exclude(Iterator<T> sourceIterator,
+                                          Iterator<T> targetIterator,
+                                          Comparator<T> comparator,
+                                          InputValidation validation) {
         checkNotNull(sourceIterator, "sourceIterator");
         checkNotNull(targetIterator, "targetIterator");
         checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
 
         if (!sourceIterator.hasNext()) {
-            return ImmutableList.<T>of().iterator();
+            return BatchIterators.empty();
         }
 
         if (!targetIterator.hasNext()) {
-            return Iterators.filter(sourceIterator, new DeDuplicatePredicate<>());
+            return distinct(sourceIterator, comparator, validation);
+        }
+
+        if (targetIterator instanceof SkippableSortedIterator) {
+            return new SkippingExcludeIterator<>(
+                    SkippableSortedIterators.of(sourceIterator, comparator, validation),
+                    SkippableSortedIterators.of(targetIterator, comparator, validation),
+                    comparator);
         }
 
-        return new DiffMergingIterator<>(sourceIterator, targetIterator, comparator);
+        return new DiffMergingIterator<>(sourceIterator, targetIterator, comparator, validation);
+    }
+
+    public static <T> Iterator<T> exclude(Iterator<T> sourceIterator,
+                                          Iterator<T> targetIterator,
+                                          Comparator<T> comparator,
+                                          InputValidation validation,
+                                          SortedBounds<T> bounds) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(bounds, "bounds");
+        return bounds.limit(exclude(bounds.restrict(sourceIterator, comparator, validation),
+                bounds.restrict(targetIterator, comparator, validation),
+                comparator, validation));
+    }
+
+    public static <T> Iterator<T> exclude(Iterator<T> sourceIterator,
+                                          Iterator<T> targetIterator,
+                                          Comparator<T> comparator,
+                                          InputValidation validation,
+                                          SortedOperatorListener listener) {
+        checkNotNull(listener, "listener");
+        if (listener == SortedOperatorListener.noop()) {
+            return exclude(sourceIterator, targetIterator, comparator, validation);
+        }
+        final OperatorProbe<T> probe = new OperatorProbe<>("exclude", listener, false);
+        final List<Iterator<T>> inputs = probe(probe, Arrays.asList(checkNotNull(sourceIterator, "sourceIterator"),
+                checkNotNull(targetIterator, "targetIterator")), comparator, validation);
+        return probe.output(exclude(inputs.get(0), inputs.get(1), probe.comparator(comparator), InputValidation.TRUSTED));
     }
 
     public static <T> Iterator<T> difference(Iterator<T> sourceIterator,
                                              Iterator<T> targetIterator,
                                              Comparator<T> comparator) {
+        return difference(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<T> difference(Iterator<T> sourceIterator,
+                                             Iterator<T> targetIterator,
+                                             Comparator<T> comparator,
+                                             InputValidation validation) {
         checkNotNull(sourceIterator, "sourceIterator");
         checkNotNull(targetIterator, "targetIterator");
         checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
 
         if (!sourceIterator.hasNext()) {
-            return Iterators.filter(targetIterator, new DeDuplicatePredicate<>());
+            return distinct(targetIterator, comparator, validation);
         }
 
         if (!targetIterator.hasNext()) {
-            return Iterators.filter(sourceIterator, new DeDuplicatePredicate<>());
+            return distinct(sourceIterator, comparator, validation);
         }
 
-        return new DifferenceIterator<>(
-                Iterators.filter(sourceIterator, new DeDuplicatePredicate<>()),
-                Iterators.filter(targetIterator, new DeDuplicatePredicate<>()),
-                comparator);
+        return new DifferenceIterator<>(sourceIterator, targetIterator, comparator, validation);
     }
 
-    public static <T> void differenceConsumer(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator, Consumer<T> addConsumer, Consumer<T> removeConsumer) {
-        if (!sourceIterator.hasNext() && !targetIterator.hasNext()) {
-            return;
+    public static <T> Iterator<T> difference(Iterator<T> sourceIterator,
+                                             Iterator<T> targetIterator,
+                                             Comparator<T> comparator,
+                                             InputValidation validation,
+                                             SortedBounds<T> bounds) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(bounds, "bounds");
+        return bounds.limit(difference(bounds.restrict(sourceIterator, comparator, validation),
+                bounds.restrict(targetIterator, comparator, validation),
+                comparator, validation));
+    }
+
+    public static <T> Iterator<T> difference(Iterator<T> sourceIterator,
+                                             Iterator<T> targetIterator,
+                                             Comparator<T> comparator,
+                                             InputValidation validation,
+                                             SortedOperatorListener listener) {
+        checkNotNull(listener, "listener");
+        if (listener == SortedOperatorListener.noop()) {
+            return difference(sourceIterator, targetIterator, comparator, validation);
         }
-        if (sourceIterator.hasNext() && !targetIterator.hasNext()) {
-            Iterator<T> it = Iterators.filter(sourceIterator, new DeDuplicatePredicate<>());
-            while (it.hasNext()) {
-                removeConsumer.accept(it.next());
+        final OperatorProbe<T> probe = new OperatorProbe<>("difference", listener, false);
+        final List<Iterator<T>> inputs = probe(probe, Arrays.asList(checkNotNull(sourceIterator, "sourceIterator"),
+                checkNotNull(targetIterator, "targetIterator")), comparator, validation);
+        return probe.output(difference(inputs.get(0), inputs.get(1), probe.comparator(comparator), InputValidation.TRUSTED));
+    }
+
+    public static <T> void differenceConsumer(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator, Consumer<T> addConsumer, Consumer<T> removeConsumer) {
+        differenceConsumer(sourceIterator, targetIterator, comparator, addConsumer, removeConsumer, InputValidation.CHECKED);
+    }
+
+    public static <T> void differenceConsumer(Iterator<T> sourceIterator,
+                                              Iterator<T> targetIterator,
+                                              Comparator<T> comparator,
+                                              Consumer<T> addConsumer,
+                                              Consumer<T> removeConsumer,
+                                              InputValidation validation) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(addConsumer, "addConsumer");
+        checkNotNull(removeConsumer, "removeConsumer");
+        checkNotNull(validation, "validation");
+
+        final Cursor<T> source = new Cursor<>(sourceIterator, comparator, validation);
+        final Cursor<T> target = new Cursor<>(targetIterator, comparator, validation);
+
+        while (source.hasHead && target.hasHead) {
+            final int compare = comparator.compare(source.head, target.head);
+            if (compare < 0) {
+                removeConsumer.accept(source.head);
+                source.advance();
+            } else if (compare > 0) {
+                addConsumer.accept(target.head);
+                target.advance();
+            } else {
+                source.advance();
+                target.advance();
             }
-            return;
         }
+        while (source.hasHead) {
+            removeConsumer.accept(source.head);
+            source.advance();
+        }
+        while (target.hasHead) {
+            addConsumer.accept(target.head);
+            target.advance();
+        }
+    }
 
-        if (!sourceIterator.hasNext() && targetIterator.hasNext()) {
-            Iterator<T> it = Iterators.filter(targetIterator, new DeDuplicatePredicate<>());
-            while (it.hasNext()) {
-                addConsumer.accept(it.next());
-            }
+    public static <T> void differenceConsumer(Iterator<T> sourceIterator,
+                                              Iterator<T> targetIterator,
+                                              Comparator<T> comparator,
+                                              Consumer<T> addConsumer,
+                                              Consumer<T> removeConsumer,
+                                              InputValidation validation,
+                                              SortedOperatorListener listener) {
+        checkNotNull(listener, "listener");
+        if (listener == SortedOperatorListener.noop()) {
+            differenceConsumer(sourceIterator, targetIterator, comparator, addConsumer, removeConsumer, validation);
             return;
         }
+        checkNotNull(addConsumer, "addConsumer");
+        checkNotNull(removeConsumer, "removeConsumer");
+        final OperatorProbe<T> probe = new OperatorProbe<>("differenceConsumer", listener, false);
+        final List<Iterator<T>> inputs = probe(probe, Arrays.asList(checkNotNull(sourceIterator, "sourceIterator"),
+                checkNotNull(targetIterator, "targetIterator")), comparator, validation);
+        differenceConsumer(inputs.get(0), inputs.get(1), probe.comparator(comparator), probe.output(addConsumer),
+                probe.output(removeConsumer), InputValidation.TRUSTED);
+        probe.complete(true);
+    }
+
+    public static <T> void symmetricDifference(Iterator<T> sourceIterator,
+                                               Iterator<T> targetIterator,
+                                               Comparator<T> comparator,
+                                               Consumer<T> mergeConsumer) {
 
-        differenceSortedBoth(Iterators.peekingIterator(Iterators.filter(sourceIterator, new DeDuplicatePredicate<>())),
-                Iterators.peekingIterator(Iterators.filter(targetIterator, new DeDuplicatePredicate<>())),
-                comparator,
-                new DeDuplicateConsumer<>(addConsumer),
-                new DeDuplicateConsumer<>(removeConsumer));
+        differenceConsumer(sourceIterator, targetIterator, comparator, mergeConsumer, mergeConsumer);
     }
 
-    private static <T> void differenceSortedBoth(Iterator<T> sourceIterator,
-                                                 Iterator<T> targetIterator,
-                                                 Comparator<T> comparator,
-                                                 Consumer<T> addConsumer,
-                                                 Consumer<T> removeConsumer) {
-        T line1 = sourceIterator.next();
-        T line2 = targetIterator.next();
-        int compare;
-        if (!sourceIterator.hasNext() && !targetIterator.hasNext()) {
-            compare = comparator.compare(line1, line2);
-            if (compare != 0) {
-                addConsumer.accept(line2);
-                removeConsumer.accept(line1);
-            }
-            return;
+    public static <T> void symmetricDifference(Iterator<T> sourceIterator,
+                                               Iterator<T> targetIterator,
+                                               Comparator<T> comparator,
+                                               Consumer<T> mergeConsumer,
+                                               InputValidation validation) {
+
+        differenceConsumer(sourceIterator, targetIterator, comparator, mergeConsumer, mergeConsumer, validation);
+    }
+
+    public static <T> void differenceConsumer(Iterator<T> sourceIterator,
+                                              Iterator<T> targetIterator,
+                                              Comparator<T> comparator,
+                                              int batchSize,
+                                              Consumer<? super List<T>> addBatchConsumer,
+                                              Consumer<? super List<T>> removeBatchConsumer) {
+        differenceConsumer(sourceIterator, targetIterator, comparator, batchSize, addBatchConsumer, removeBatchConsumer,
+                InputValidation.CHECKED);
+    }
+
+    /**
+     * Like {@link #differenceConsumer(Iterator, Iterator, Comparator, Consumer, Consumer, InputValidation)}, but
+     * passes additions and removals in batches of up to {@code batchSize} elements. The lists are reused between
+     * calls, so they are only valid for the duration of the call.
+     */
+    public static <T> void differenceConsumer(Iterator<T> sourceIterator,
+                                              Iterator<T> targetIterator,
+                                              Comparator<T> comparator,
+                                              int batchSize,
+                                              Consumer<? super List<T>> addBatchConsumer,
+                                              Consumer<? super List<T>> removeBatchConsumer,
+                                              InputValidation validation) {
+        checkArgument(batchSize > 0, "batchSize must be positive");
+        checkNotNull(addBatchConsumer, "addBatchConsumer");
+        checkNotNull(removeBatchConsumer, "removeBatchConsumer");
+
+        final BatchingConsumer<T> add = new BatchingConsumer<>(batchSize, addBatchConsumer);
+        final BatchingConsumer<T> remove = new BatchingConsumer<>(batchSize, removeBatchConsumer);
+        differenceConsumer(sourceIterator, targetIterator, comparator, add, remove, validation);
+        remove.flush();
+        add.flush();
+    }
+
+    public static <T> void symmetricDifference(Iterator<T> sourceIterator,
+                                               Iterator<T> targetIterator,
+                                               Comparator<T> comparator,
+                                               int batchSize,
+                                               Consumer<? super List<T>> mergeBatchConsumer) {
+        symmetricDifference(sourceIterator, targetIterator, comparator, batchSize, mergeBatchConsumer,
+                InputValidation.CHECKED);
+    }
+
+    public static <T> void symmetricDifference(Iterator<T> sourceIterator,
+                                               Iterator<T> targetIterator,
+                                               Comparator<T> comparator,
+                                               int batchSize,
+                                               Consumer<? super List<T>> mergeBatchConsumer,
+                                               InputValidation validation) {
+        checkArgument(batchSize > 0, "batchSize must be positive");
+        checkNotNull(mergeBatchConsumer, "mergeBatchConsumer");
+
+        final BatchingConsumer<T> merge = new BatchingConsumer<>(batchSize, mergeBatchConsumer);
+        differenceConsumer(sourceIterator, targetIterator, comparator, merge, merge, validation);
+        merge.flush();
+    }
+
+    public static <T> DifferenceCounts differenceCounts(Iterator<T> sourceIterator,
+                                                        Iterator<T> targetIterator,
+                                                        Comparator<T> comparator) {
+        return differenceCounts(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    /**
+     * Counts what {@link #differenceConsumer} would add and remove, without calling any consumer.
+     */
+    public static <T> DifferenceCounts differenceCounts(Iterator<T> sourceIterator,
+                                                        Iterator<T> targetIterator,
+                                                        Comparator<T> comparator,
+                                                        InputValidation validation) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+
+        final MergeCounts counts = MergeCounts.count(sourceIterator, targetIterator, comparator, validation);
+        return new DifferenceCounts(counts.targetOnly, counts.sourceOnly);
+    }
+
+    public static <T> long countUnion(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator) {
+        return countUnion(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    /**
+     * Counts the elements {@link #union} would return in a single merge pass, without creating them.
+     */
+    public static <T> long countUnion(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator,
+                                      InputValidation validation) {
+        return counts(sourceIterator, targetIterator, comparator, validation).union();
+    }
+
+    public static <T> long countIntersection(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator) {
+        return countIntersection(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    /**
+     * Counts the common elements, stopping at the end of the shorter input and seeking skippable inputs.
+     */
+    public static <T> long countIntersection(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator,
+                                             InputValidation validation) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+
+        return MergeCounts.countIntersection(sourceIterator, targetIterator, comparator, validation);
+    }
+
+    public static <T> long countDifference(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator) {
+        return countDifference(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    /**
+     * Counts the elements {@link #difference} would return.
+     */
+    public static <T> long countDifference(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator,
+                                           InputValidation validation) {
+        return counts(sourceIterator, targetIterator, comparator, validation).difference();
+    }
+
+    public static <T> double jaccard(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator) {
+        return jaccard(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    /**
+     * Size of the intersection over the size of the union, {@code 0} when both inputs are empty.
+     */
+    public static <T> double jaccard(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator,
+                                     InputValidation validation) {
+        return counts(sourceIterator, targetIterator, comparator, validation).jaccard();
+    }
+
+    public static <T> double overlap(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator) {
+        return overlap(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    /**
+     * Size of the intersection over the size of the smaller input, {@code 0} when either input is empty.
+     */
+    public static <T> double overlap(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator,
+                                     InputValidation validation) {
+        return counts(sourceIterator, targetIterator, comparator, validation).overlap();
+    }
+
+    private static <T> MergeCounts counts(Iterator<T> sourceIterator, Iterator<T> targetIterator, Comparator<T> comparator,
+                                          InputValidation validation) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+
+        return MergeCounts.count(sourceIterator, targetIterator, comparator, validation);
+    }
+
+    public static <K, L, R> Iterator<JoinRow<K, L, R>> mergeJoin(Iterator<L> leftIterator,
+                                                                 Function<? super L, ? extends K> leftKeyExtractor,
+                                                                 Iterator<R> rightIterator,
+                                                                 Function<? super R, ? extends K> rightKeyExtractor,
+                                                                 Comparator<? super K> keyComparator,
+                                                                 JoinType type) {
+        return mergeJoin(leftIterator, leftKeyExtractor, rightIterator, rightKeyExtractor, keyComparator, type,
+                DEFAULT_MAX_JOIN_GROUP_SIZE);
+    }
+
+    /**
+     * Joins two inputs sorted by key, duplicate keys are allowed on both sides and give every combination of
+     * their rows. Rows come out ordered by key, unmatched rows paired with {@code null} depending on {@code type}.
+     * Only the right rows of the current key are buffered, more than {@code maxGroupSize} of them fail the join
+     * with {@link IllegalStateException}, so put the side with fewer duplicates on the right.
+     */
+    public static <K, L, R> Iterator<JoinRow<K, L, R>> mergeJoin(Iterator<L> leftIterator,
+                                                                 Function<? super L, ? extends K> leftKeyExtractor,
+                                                                 Iterator<R> rightIterator,
+                                                                 Function<? super R, ? extends K> rightKeyExtractor,
+                                                                 Comparator<? super K> keyComparator,
+                                                                 JoinType type,
+                                                                 int maxGroupSize) {
+        checkNotNull(leftIterator, "leftIterator");
+        checkNotNull(leftKeyExtractor, "leftKeyExtractor");
+        checkNotNull(rightIterator, "rightIterator");
+        checkNotNull(rightKeyExtractor, "rightKeyExtractor");
+        checkNotNull(keyComparator, "keyComparator");
+        checkNotNull(type, "type");
+        checkArgument(maxGroupSize > 0, "maxGroupSize must be positive");
+
+        return new MergeJoinIterator<>(leftIterator, leftKeyExtractor, rightIterator, rightKeyExtractor,
+                keyComparator, type, maxGroupSize);
+    }
+
+    private static <T> List<Iterator<T>> restrict(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                                  InputValidation validation, SortedBounds<T> bounds) {
+        checkNotNull(iterators, "iterators");
+        checkNotNull(comparator, "comparator");
+        final List<Iterator<T>> restricted = new ArrayList<>();
+        for (Iterator<T> iterator : iterators) {
+            restricted.add(bounds.restrict(checkNotNull(iterator, "iterator"), comparator, validation));
         }
+        return restricted;
+    }
 
-        T lastEqual = null;
+    private static <T> List<Iterator<T>> probe(OperatorProbe<T> probe, Iterable<? extends Iterator<T>> iterators,
+                                               Comparator<T> comparator, InputValidation validation) {
+        checkNotNull(iterators, "iterators");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+        final Comparator<T> counting = probe.comparator(comparator);
+        final List<Iterator<T>> probed = new ArrayList<>();
+        for (Iterator<T> iterator : iterators) {
+            probed.add(probe.input(checkNotNull(iterator, "iterator"), counting, validation));
+        }
+        return probed;
+    }
 
-        while (sourceIterator.hasNext() || targetIterator.hasNext()) {
+    private static <T> Iterator<T> distinct(Iterator<T> iterator, Comparator<T> comparator, InputValidation validation) {
+        if (validation == InputValidation.TRUSTED) {
+            return BatchIterators.of(iterator);
+        }
+        return new DistinctIterator<>(iterator, comparator, validation);
+    }
 
-            compare = comparator.compare(line1, line2);
-            if (compare == 0) {
-                lastEqual = line1;
-                if (targetIterator.hasNext()) {
-                    line2 = targetIterator.next();
-                } else {
-                    while (sourceIterator.hasNext()) {
-                        line1 = sourceIterator.next();
-                        removeConsumer.accept(line1);
-                    }
-                    break;
-                }
-                if (sourceIterator.hasNext()) {
-                    line1 = sourceIterator.next();
-                } else {
-                    addConsumer.accept(line2);
-                    while (targetIterator.hasNext()) {
-                        line2 = targetIterator.next();
-                        addConsumer.accept(line2);
-                    }
-                    break;
-                }
+    /**
+     * Reads a sorted input, block by block when it is a {@link BatchIterator}. In {@link InputValidation#CHECKED}
+     * mode the order check and the duplicate skip share a single comparison per element.
+     */
+    static final class Cursor<T> {
 
-                if (!sourceIterator.hasNext() && !targetIterator.hasNext()) {
-                    compare = comparator.compare(line1, line2);
-                    if (compare != 0) {
-                        addConsumer.accept(line2);
-                        removeConsumer.accept(line1);
-                    }
+        private static final int BLOCK_SIZE = 256;
+
+        private final Iterator<? extends T> iterator;
+        private final BatchIterator<T> batchIterator;
+        private final Comparator<? super T> comparator;
+        private final boolean trusted;
+        private final T[] block;
+        private int position;
+        private int limit;
+
+        T head;
+        boolean hasHead;
+
+        @SuppressWarnings("unchecked")
+        Cursor(Iterator<? extends T> iterator, Comparator<? super T> comparator, InputValidation validation) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+            this.trusted = validation == InputValidation.TRUSTED;
+            if (iterator instanceof BatchIterator) {
+                this.batchIterator = (BatchIterator<T>) iterator;
+                this.block = (T[]) new Object[BLOCK_SIZE];
+            } else {
+                this.batchIterator = null;
+                this.block = null;
+            }
+            head = pull();
+            hasHead = head != null;
+        }
+
+        void advance() {
+            T value;
+            if (trusted) {
+                head = pull();
+                hasHead = head != null;
+                return;
+            }
+            while ((value = pull()) != null) {
+                final int compare = comparator.compare(value, head);
+                if (compare > 0) {
+                    head = value;
+                    return;
                 }
-            } else if (compare < 0) {
-                removeConsumer.accept(line1);
-                if (sourceIterator.hasNext()) {
-                    line1 = sourceIterator.next();
-                } else {
-                    addConsumer.accept(line2);
-                    while (targetIterator.hasNext()) {
-                        line2 = targetIterator.next();
-                        addConsumer.accept(line2);
-                    }
+                if (compare < 0) {
+                    throw new IllegalStateException("sorted predicate failed");
                 }
-            } else {
-                addConsumer.accept(line2);
-                if (targetIterator.hasNext()) {
-                    line2 = targetIterator.next();
-                } else {
-                    removeConsumer.accept(line1);
-                    while (sourceIterator.hasNext()) {
-                        line1 = sourceIterator.next();
-                        removeConsumer.accept(line1);
-                    }
+            }
+            head = null;
+            hasHead = false;
+        }
+
+        private T pull() {
+            if (block == null) {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+            if (position == limit) {
+                limit = batchIterator.fill(block);
+                position = 0;
+                if (limit == 0) {
+                    return null;
                 }
             }
+            return block[position++];
         }
+    }
 
-        compare = comparator.compare(line1, line2);
+    /**
+     * Keeps the next element in {@code nextVal}, which {@link #adjust()} computes or sets to {@code null}
+     * when there are no more elements.
+     */
+    private abstract static class AbstractSortedIterator<T> implements BatchIterator<T> {
 
-        if (compare != 0) {
-            if (lastEqual != null && comparator.compare(line1, lastEqual) == 0) {
+        T nextVal = null;
 
-            } else {
-                removeConsumer.accept(line1);
-            }
-            if (lastEqual != null && comparator.compare(line2, lastEqual) == 0) {
+        abstract void adjust();
 
-            } else {
-                addConsumer.accept(line2);
+        @Override
+        public boolean hasNext() {
+            return nextVal != null;
+        }
+
+        @Override
+        public T next() {
+            if (nextVal == null) throw new NoSuchElementException("no element");
+            T toRet = nextVal;
+            adjust();
+            return toRet;
+        }
+
+        @Override
+        public int fill(T[] buffer) {
+            int count = 0;
+            while (count < buffer.length && nextVal != null) {
+                buffer[count++] = nextVal;
+                adjust();
             }
+            return count;
         }
     }
 
-    public static <T> void symmetricDifference(Iterator<T> sourceIterator,
-                                               Iterator<T> targetIterator,
-                                               Comparator<T> comparator,
-                                               Consumer<T> mergeConsumer) {
+    private static class DistinctIterator<T> extends AbstractSortedIterator<T> {
 
-        differenceConsumer(sourceIterator, targetIterator, comparator, mergeConsumer, mergeConsumer);
-    }
+        private final Cursor<T> cursor;
 
-    private static class DeDuplicateConsumer<T> implements Consumer<T> {
-        private T prev;
-        private final Consumer<T> delegate;
+        public DistinctIterator(Iterator<? extends T> iterator, final Comparator<? super T> itemComparator,
+                                InputValidation validation) {
+            this.cursor = new Cursor<>(iterator, itemComparator, validation);
 
-        public DeDuplicateConsumer(Consumer<T> delegate) {
-            this.delegate = delegate;
+            adjust();
         }
 
         @Override
-        public void accept(T t) {
-
-            if (prev == null) {
-                delegate.accept(t);
-                prev = t;
-            } else {
-                if (!Objects.equals(prev, t)) {
-                    prev = t;
-                    delegate.accept(t);
-                }
+        void adjust() {
+            nextVal = cursor.head;
+            if (cursor.hasHead) {
+                cursor.advance();
             }
         }
 
         @Override
-        public Consumer<T> andThen(Consumer<? super T> after) {
-            return delegate.andThen(after);
+        public int fill(T[] buffer) {
+            if (nextVal == null) return 0;
+            buffer[0] = nextVal;
+            int count = 1;
+            final Cursor<T> cursor = this.cursor;
+            while (count < buffer.length && cursor.hasHead) {
+                buffer[count++] = cursor.head;
+                cursor.advance();
+            }
+            adjust();
+            return count;
         }
     }
 
-    private static class DiffMergingIterator<T> implements Iterator<T> {
+    private static class DiffMergingIterator<T> extends AbstractSortedIterator<T> {
 
-        private final Iterator<? extends T> sourceIterator;
-        private final Iterator<? extends T> targetIterator;
+        private final Cursor<T> sourceCursor;
+        private final Cursor<T> targetCursor;
         private final Comparator<? super T> itemComparator;
 
-        private T line1 = null;
-        private T line2;
-
         public DiffMergingIterator(
                 Iterator<? extends T> sourceIterator,
                 Iterator<? extends T> targetIterator,
-                final Comparator<? super T> itemComparator) {
+                final Comparator<? super T> itemComparator,
+                InputValidation validation) {
 
-            this.sourceIterator = Iterators.peekingIterator(Iterators.filter(Iterators.filter(sourceIterator, new CheckSortedPredicate<>(itemComparator)), new DeDuplicatePredicate<>()));
-            this.targetIterator = Iterators.peekingIterator(Iterators.filter(Iterators.filter(targetIterator, new CheckSortedPredicate<>(itemComparator)), new DeDuplicatePredicate<>()));
+            this.sourceCursor = new Cursor<>(sourceIterator, itemComparator, validation);
+            this.targetCursor = new Cursor<>(targetIterator, itemComparator, validation);
             this.itemComparator = itemComparator;
 
-            line2 = this.targetIterator.next();
+            adjust();
         }
 
         @Override
-        public boolean hasNext() {
-            if (line1 != null) {
-                return true;
-            }
-
-            while (sourceIterator.hasNext()) {
-                line1 = sourceIterator.next();
-                int compare = itemComparator.compare(line1, line2);
-                if (compare == 0) {
-                    //nothing
-                } else if (compare < 0) {
-                    return true;
+        void adjust() {
+            nextVal = null;
+            final Cursor<T> source = sourceCursor;
+            final Cursor<T> target = targetCursor;
+            while (source.hasHead) {
+                int compare = target.hasHead ? itemComparator.compare(source.head, target.head) : -1;
+                if (compare < 0) {
+                    nextVal = source.head;
+                    source.advance();
+                    return;
+                }
+                if (compare > 0) {
+                    target.advance();
                 } else {
-                    while (targetIterator.hasNext()) {
-                        line2 = targetIterator.next();
-                        if (itemComparator.compare(line2, line1) < 0) {
-
-                        } else {
-                            break;
-                        }
-                    }
-                    compare = itemComparator.compare(line1, line2);
-                    if (compare < 0) {
-                        return true;
-                    } else if (!targetIterator.hasNext() && compare > 0) {
-                        return true;
-                    }
+                    source.advance();
+                    target.advance();
                 }
             }
-            return false;
         }
 
         @Override
-        public T next() {
-
-            if (line1 == null) throw new NoSuchElementException("no element");
-            T local = line1;
-            line1 = null;
-            return local;
+        public int fill(T[] buffer) {
+            if (nextVal == null) return 0;
+            buffer[0] = nextVal;
+            int count = 1;
+            final Cursor<T> source = sourceCursor;
+            final Cursor<T> target = targetCursor;
+            while (count < buffer.length && source.hasHead) {
+                int compare = target.hasHead ? itemComparator.compare(source.head, target.head) : -1;
+                if (compare < 0) {
+                    buffer[count++] = source.head;
+                    source.advance();
+                } else if (compare > 0) {
+                    target.advance();
+                } else {
+                    source.advance();
+                    target.advance();
+                }
+            }
+            adjust();
+            return count;
         }
     }
 
-    private static class DifferenceIterator<T> implements Iterator<T> {
+    private static class DifferenceIterator<T> extends AbstractSortedIterator<T> {
 
-        private final Iterator<? extends T> sourceIterator;
-        private final Iterator<? extends T> targetIterator;
+        private final Cursor<T> sourceCursor;
+        private final Cursor<T> targetCursor;
         private final Comparator<? super T> itemComparator;
 
-
-        private T val1 = null;
-        private T lastVal1 = null;
-        private T val2 = null;
-        private T lastVal2 = null;
-        private T nextValue = null;
-
         public DifferenceIterator(
                 Iterator<? extends T> sourceIterator,
                 Iterator<? extends T> targetIterator,
-                final Comparator<? super T> itemComparator) {
+                final Comparator<? super T> itemComparator,
+                InputValidation validation) {
 
-            this.sourceIterator = Iterators.peekingIterator(Iterators.filter(Iterators.filter(sourceIterator, new CheckSortedPredicate<>(itemComparator)), new DeDuplicatePredicate<>()));
-            this.targetIterator = Iterators.peekingIterator(Iterators.filter(Iterators.filter(targetIterator, new CheckSortedPredicate<>(itemComparator)), new DeDuplicatePredicate<>()));
+            this.sourceCursor = new Cursor<>(sourceIterator, itemComparator, validation);
+            this.targetCursor = new Cursor<>(targetIterator, itemComparator, validation);
             this.itemComparator = itemComparator;
 
+            adjust();
+        }
 
-            val1 = sourceIterator.hasNext() ? sourceIterator.next() : null;
-            val2 = targetIterator.hasNext() ? targetIterator.next() : null;
+        @Override
+        void adjust() {
+            nextVal = null;
+            final Cursor<T> source = sourceCursor;
+            final Cursor<T> target = targetCursor;
+            while (source.hasHead || target.hasHead) {
+                final int compare;
+                if (!target.hasHead) {
+                    compare = -1;
+                } else if (!source.hasHead) {
+                    compare = 1;
+                } else {
+                    compare = itemComparator.compare(source.head, target.head);
+                }
+                if (compare < 0) {
+                    nextVal = source.head;
+                    source.advance();
+                    return;
+                }
+                if (compare > 0) {
+                    nextVal = target.head;
+                    target.advance();
+                    return;
+                }
+                source.advance();
+                target.advance();
+            }
+        }
 
+        @Override
+        public int fill(T[] buffer) {
+            if (nextVal == null) return 0;
+            buffer[0] = nextVal;
+            int count = 1;
+            final Cursor<T> source = sourceCursor;
+            final Cursor<T> target = targetCursor;
+            while (count < buffer.length && source.hasHead && target.hasHead) {
+                final int compare = itemComparator.compare(source.head, target.head);
+                if (compare < 0) {
+                    buffer[count++] = source.head;
+                    source.advance();
+                } else if (compare > 0) {
+                    buffer[count++] = target.head;
+                    target.advance();
+                } else {
+                    source.advance();
+                    target.advance();
+                }
+            }
             adjust();
+            return count;
         }
+    }
 
-        public boolean hasNext() {
-            if (nextValue == null) return false;
-            return true;
+    /**
+     * Number of elements only in the target, the additions, and only in the source, the removals.
+     */
+    public static final class DifferenceCounts {
+
+        private final long additions;
+        private final long removals;
+
+        DifferenceCounts(long additions, long removals) {
+            this.additions = additions;
+            this.removals = removals;
         }
 
-        public T next() {
-            T toRet = nextValue;
-            adjust();
-            return toRet;
+        public long additions() {
+            return additions;
         }
 
-        /*
-            1, 3, 4, 6, 7
-            4
+        public long removals() {
+            return removals;
+        }
 
-              1, 3, 6, 7
-         */
-        private void adjust() {
-            nextValue = null;
-            while (true) {
-                if (val1 == null && val2 == null) break;
-                final int compare;
-                if (val1 == null) {
-                    compare = itemComparator.compare(lastVal1, val2);
-                    if (compare == 0) {
-                        lastVal2 = val2;
-                        val2 = targetIterator.hasNext() ? targetIterator.next() : null;
-                    } else if (compare < 0) {
-                        nextValue = val2;
-                        lastVal2 = val2;
-                        val2 = targetIterator.hasNext() ? targetIterator.next() : null;
-                        break;
-                    } else {
-                        throw new UnsupportedOperationException();
-                    }
-                } else if (val2 == null) {
-                    compare = itemComparator.compare(val1, lastVal2);
-                    if (compare == 0) {
-                        lastVal1 = val1;
-                        val1 = sourceIterator.hasNext() ? sourceIterator.next() : null;
-                    } else if (compare > 0) {
-                        nextValue = val1;
-                        lastVal1 = val1;
-                        val1 = sourceIterator.hasNext() ? sourceIterator.next() : null;
-                        break;
-                    } else {
-                        throw new UnsupportedOperationException();
-                    }
-                } else {
-                    compare = itemComparator.compare(val1, val2);
-                    if (compare == 0) {
-                        lastVal1 = val1;
-                        val1 = sourceIterator.hasNext() ? sourceIterator.next() : null;
-                        lastVal2 = val2;
-                        val2 = targetIterator.hasNext() ? targetIterator.next() : null;
-                    } else {
-                        if (compare < 0) { // val1 < val2
-                            nextValue = val1;
-                            lastVal1 = val1;
-                            val1 = sourceIterator.hasNext() ? sourceIterator.next() : null;
-                            break;
-                        } else {
-                            nextValue = val2;
-                            lastVal2 = val2;
-                            val2 = targetIterator.hasNext() ? targetIterator.next() : null;
-                            break;
-                        }
-                    }
-                }
-            }
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final DifferenceCounts that = (DifferenceCounts) o;
+            return additions == that.additions && removals == that.removals;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(additions, removals);
+        }
+
+        @Override
+        public String toString() {
+            return "DifferenceCounts{additions=" + additions + ", removals=" + removals + '}';
         }
     }
 
-    private static final class CheckSortedPredicate<T> implements Predicate<T> {
+    private static final class BatchingConsumer<T> implements Consumer<T> {
 
-        private final Comparator<? super T> itemComparator;
+        private final int batchSize;
+        private final Consumer<? super List<T>> batchConsumer;
+        private final List<T> batch;
+        private final List<T> view;
 
-        CheckSortedPredicate(Comparator<? super T> itemComparator) {
-            this.itemComparator = itemComparator;
+        BatchingConsumer(int batchSize, Consumer<? super List<T>> batchConsumer) {
+            this.batchSize = batchSize;
+            this.batchConsumer = batchConsumer;
+            this.batch = new ArrayList<>(Math.min(batchSize, 1 << 12));
+            this.view = Collections.unmodifiableList(batch);
         }
 
-        private T prev;
-
         @Override
-        public boolean apply(@Nullable T t) {
-            if (prev == null) {
-                prev = t;
-            } else {
-                int compare = itemComparator.compare(prev, t);
-                if (compare > 0) {
-                    throw new IllegalStateException("sorted predicate failed");
-                }
+        public void accept(T value) {
+            batch.add(value);
+            if (batch.size() == batchSize) {
+                flush();
             }
-            return true;
         }
 
+        void flush() {
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(view);
+                batch.clear();
+            }
+        }
     }
 
     static final class DeDuplicatePredicate<T> implements Predicate<T> {
@@ -461,119 +942,445 @@ public boolean apply(@Nullable T t) {
         }
     }
 
-    private static class IntersectionIterator<T> implements Iterator<T> {
-
+    private static class IntersectionIterator<T> extends AbstractSortedIterator<T> {
 
-        private final Iterator<? extends T> sourceIterator;
-        private final Iterator<? extends T> targetIterator;
+        private final Cursor<T> sourceCursor;
+        private final Cursor<T> targetCursor;
         private final Comparator<? super T> itemComparator;
 
-        private T nextVal = null;
-
         public IntersectionIterator(
                 Iterator<? extends T> sourceIterator,
                 Iterator<? extends T> targetIterator,
+                final Comparator<? super T> itemComparator,
+                InputValidation validation) {
+
+            this.sourceCursor = new Cursor<>(sourceIterator, itemComparator, validation);
+            this.targetCursor = new Cursor<>(targetIterator, itemComparator, validation);
+            this.itemComparator = itemComparator;
+
+            adjust();
+        }
+
+        @Override
+        void adjust() {
+            nextVal = null;
+            final Cursor<T> source = sourceCursor;
+            final Cursor<T> target = targetCursor;
+            while (source.hasHead && target.hasHead) {
+                final int compare = itemComparator.compare(source.head, target.head);
+                if (compare < 0) {
+                    source.advance();
+                } else if (compare > 0) {
+                    target.advance();
+                } else {
+                    nextVal = source.head;
+                    source.advance();
+                    target.advance();
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public int fill(T[] buffer) {
+            if (nextVal == null) return 0;
+            buffer[0] = nextVal;
+            int count = 1;
+            final Cursor<T> source = sourceCursor;
+            final Cursor<T> target = targetCursor;
+            while (count < buffer.length && source.hasHead && target.hasHead) {
+                final int compare = itemComparator.compare(source.head, target.head);
+                if (compare < 0) {
+                    source.advance();
+                } else if (compare > 0) {
+                    target.advance();
+                } else {
+                    buffer[count++] = source.head;
+                    source.advance();
+                    target.advance();
+                }
+            }
+            adjust();
+            return count;
+        }
+    }
+
+    private static class SkippingIntersectionIterator<T> extends AbstractSortedIterator<T> {
+
+        private final SkippableSortedIterator<T> sourceIterator;
+        private final SkippableSortedIterator<T> targetIterator;
+        private final Comparator<? super T> itemComparator;
+
+        public SkippingIntersectionIterator(
+                SkippableSortedIterator<T> sourceIterator,
+                SkippableSortedIterator<T> targetIterator,
                 final Comparator<? super T> itemComparator) {
 
-            this.sourceIterator = Iterators.peekingIterator(Iterators.filter(Iterators.filter(sourceIterator, new CheckSortedPredicate<>(itemComparator)), new DeDuplicatePredicate<>()));
-            this.targetIterator = Iterators.peekingIterator(Iterators.filter(Iterators.filter(targetIterator, new CheckSortedPredicate<>(itemComparator)), new DeDuplicatePredicate<>()));
+            this.sourceIterator = sourceIterator;
+            this.targetIterator = targetIterator;
             this.itemComparator = itemComparator;
 
             adjust();
         }
 
-        public boolean hasNext() {
-            if (nextVal == null) return false;
-            return true;
+        @Override
+        void adjust() {
+            nextVal = null;
+            while (sourceIterator.hasNext() && targetIterator.hasNext()) {
+                T val1 = sourceIterator.peek();
+                T val2 = targetIterator.peek();
+                int compare = itemComparator.compare(val1, val2);
+                if (compare < 0) {
+                    sourceIterator.advanceTo(val2);
+                } else if (compare > 0) {
+                    targetIterator.advanceTo(val1);
+                } else {
+                    sourceIterator.next();
+                    targetIterator.next();
+                    nextVal = val1;
+                    break;
+                }
+            }
         }
+    }
+
+    private static class SkippingExcludeIterator<T> extends AbstractSortedIterator<T> {
+
+        private final SkippableSortedIterator<T> sourceIterator;
+        private final SkippableSortedIterator<T> targetIterator;
+        private final Comparator<? super T> itemComparator;
+
+        public SkippingExcludeIterator(
+                SkippableSortedIterator<T> sourceIterator,
+                SkippableSortedIterator<T> targetIterator,
+                final Comparator<? super T> itemComparator) {
+
+            this.sourceIterator = sourceIterator;
+            this.targetIterator = targetIterator;
+            this.itemComparator = itemComparator;
 
-        public T next() {
-            T toRet = nextVal;
             adjust();
-            return toRet;
         }
 
-        private void adjust() {
+        @Override
+        void adjust() {
             nextVal = null;
-            T val1 = sourceIterator.hasNext() ? sourceIterator.next() : null;
-            T val2 = targetIterator.hasNext() ? targetIterator.next() : null;
-            while (true) {
-                if (val1 == null || val2 == null) break;
-                if (val1 == val2) {
+            while (sourceIterator.hasNext()) {
+                T val1 = sourceIterator.next();
+                targetIterator.advanceTo(val1);
+                if (!targetIterator.hasNext() || itemComparator.compare(val1, targetIterator.peek()) != 0) {
                     nextVal = val1;
                     break;
-                } else if (itemComparator.compare(val1, val2) < 0) { // val1 < val2
-                    if (sourceIterator.hasNext()) {
-                        val1 = sourceIterator.next();
-                    } else break;
+                }
+            }
+        }
+    }
+
+    /**
+     * K-way merge over a tournament tree of losers. Each inner node keeps the input that lost the match
+     * played there, so replacing the winner costs one comparison per tree level. Checks the order of every
+     * input and drops duplicates against the last emitted element while merging.
+     */
+    private static class LoserTreeMergingIterator<T> extends AbstractSortedIterator<T> {
+
+        private final Iterator<? extends T>[] iterators;
+        private final Object[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final Comparator<? super T> itemComparator;
+        private final boolean trusted;
+
+        private T last = null;
+        @SuppressWarnings("unchecked")
+        public LoserTreeMergingIterator(
+                List<? extends Iterator<? extends T>> iterators,
+                final Comparator<? super T> itemComparator,
+                InputValidation validation) {
+
+            final int size = iterators.size();
+            this.iterators = (Iterator<? extends T>[]) new Iterator<?>[size];
+            this.heads = new Object[size];
+            this.exhausted = new boolean[size];
+            this.tree = new int[Math.max(size, 1)];
+            this.itemComparator = itemComparator;
+            this.trusted = validation == InputValidation.TRUSTED;
+
+            if (size == 0) {
+                return;
+            }
+
+            for (int i = 0; i < size; i++) {
+                this.iterators[i] = iterators.get(i);
+                if (this.iterators[i].hasNext()) {
+                    heads[i] = this.iterators[i].next();
+                } else {
+                    exhausted[i] = true;
+                }
+            }
+            tree[0] = build(1);
+
+            adjust();
+        }
+
+        /**
+         * Plays the matches below {@code node}, leaves are numbered from {@code iterators.length}.
+         */
+        private int build(int node) {
+            if (node >= iterators.length) {
+                return node - iterators.length;
+            }
+            final int left = build(2 * node);
+            final int right = build(2 * node + 1);
+            if (beats(left, right)) {
+                tree[node] = right;
+                return left;
+            }
+            tree[node] = left;
+            return right;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean beats(int first, int second) {
+            if (exhausted[first]) return false;
+            if (exhausted[second]) return true;
+            return itemComparator.compare((T) heads[first], (T) heads[second]) <= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        void adjust() {
+            nextVal = null;
+            while (true) {
+                final int winner = tree[0];
+                if (exhausted[winner]) {
+                    return;
+                }
+                final T value = (T) heads[winner];
+
+                final Iterator<? extends T> iterator = iterators[winner];
+                if (iterator.hasNext()) {
+                    final T head = iterator.next();
+                    if (!trusted && itemComparator.compare(head, value) < 0) {
+                        throw new IllegalStateException("sorted predicate failed");
+                    }
+                    heads[winner] = head;
+                } else {
+                    heads[winner] = null;
+                    exhausted[winner] = true;
+                }
+
+                int candidate = winner;
+                for (int node = (winner + iterators.length) >>> 1; node > 0; node >>>= 1) {
+                    if (beats(tree[node], candidate)) {
+                        final int loser = candidate;
+                        candidate = tree[node];
+                        tree[node] = loser;
+                    }
+                }
+                tree[0] = candidate;
+
+                if (last == null || itemComparator.compare(value, last) != 0) {
+                    last = value;
+                    nextVal = value;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Intersection of any number of inputs. The inputs are kept ordered by their heads, and the smallest one
+     * is always advanced to the largest head, so every input seeks directly to the next candidate.
+     */
+    private static class LeapfrogIntersectionIterator<T> extends AbstractSortedIterator<T> {
+
+        private final SkippableSortedIterator<T>[] iterators;
+        private final Comparator<? super T> itemComparator;
+
+        private int position = 0;
+        private T max;
+        @SuppressWarnings("unchecked")
+        public LeapfrogIntersectionIterator(
+                List<? extends Iterator<T>> iterators,
+                final Comparator<? super T> itemComparator,
+                InputValidation validation) {
+
+            this.iterators = (SkippableSortedIterator<T>[]) new SkippableSortedIterator<?>[iterators.size()];
+            this.itemComparator = itemComparator;
+
+            for (int i = 0; i < this.iterators.length; i++) {
+                this.iterators[i] = SkippableSortedIterators.of(iterators.get(i), itemComparator, validation);
+            }
+            Arrays.sort(this.iterators, (it1, it2) -> itemComparator.compare(it1.peek(), it2.peek()));
+            max = this.iterators[this.iterators.length - 1].peek();
+
+            adjust();
+        }
+
+        @Override
+        void adjust() {
+            nextVal = null;
+            if (max == null) {
+                return;
+            }
+            while (true) {
+                final SkippableSortedIterator<T> iterator = iterators[position];
+                final T min = iterator.peek();
+                if (itemComparator.compare(min, max) == 0) {
+                    nextVal = min;
+                    iterator.next();
                 } else {
-                    if (targetIterator.hasNext()) {
-                        val2 = targetIterator.next();
-                    } else break;
+                    iterator.advanceTo(max);
+                }
+                if (!iterator.hasNext()) {
+                    max = null;
+                    return;
+                }
+                max = iterator.peek();
+                position = (position + 1) % iterators.length;
+                if (nextVal != null) {
+                    return;
                 }
             }
         }
     }
 
+    /**
+     * Describes the union inputs minus the exclude inputs, intersected with every intersect input, and the
+     * symmetric difference of that with every difference input. {@link #build()} picks an execution plan from
+     * the optional size hints of the inputs: intersections run before exclusions, smallest inputs first, and
+     * skippable inputs are sought when their size is far from the size of the other side. {@link #explain()}
+     * prints the plan.
+     */
     public static class SortedIteratorsBuilder<T> {
 
         private Comparator<T> comparator;
-        private final List<Iterator<T>> unionIterators = new ArrayList<>();
-        private final List<Iterator<T>> excludeIterators = new ArrayList<>();
-        private final List<Iterator<T>> intersectIterators = new ArrayList<>();
-        private final List<Iterator<T>> differenceIterators = new ArrayList<>();
+        private InputValidation validation = InputValidation.CHECKED;
+        private SortedBounds<T> bounds = SortedBounds.unbounded();
+        private SortedOperatorListener listener = SortedOperatorListener.noop();
+        private final List<Plan<T>> unionInputs = new ArrayList<>();
+        private final List<Plan<T>> excludeInputs = new ArrayList<>();
+        private final List<Plan<T>> intersectInputs = new ArrayList<>();
+        private final List<Plan<T>> differenceInputs = new ArrayList<>();
 
         public SortedIteratorsBuilder<T> comparator(Comparator<T> comparator) {
             this.comparator = comparator;
             return this;
         }
 
-        public SortedIteratorsBuilder<T> union(Iterator<T> unionIterator) {
-            this.unionIterators.add(unionIterator);
+        public SortedIteratorsBuilder<T> validation(InputValidation validation) {
+            this.validation = checkNotNull(validation, "validation");
             return this;
         }
 
-        public SortedIteratorsBuilder<T> exclude(Iterator<T> excludeIterator) {
-            this.excludeIterators.add(excludeIterator);
+        /**
+         * Restricts the result to a key range and a number of elements, pushed down to every input.
+         */
+        public SortedIteratorsBuilder<T> bounds(SortedBounds<T> bounds) {
+            this.bounds = checkNotNull(bounds, "bounds");
             return this;
         }
 
-        public SortedIteratorsBuilder<T> intersect(Iterator<T> intersectIterator) {
-            this.intersectIterators.add(intersectIterator);
+        /**
+         * Reports the stats of every operation of the plan, see {@link SortedOperatorListener}.
+         */
+        public SortedIteratorsBuilder<T> listener(SortedOperatorListener listener) {
+            this.listener = checkNotNull(listener, "listener");
             return this;
         }
 
+        public SortedIteratorsBuilder<T> union(Iterator<T> unionIterator) {
+            return union(unionIterator, Plan.UNKNOWN_SIZE);
+        }
+
+        public SortedIteratorsBuilder<T> union(Iterator<T> unionIterator, long sizeHint) {
+            return add(unionInputs, "union", unionIterator, sizeHint);
+        }
+
+        public SortedIteratorsBuilder<T> exclude(Iterator<T> excludeIterator) {
+            return exclude(excludeIterator, Plan.UNKNOWN_SIZE);
+        }
+
+        public SortedIteratorsBuilder<T> exclude(Iterator<T> excludeIterator, long sizeHint) {
+            return add(excludeInputs, "exclude", excludeIterator, sizeHint);
+        }
+
+        public SortedIteratorsBuilder<T> intersect(Iterator<T> intersectIterator) {
+            return intersect(intersectIterator, Plan.UNKNOWN_SIZE);
+        }
+
+        public SortedIteratorsBuilder<T> intersect(Iterator<T> intersectIterator, long sizeHint) {
+            return add(intersectInputs, "intersect", intersectIterator, sizeHint);
+        }
+
         public SortedIteratorsBuilder<T> difference(Iterator<T> differenceIterator) {
-            this.differenceIterators.add(differenceIterator);
-            return this;
+            return difference(differenceIterator, Plan.UNKNOWN_SIZE);
+        }
+
+        public SortedIteratorsBuilder<T> difference(Iterator<T> differenceIterator, long sizeHint) {
+            return add(differenceInputs, "difference", differenceIterator, sizeHint);
         }
 
         public Iterator<T> build() {
-            Iterator<T> it = SortedIterators.union(unionIterators, comparator);
+            return bounds.limit(plan().open(comparator, validation, listener));
+        }
 
-            if (!excludeIterators.isEmpty()) {
-                it = SortedIterators.exclude(it, SortedIterators.union(excludeIterators, comparator), comparator);
-            }
+        /**
+         * Returns the plan that {@link #build()} would run, one operation per line with its inputs indented below.
+         */
+        public String explain() {
+            final String plan = plan().explain();
+            return bounds.isUnbounded() ? plan : "bounds " + bounds + "\n" + plan;
+        }
 
-            if (!intersectIterators.isEmpty()) {
-                Iterator<T> iterator = intersectIterators.get(0);
+        private SortedIteratorsBuilder<T> add(List<Plan<T>> inputs, String kind, Iterator<T> iterator, long sizeHint) {
+            checkArgument(sizeHint >= 0, "sizeHint must not be negative");
+            inputs.add(new Plan.Input<>(kind + "#" + inputs.size(), iterator, sizeHint));
+            return this;
+        }
 
-                for (int i = 1; i < intersectIterators.size(); i++) {
-                    iterator = SortedIterators.intersection(iterator, intersectIterators.get(i), comparator);
+        private Plan<T> plan() {
+            final List<Plan<T>> unionInputs = restrict(this.unionInputs);
+            final List<Plan<T>> excludeInputs = restrict(this.excludeInputs);
+            final List<Plan<T>> intersectInputs = restrict(this.intersectInputs);
+            final List<Plan<T>> differenceInputs = restrict(this.differenceInputs);
+
+            Plan<T> plan = unionInputs.isEmpty() ? new Plan.Empty<>() : new Plan.Union<>(unionInputs);
+
+            if (!unionInputs.isEmpty()) {
+                // excluding after the intersection gives the same result and leaves less to exclude
+                if (!intersectInputs.isEmpty()) {
+                    final List<Plan<T>> inputs = new ArrayList<>();
+                    inputs.add(unionInputs.size() == 1 ? unionInputs.get(0) : plan);
+                    inputs.addAll(intersectInputs);
+                    plan = new Plan.Intersection<>(inputs);
+                }
+                if (!excludeInputs.isEmpty()) {
+                    plan = new Plan.Exclude<>(plan, excludeInputs);
                 }
-                it = SortedIterators.intersection(it, iterator, comparator);
             }
 
-            if (!differenceIterators.isEmpty()) {
-                Iterator<T> iterator = differenceIterators.get(0);
-
-                for (int i = 1; i < differenceIterators.size(); i++) {
-                    iterator = SortedIterators.difference(iterator, intersectIterators.get(i), comparator);
+            if (!differenceInputs.isEmpty()) {
+                final List<Plan<T>> inputs = new ArrayList<>();
+                if (!unionInputs.isEmpty()) {
+                    inputs.add(plan);
                 }
-                it = SortedIterators.difference(it, iterator, comparator);
+                inputs.addAll(differenceInputs);
+                plan = inputs.size() == 1 ? new Plan.Union<>(inputs) : new Plan.Difference<>(inputs);
             }
 
-            return it;
+            return plan;
+        }
+
+        private List<Plan<T>> restrict(List<Plan<T>> inputs) {
+            if (bounds.isUnbounded()) {
+                return inputs;
+            }
+            final List<Plan<T>> restricted = new ArrayList<>(inputs.size());
+            for (Plan<T> input : inputs) {
+                restricted.add(((Plan.Input<T>) input).restrict(bounds, comparator, validation));
+            }
+            return restricted;
         }
     }
 }
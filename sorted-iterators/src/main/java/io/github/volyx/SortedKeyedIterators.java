@@ -0,0 +1,378 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link SortedIterators} operations over elements ordered by a {@code long} key, for example
+ * {@code SortedKeyedIterators.union(iterators, Row::id)}. Elements with equal keys are equal.
+ * <p>
+ * The key of every element is extracted once, when it is read from its input, and kept next to it, so the
+ * merges compare primitives instead of calling a comparator on both elements. Operations return the original
+ * elements; {@code int} keys can be passed as they widen to {@code long}.
+ */
+public final class SortedKeyedIterators {
+
+    private SortedKeyedIterators() {
+    }
+
+    public static <T> Iterator<T> union(Iterable<? extends Iterator<T>> iterators, ToLongFunction<? super T> keyExtractor) {
+        return union(iterators, keyExtractor, InputValidation.CHECKED);
+    }
+
+    /**
+     * Merges the inputs pairwise in a balanced tree, an element equal to one in an earlier input is dropped.
+     */
+    public static <T> Iterator<T> union(Iterable<? extends Iterator<T>> iterators, ToLongFunction<? super T> keyExtractor,
+                                        InputValidation validation) {
+        final List<Node<T>> nodes = sources(iterators, keyExtractor, validation);
+        if (nodes.isEmpty()) {
+            return ImmutableList.<T>of().iterator();
+        }
+        return tree(nodes, 0, nodes.size(), true);
+    }
+
+    public static <T> Iterator<T> intersection(Iterable<? extends Iterator<T>> iterators, ToLongFunction<? super T> keyExtractor) {
+        return intersection(iterators, keyExtractor, InputValidation.CHECKED);
+    }
+
+    /**
+     * Returns the elements of the first input whose key is present in every input.
+     */
+    public static <T> Iterator<T> intersection(Iterable<? extends Iterator<T>> iterators, ToLongFunction<? super T> keyExtractor,
+                                               InputValidation validation) {
+        final List<Node<T>> nodes = sources(iterators, keyExtractor, validation);
+        if (nodes.isEmpty()) {
+            return ImmutableList.<T>of().iterator();
+        }
+        return tree(nodes, 0, nodes.size(), false);
+    }
+
+    public static <T> Iterator<T> exclude(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                          ToLongFunction<? super T> keyExtractor) {
+        return exclude(sourceIterator, targetIterator, keyExtractor, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<T> exclude(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                          ToLongFunction<? super T> keyExtractor, InputValidation validation) {
+        checkNotNull(keyExtractor, "keyExtractor");
+        checkNotNull(validation, "validation");
+        return new Exclude<>(source(sourceIterator, "sourceIterator", keyExtractor, validation),
+                source(targetIterator, "targetIterator", keyExtractor, validation));
+    }
+
+    public static <T> Iterator<T> difference(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                             ToLongFunction<? super T> keyExtractor) {
+        return difference(sourceIterator, targetIterator, keyExtractor, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<T> difference(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                             ToLongFunction<? super T> keyExtractor, InputValidation validation) {
+        checkNotNull(keyExtractor, "keyExtractor");
+        checkNotNull(validation, "validation");
+        return new Difference<>(source(sourceIterator, "sourceIterator", keyExtractor, validation),
+                source(targetIterator, "targetIterator", keyExtractor, validation));
+    }
+
+    public static <T> void differenceConsumer(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                              ToLongFunction<? super T> keyExtractor,
+                                              Consumer<T> addConsumer, Consumer<T> removeConsumer) {
+        differenceConsumer(sourceIterator, targetIterator, keyExtractor, addConsumer, removeConsumer, InputValidation.CHECKED);
+    }
+
+    public static <T> void differenceConsumer(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                              ToLongFunction<? super T> keyExtractor,
+                                              Consumer<T> addConsumer, Consumer<T> removeConsumer,
+                                              InputValidation validation) {
+        checkNotNull(keyExtractor, "keyExtractor");
+        checkNotNull(addConsumer, "addConsumer");
+        checkNotNull(removeConsumer, "removeConsumer");
+        checkNotNull(validation, "validation");
+
+        final Node<T> source = source(sourceIterator, "sourceIterator", keyExtractor, validation);
+        final Node<T> target = source(targetIterator, "targetIterator", keyExtractor, validation);
+        while (source.hasHead && target.hasHead) {
+            if (source.key < target.key) {
+                removeConsumer.accept(source.head);
+                source.advance();
+            } else if (source.key > target.key) {
+                addConsumer.accept(target.head);
+                target.advance();
+            } else {
+                source.advance();
+                target.advance();
+            }
+        }
+        while (source.hasHead) {
+            removeConsumer.accept(source.head);
+            source.advance();
+        }
+        while (target.hasHead) {
+            addConsumer.accept(target.head);
+            target.advance();
+        }
+    }
+
+    private static <T> List<Node<T>> sources(Iterable<? extends Iterator<T>> iterators, ToLongFunction<? super T> keyExtractor,
+                                             InputValidation validation) {
+        checkNotNull(iterators, "iterators");
+        checkNotNull(keyExtractor, "keyExtractor");
+        checkNotNull(validation, "validation");
+        final List<Node<T>> nodes = new ArrayList<>();
+        for (Iterator<T> iterator : iterators) {
+            nodes.add(source(iterator, "iterator", keyExtractor, validation));
+        }
+        return nodes;
+    }
+
+    /**
+     * Reads the result of another operation of this class with the same key extractor without extracting the
+     * keys again.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T> source(Iterator<T> iterator, String name, ToLongFunction<? super T> keyExtractor,
+                                      InputValidation validation) {
+        checkNotNull(iterator, name);
+        if (iterator instanceof Node && ((Node<T>) iterator).keyExtractor == keyExtractor) {
+            return (Node<T>) iterator;
+        }
+        return new Source<>(iterator, keyExtractor, validation == InputValidation.TRUSTED);
+    }
+
+    private static <T> Node<T> tree(List<Node<T>> nodes, int from, int to, boolean union) {
+        if (to - from == 1) {
+            return nodes.get(from);
+        }
+        final int middle = (from + to) >>> 1;
+        final Node<T> left = tree(nodes, from, middle, union);
+        final Node<T> right = tree(nodes, middle, to, union);
+        return union ? new Union<>(left, right) : new Intersection<>(left, right);
+    }
+
+    /**
+     * Holds the next element to return and its key. Operations read the keys of their inputs from here.
+     */
+    private abstract static class Node<T> implements Iterator<T> {
+
+        final ToLongFunction<? super T> keyExtractor;
+        T head;
+        long key;
+        boolean hasHead;
+
+        Node(ToLongFunction<? super T> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+        }
+
+        /**
+         * Moves to the next element, or clears {@link #hasHead}.
+         */
+        abstract void advance();
+
+        final void set(T value, long valueKey) {
+            head = value;
+            key = valueKey;
+            hasHead = true;
+        }
+
+        final void clear() {
+            head = null;
+            hasHead = false;
+        }
+
+        @Override
+        public final boolean hasNext() {
+            return hasHead;
+        }
+
+        @Override
+        public final T next() {
+            if (!hasHead) {
+                throw new NoSuchElementException();
+            }
+            final T value = head;
+            advance();
+            return value;
+        }
+    }
+
+    /**
+     * Extracts the key of every element once, checking the order and skipping duplicates unless trusted.
+     */
+    private static final class Source<T> extends Node<T> {
+
+        private final Iterator<T> iterator;
+        private final boolean trusted;
+
+        Source(Iterator<T> iterator, ToLongFunction<? super T> keyExtractor, boolean trusted) {
+            super(keyExtractor);
+            this.iterator = iterator;
+            this.trusted = trusted;
+            if (iterator.hasNext()) {
+                final T value = iterator.next();
+                set(value, keyExtractor.applyAsLong(value));
+            }
+        }
+
+        @Override
+        void advance() {
+            while (iterator.hasNext()) {
+                final T value = iterator.next();
+                final long valueKey = keyExtractor.applyAsLong(value);
+                if (trusted || valueKey > key) {
+                    set(value, valueKey);
+                    return;
+                }
+                if (valueKey < key) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+            }
+            clear();
+        }
+    }
+
+    private static final class Union<T> extends Node<T> {
+
+        private final Node<T> left;
+        private final Node<T> right;
+
+        Union(Node<T> left, Node<T> right) {
+            super(left.keyExtractor);
+            this.left = left;
+            this.right = right;
+            advance();
+        }
+
+        @Override
+        void advance() {
+            if (left.hasHead && right.hasHead) {
+                if (left.key <= right.key) {
+                    if (left.key == right.key) {
+                        right.advance();
+                    }
+                    set(left.head, left.key);
+                    left.advance();
+                } else {
+                    set(right.head, right.key);
+                    right.advance();
+                }
+            } else if (left.hasHead) {
+                set(left.head, left.key);
+                left.advance();
+            } else if (right.hasHead) {
+                set(right.head, right.key);
+                right.advance();
+            } else {
+                clear();
+            }
+        }
+    }
+
+    private static final class Intersection<T> extends Node<T> {
+
+        private final Node<T> left;
+        private final Node<T> right;
+
+        Intersection(Node<T> left, Node<T> right) {
+            super(left.keyExtractor);
+            this.left = left;
+            this.right = right;
+            advance();
+        }
+
+        @Override
+        void advance() {
+            while (left.hasHead && right.hasHead) {
+                if (left.key < right.key) {
+                    left.advance();
+                } else if (left.key > right.key) {
+                    right.advance();
+                } else {
+                    set(left.head, left.key);
+                    left.advance();
+                    right.advance();
+                    return;
+                }
+            }
+            clear();
+        }
+    }
+
+    private static final class Exclude<T> extends Node<T> {
+
+        private final Node<T> source;
+        private final Node<T> target;
+
+        Exclude(Node<T> source, Node<T> target) {
+            super(source.keyExtractor);
+            this.source = source;
+            this.target = target;
+            advance();
+        }
+
+        @Override
+        void advance() {
+            while (source.hasHead) {
+                while (target.hasHead && target.key < source.key) {
+                    target.advance();
+                }
+                if (target.hasHead && target.key == source.key) {
+                    source.advance();
+                    target.advance();
+                    continue;
+                }
+                set(source.head, source.key);
+                source.advance();
+                return;
+            }
+            clear();
+        }
+    }
+
+    private static final class Difference<T> extends Node<T> {
+
+        private final Node<T> source;
+        private final Node<T> target;
+
+        Difference(Node<T> source, Node<T> target) {
+            super(source.keyExtractor);
+            this.source = source;
+            this.target = target;
+            advance();
+        }
+
+        @Override
+        void advance() {
+            while (source.hasHead && target.hasHead) {
+                if (source.key < target.key) {
+                    set(source.head, source.key);
+                    source.advance();
+                    return;
+                }
+                if (source.key > target.key) {
+                    set(target.head, target.key);
+                    target.advance();
+                    return;
+                }
+                source.advance();
+                target.advance();
+            }
+            if (source.hasHead) {
+                set(source.head, source.key);
+                source.advance();
+            } else if (target.hasHead) {
+                set(target.head, target.key);
+                target.advance();
+            } else {
+                clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.volyx;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Immutable ascending distinct {@code long} values stored outside of the heap in direct buffers of a fixed
+ * number of values each. The memory is released when the column is garbage collected.
+ * <p>
+ * A column is filled through an {@link Appender}, usually with the output of a {@link SortedLongIterators}
+ * operation, and read back with {@link #iterator()}, which can be passed to further operations.
+ */
+public final class SortedLongColumn {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private final LongBuffer[] chunks;
+    private final int chunkSize;
+    private final long size;
+
+    private SortedLongColumn(LongBuffer[] chunks, int chunkSize, long size) {
+        this.chunks = chunks;
+        this.chunkSize = chunkSize;
+        this.size = size;
+    }
+
+    public static Appender appender() {
+        return new Appender(DEFAULT_CHUNK_SIZE);
+    }
+
+    public static Appender appender(int chunkSize) {
+        checkArgument(chunkSize > 0 && chunkSize <= Integer.MAX_VALUE / Long.BYTES, "chunkSize is out of range");
+        return new Appender(chunkSize);
+    }
+
+    public static SortedLongColumn copyOf(PrimitiveIterator.OfLong iterator) {
+        return appender().appendAll(iterator).build();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is out of range " + size);
+        }
+        return chunks[(int) (index / chunkSize)].get((int) (index % chunkSize));
+    }
+
+    public PrimitiveIterator.OfLong iterator() {
+        return new ColumnIterator();
+    }
+
+    /**
+     * Collects ascending values into a new column. Duplicates are skipped and a value less than its predecessor
+     * fails with {@link IllegalStateException}.
+     */
+    public static final class Appender implements LongConsumer {
+
+        private final int chunkSize;
+        private final List<LongBuffer> chunks = new ArrayList<>();
+        private LongBuffer chunk;
+        private long size;
+        private long last;
+        private boolean built;
+
+        private Appender(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void accept(long value) {
+            checkState(!built, "column is already built");
+            if (size > 0) {
+                if (value == last) {
+                    return;
+                }
+                if (value < last) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+            }
+            if (chunk == null || !chunk.hasRemaining()) {
+                chunk = ByteBuffer.allocateDirect(chunkSize * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+                chunks.add(chunk);
+            }
+            chunk.put(value);
+            last = value;
+            size++;
+        }
+
+        public Appender appendAll(PrimitiveIterator.OfLong iterator) {
+            checkNotNull(iterator, "iterator");
+            while (iterator.hasNext()) {
+                accept(iterator.nextLong());
+            }
+            return this;
+        }
+
+        public SortedLongColumn build() {
+            checkState(!built, "column is already built");
+            built = true;
+            return new SortedLongColumn(chunks.toArray(new LongBuffer[0]), chunkSize, size);
+        }
+    }
+
+    private final class ColumnIterator implements PrimitiveIterator.OfLong {
+
+        private int chunk;
+        private int position;
+        private long remaining = size;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if (remaining == 0) {
+                throw new NoSuchElementException("no element");
+            }
+            if (position == chunkSize) {
+                chunk++;
+                position = 0;
+            }
+            remaining--;
+            return chunks[chunk].get(position++);
+        }
+    }
+}
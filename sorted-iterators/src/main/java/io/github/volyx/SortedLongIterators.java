@@ -0,0 +1,343 @@
+package io.github.volyx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@code long} specializations of {@link SortedIterators} operations. Inputs are expected to be sorted
+ * in natural order; duplicates are dropped and unsorted input fails with {@link IllegalStateException}.
+ * <p>
+ * Operations read their inputs in chunks of the values sharing all but the low 16 bits. Dense chunks are
+ * combined as bitmaps a word at a time, sparse chunks are merged.
+ */
+public final class SortedLongIterators {
+
+    private SortedLongIterators() {
+    }
+
+    public static PrimitiveIterator.OfLong union(Iterable<? extends PrimitiveIterator.OfLong> iterators) {
+        checkNotNull(iterators, "iterators");
+
+        final List<PrimitiveIterator.OfLong> iteratorList = new ArrayList<>();
+        for (PrimitiveIterator.OfLong iterator : iterators) {
+            iteratorList.add(checkNotNull(iterator, "iterator"));
+        }
+
+        if (iteratorList.isEmpty()) {
+            return new EmptyIterator();
+        }
+        return union(iteratorList, 0, iteratorList.size());
+    }
+
+    private static PrimitiveIterator.OfLong union(List<PrimitiveIterator.OfLong> iterators, int from, int to) {
+        if (to - from == 1) {
+            return new DistinctIterator(iterators.get(from));
+        }
+        final int middle = (from + to) >>> 1;
+        return new ContainerIterator(SetOperation.UNION, union(iterators, from, middle), union(iterators, middle, to));
+    }
+
+    public static PrimitiveIterator.OfLong intersection(PrimitiveIterator.OfLong sourceIterator,
+                                                        PrimitiveIterator.OfLong targetIterator) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+
+        if (!sourceIterator.hasNext() || !targetIterator.hasNext()) {
+            return new EmptyIterator();
+        }
+
+        return new ContainerIterator(SetOperation.INTERSECTION, sourceIterator, targetIterator);
+    }
+
+    public static PrimitiveIterator.OfLong exclude(PrimitiveIterator.OfLong sourceIterator,
+                                                   PrimitiveIterator.OfLong targetIterator) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+
+        if (!sourceIterator.hasNext()) {
+            return new EmptyIterator();
+        }
+
+        if (!targetIterator.hasNext()) {
+            return new DistinctIterator(sourceIterator);
+        }
+
+        return new ContainerIterator(SetOperation.EXCLUDE, sourceIterator, targetIterator);
+    }
+
+    public static PrimitiveIterator.OfLong difference(PrimitiveIterator.OfLong sourceIterator,
+                                                      PrimitiveIterator.OfLong targetIterator) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+
+        if (!sourceIterator.hasNext()) {
+            return new DistinctIterator(targetIterator);
+        }
+
+        if (!targetIterator.hasNext()) {
+            return new DistinctIterator(sourceIterator);
+        }
+
+        return new ContainerIterator(SetOperation.DIFFERENCE, sourceIterator, targetIterator);
+    }
+
+    public static void differenceConsumer(PrimitiveIterator.OfLong sourceIterator,
+                                          PrimitiveIterator.OfLong targetIterator,
+                                          LongConsumer addConsumer,
+                                          LongConsumer removeConsumer) {
+        checkNotNull(addConsumer, "addConsumer");
+        checkNotNull(removeConsumer, "removeConsumer");
+
+        final Cursor source = new Cursor(checkNotNull(sourceIterator, "sourceIterator"));
+        final Cursor target = new Cursor(checkNotNull(targetIterator, "targetIterator"));
+
+        while (source.hasHead && target.hasHead) {
+            if (source.head < target.head) {
+                removeConsumer.accept(source.head);
+                source.advance();
+            } else if (source.head > target.head) {
+                addConsumer.accept(target.head);
+                target.advance();
+            } else {
+                source.advance();
+                target.advance();
+            }
+        }
+        while (source.hasHead) {
+            removeConsumer.accept(source.head);
+            source.advance();
+        }
+        while (target.hasHead) {
+            addConsumer.accept(target.head);
+            target.advance();
+        }
+    }
+
+    public static void symmetricDifference(PrimitiveIterator.OfLong sourceIterator,
+                                           PrimitiveIterator.OfLong targetIterator,
+                                           LongConsumer mergeConsumer) {
+
+        differenceConsumer(sourceIterator, targetIterator, mergeConsumer, mergeConsumer);
+    }
+
+    /**
+     * Counts the elements {@link #union} would return in a single merge pass, without creating them.
+     */
+    public static long countUnion(PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+        return counts(sourceIterator, targetIterator).union();
+    }
+
+    /**
+     * Counts the common elements, stopping at the end of the shorter input.
+     */
+    public static long countIntersection(PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+        return MergeCounts.countIntersection(checkNotNull(sourceIterator, "sourceIterator"),
+                checkNotNull(targetIterator, "targetIterator"));
+    }
+
+    public static long countDifference(PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+        return counts(sourceIterator, targetIterator).difference();
+    }
+
+    /**
+     * Size of the intersection over the size of the union, {@code 0} when both inputs are empty.
+     */
+    public static double jaccard(PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+        return counts(sourceIterator, targetIterator).jaccard();
+    }
+
+    /**
+     * Size of the intersection over the size of the smaller input, {@code 0} when either input is empty.
+     */
+    public static double overlap(PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+        return counts(sourceIterator, targetIterator).overlap();
+    }
+
+    private static MergeCounts counts(PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+        return MergeCounts.count(checkNotNull(sourceIterator, "sourceIterator"), checkNotNull(targetIterator, "targetIterator"));
+    }
+
+    /**
+     * Holds the current head of a sorted input, checking the order and skipping duplicates in a single comparison.
+     */
+    static final class Cursor {
+
+        private final PrimitiveIterator.OfLong iterator;
+
+        long head;
+        boolean hasHead;
+
+        Cursor(PrimitiveIterator.OfLong iterator) {
+            this.iterator = iterator;
+            if (iterator.hasNext()) {
+                head = iterator.nextLong();
+                hasHead = true;
+            }
+        }
+
+        void advance() {
+            while (iterator.hasNext()) {
+                final long value = iterator.nextLong();
+                if (value > head) {
+                    head = value;
+                    return;
+                }
+                if (value < head) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+            }
+            hasHead = false;
+        }
+
+        void advanceTo(long target) {
+            while (hasHead && head < target) {
+                advance();
+            }
+        }
+    }
+
+    private abstract static class AbstractIterator implements PrimitiveIterator.OfLong {
+
+        private long nextValue;
+        private boolean ready;
+
+        /**
+         * Stores the next element with {@link #setNext(long)} and returns {@code true}, or returns {@code false}
+         * when there are no more elements.
+         */
+        abstract boolean computeNext();
+
+        final void setNext(long value) {
+            nextValue = value;
+        }
+
+        @Override
+        public final boolean hasNext() {
+            if (!ready) {
+                ready = computeNext();
+            }
+            return ready;
+        }
+
+        @Override
+        public final long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("no element");
+            }
+            ready = false;
+            return nextValue;
+        }
+    }
+
+    private static final class EmptyIterator extends AbstractIterator {
+
+        @Override
+        boolean computeNext() {
+            return false;
+        }
+    }
+
+    private static final class DistinctIterator extends AbstractIterator {
+
+        private final Cursor cursor;
+
+        DistinctIterator(PrimitiveIterator.OfLong iterator) {
+            this.cursor = new Cursor(iterator);
+        }
+
+        @Override
+        boolean computeNext() {
+            if (!cursor.hasHead) {
+                return false;
+            }
+            setNext(cursor.head);
+            cursor.advance();
+            return true;
+        }
+    }
+
+    /**
+     * Applies a binary operation to one chunk of values at a time, reading ahead at most a chunk per input.
+     */
+    private static final class ContainerIterator extends AbstractIterator {
+
+        private final SetOperation operation;
+        private final Cursor source;
+        private final Cursor target;
+        private final Container left = new Container();
+        private final Container right = new Container();
+        private final Container result = new Container();
+        private long high;
+        private int position;
+
+        ContainerIterator(SetOperation operation, PrimitiveIterator.OfLong sourceIterator, PrimitiveIterator.OfLong targetIterator) {
+            this.operation = operation;
+            this.source = new Cursor(sourceIterator);
+            this.target = new Cursor(targetIterator);
+        }
+
+        @Override
+        boolean computeNext() {
+            while (position == result.cardinality) {
+                if (!nextChunk()) {
+                    return false;
+                }
+            }
+            setNext(high << 16 | result.values[position++]);
+            return true;
+        }
+
+        private boolean nextChunk() {
+            switch (operation) {
+                case INTERSECTION:
+                    while (true) {
+                        if (!source.hasHead || !target.hasHead) {
+                            return false;
+                        }
+                        final long sourceHigh = source.head >> 16;
+                        final long targetHigh = target.head >> 16;
+                        if (sourceHigh < targetHigh) {
+                            source.advanceTo(targetHigh << 16);
+                        } else if (sourceHigh > targetHigh) {
+                            target.advanceTo(sourceHigh << 16);
+                        } else {
+                            high = sourceHigh;
+                            break;
+                        }
+                    }
+                    break;
+                case EXCLUDE:
+                    if (!source.hasHead) {
+                        return false;
+                    }
+                    high = source.head >> 16;
+                    target.advanceTo(high << 16);
+                    break;
+                default:
+                    if (!source.hasHead && !target.hasHead) {
+                        return false;
+                    }
+                    high = !target.hasHead || (source.hasHead && source.head < target.head) ? source.head >> 16 : target.head >> 16;
+            }
+            load(source, left);
+            load(target, right);
+            result.apply(operation, left, right);
+            position = 0;
+            return true;
+        }
+
+        private void load(Cursor cursor, Container container) {
+            container.clear();
+            while (cursor.hasHead && cursor.head >> 16 == high) {
+                container.add((int) cursor.head & 0xFFFF);
+                cursor.advance();
+            }
+            container.seal();
+        }
+    }
+}
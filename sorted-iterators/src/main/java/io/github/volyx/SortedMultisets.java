@@ -0,0 +1,287 @@
+package io.github.volyx;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+import com.google.common.primitives.Ints;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Bag versions of the {@link SortedIterators} operations. Inputs are sorted and may repeat elements; a run of
+ * equal elements counts as that many occurrences. Results are {@code (element, count)} entries in order, with
+ * the first element of each run and counts following {@link Multisets}: {@link #sum} adds, {@link #union} takes
+ * the maximum, {@link #intersection} the minimum and {@link #exclude} subtracts. Elements with no occurrences
+ * left are not returned. Counts saturate at {@link Integer#MAX_VALUE}.
+ * <p>
+ * Inputs are first read when the result is. With {@link InputValidation#TRUSTED} their order is not checked,
+ * repeated elements are still counted.
+ */
+public final class SortedMultisets {
+
+    private SortedMultisets() {
+    }
+
+    /**
+     * Collapses runs of equal elements of a single input into entries.
+     */
+    public static <T> Iterator<Multiset.Entry<T>> counts(Iterator<T> iterator, Comparator<T> comparator) {
+        return counts(iterator, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<Multiset.Entry<T>> counts(Iterator<T> iterator, Comparator<T> comparator,
+                                                         InputValidation validation) {
+        return sum(ImmutableList.of(checkNotNull(iterator, "iterator")), comparator, validation);
+    }
+
+    public static <T> Iterator<Multiset.Entry<T>> sum(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator) {
+        return sum(iterators, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<Multiset.Entry<T>> sum(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                                      InputValidation validation) {
+        return new UnionIterator<>(runs(iterators, comparator, validation), comparator, true);
+    }
+
+    public static <T> Iterator<Multiset.Entry<T>> union(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator) {
+        return union(iterators, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<Multiset.Entry<T>> union(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                                        InputValidation validation) {
+        return new UnionIterator<>(runs(iterators, comparator, validation), comparator, false);
+    }
+
+    public static <T> Iterator<Multiset.Entry<T>> intersection(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator) {
+        return intersection(iterators, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<Multiset.Entry<T>> intersection(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                                               InputValidation validation) {
+        return new IntersectionIterator<>(runs(iterators, comparator, validation), comparator);
+    }
+
+    public static <T> Iterator<Multiset.Entry<T>> exclude(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                                          Comparator<T> comparator) {
+        return exclude(sourceIterator, targetIterator, comparator, InputValidation.CHECKED);
+    }
+
+    public static <T> Iterator<Multiset.Entry<T>> exclude(Iterator<T> sourceIterator, Iterator<T> targetIterator,
+                                                          Comparator<T> comparator, InputValidation validation) {
+        checkNotNull(sourceIterator, "sourceIterator");
+        checkNotNull(targetIterator, "targetIterator");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+        return new ExcludeIterator<>(new RunCursor<>(sourceIterator, comparator, validation),
+                new RunCursor<>(targetIterator, comparator, validation), comparator);
+    }
+
+    private static <T> List<RunCursor<T>> runs(Iterable<? extends Iterator<T>> iterators, Comparator<T> comparator,
+                                               InputValidation validation) {
+        checkNotNull(iterators, "iterators");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+        final ImmutableList.Builder<RunCursor<T>> cursors = ImmutableList.builder();
+        for (Iterator<T> iterator : iterators) {
+            cursors.add(new RunCursor<>(checkNotNull(iterator, "iterator"), comparator, validation));
+        }
+        return cursors.build();
+    }
+
+    /**
+     * Holds the current run of equal elements of an input, reading one element ahead to find its end. Nothing is
+     * read before {@link #start()}.
+     */
+    private static final class RunCursor<T> {
+
+        private final Iterator<T> iterator;
+        private final Comparator<T> comparator;
+        private final boolean trusted;
+        private T pending;
+
+        T head;
+        long count;
+        boolean hasHead;
+
+        RunCursor(Iterator<T> iterator, Comparator<T> comparator, InputValidation validation) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+            this.trusted = validation == InputValidation.TRUSTED;
+        }
+
+        void start() {
+            pending = iterator.hasNext() ? iterator.next() : null;
+            advance();
+        }
+
+        void advance() {
+            if (pending == null) {
+                head = null;
+                hasHead = false;
+                return;
+            }
+            head = pending;
+            count = 1;
+            hasHead = true;
+            pending = null;
+            while (iterator.hasNext()) {
+                final T value = iterator.next();
+                final int compare = comparator.compare(value, head);
+                if (compare > 0) {
+                    pending = value;
+                    return;
+                }
+                if (compare < 0 && !trusted) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Starts its cursors on the first call, so that no input is read before the result is.
+     */
+    private abstract static class RunIterator<T> extends AbstractIterator<Multiset.Entry<T>> {
+
+        private final List<RunCursor<T>> inputs;
+        private boolean started;
+
+        RunIterator(List<RunCursor<T>> inputs) {
+            this.inputs = inputs;
+        }
+
+        @Override
+        protected final Multiset.Entry<T> computeNext() {
+            if (!started) {
+                started = true;
+                for (RunCursor<T> cursor : inputs) {
+                    cursor.start();
+                }
+            }
+            return computeEntry();
+        }
+
+        abstract Multiset.Entry<T> computeEntry();
+    }
+
+    private static final class UnionIterator<T> extends RunIterator<T> {
+
+        private final List<RunCursor<T>> cursors;
+        private final Comparator<T> comparator;
+        private final boolean sum;
+
+        UnionIterator(List<RunCursor<T>> cursors, Comparator<T> comparator, boolean sum) {
+            super(cursors);
+            this.cursors = cursors;
+            this.comparator = comparator;
+            this.sum = sum;
+        }
+
+        @Override
+        Multiset.Entry<T> computeEntry() {
+            T min = null;
+            for (RunCursor<T> cursor : cursors) {
+                if (cursor.hasHead && (min == null || comparator.compare(cursor.head, min) < 0)) {
+                    min = cursor.head;
+                }
+            }
+            if (min == null) {
+                return endOfData();
+            }
+            long count = 0;
+            for (RunCursor<T> cursor : cursors) {
+                if (cursor.hasHead && comparator.compare(cursor.head, min) == 0) {
+                    count = sum ? count + cursor.count : Math.max(count, cursor.count);
+                    cursor.advance();
+                }
+            }
+            return Multisets.immutableEntry(min, Ints.saturatedCast(count));
+        }
+    }
+
+    private static final class IntersectionIterator<T> extends RunIterator<T> {
+
+        private final List<RunCursor<T>> cursors;
+        private final Comparator<T> comparator;
+
+        IntersectionIterator(List<RunCursor<T>> cursors, Comparator<T> comparator) {
+            super(cursors);
+            this.cursors = cursors;
+            this.comparator = comparator;
+        }
+
+        @Override
+        Multiset.Entry<T> computeEntry() {
+            if (cursors.isEmpty()) {
+                return endOfData();
+            }
+            while (true) {
+                T max = null;
+                for (RunCursor<T> cursor : cursors) {
+                    if (!cursor.hasHead) {
+                        return endOfData();
+                    }
+                    if (max == null || comparator.compare(cursor.head, max) > 0) {
+                        max = cursor.head;
+                    }
+                }
+                boolean equal = true;
+                for (RunCursor<T> cursor : cursors) {
+                    while (cursor.hasHead && comparator.compare(cursor.head, max) < 0) {
+                        cursor.advance();
+                    }
+                    equal &= cursor.hasHead && comparator.compare(cursor.head, max) == 0;
+                }
+                if (equal) {
+                    final T head = cursors.get(0).head;
+                    long count = Long.MAX_VALUE;
+                    for (RunCursor<T> cursor : cursors) {
+                        count = Math.min(count, cursor.count);
+                        cursor.advance();
+                    }
+                    return Multisets.immutableEntry(head, Ints.saturatedCast(count));
+                }
+            }
+        }
+    }
+
+    private static final class ExcludeIterator<T> extends RunIterator<T> {
+
+        private final RunCursor<T> source;
+        private final RunCursor<T> target;
+        private final Comparator<T> comparator;
+
+        ExcludeIterator(RunCursor<T> source, RunCursor<T> target, Comparator<T> comparator) {
+            super(ImmutableList.of(source, target));
+            this.source = source;
+            this.target = target;
+            this.comparator = comparator;
+        }
+
+        @Override
+        Multiset.Entry<T> computeEntry() {
+            while (source.hasHead) {
+                while (target.hasHead && comparator.compare(target.head, source.head) < 0) {
+                    target.advance();
+                }
+                final T head = source.head;
+                long count = source.count;
+                if (target.hasHead && comparator.compare(target.head, head) == 0) {
+                    count -= target.count;
+                    target.advance();
+                }
+                source.advance();
+                if (count > 0) {
+                    return Multisets.immutableEntry(head, Ints.saturatedCast(count));
+                }
+            }
+            return endOfData();
+        }
+    }
+}
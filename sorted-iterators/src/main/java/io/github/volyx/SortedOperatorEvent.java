@@ -0,0 +1,65 @@
+package io.github.volyx;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder view of {@link OperatorStats}, committed when the operation completes.
+ */
+@Name("io.github.volyx.SortedOperator")
+@Label("Sorted Operator")
+@Category("Sorted Iterators")
+@Description("Completed set operation over sorted inputs")
+@StackTrace(false)
+final class SortedOperatorEvent extends Event {
+
+    static final SortedOperatorListener LISTENER = SortedOperatorEvent::commit;
+
+    @Label("Operator")
+    String operator;
+
+    @Label("Inputs")
+    int inputs;
+
+    @Label("Elements Pulled")
+    long pulled;
+
+    @Label("Elements Emitted")
+    long emitted;
+
+    @Label("Comparisons")
+    long comparisons;
+
+    @Label("Duplicates Dropped")
+    long duplicatesDropped;
+
+    @Label("Blocked")
+    @Description("Time spent waiting for the inputs")
+    @Timespan
+    long blocked;
+
+    @Label("Elapsed")
+    @Timespan
+    long elapsed;
+
+    private static void commit(OperatorStats stats) {
+        final SortedOperatorEvent event = new SortedOperatorEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.operator = stats.operator();
+        event.inputs = stats.inputs();
+        event.pulled = stats.pulled();
+        event.emitted = stats.emitted();
+        event.comparisons = stats.comparisons();
+        event.duplicatesDropped = stats.duplicatesDropped();
+        event.blocked = stats.blockedNanos();
+        event.elapsed = stats.elapsedNanos();
+        event.commit();
+    }
+}
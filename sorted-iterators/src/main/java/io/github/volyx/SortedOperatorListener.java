@@ -0,0 +1,26 @@
+package io.github.volyx;
+
+/**
+ * Receives the {@link OperatorStats} of an instrumented operation, see the {@link SortedIterators} overloads that
+ * take a listener. An iterator reports once it is exhausted or closed, {@code differenceConsumer} when it returns.
+ * <p>
+ * Instrumentation counts every element and comparison, so it is opt-in per operation: passing {@link #noop()}
+ * returns the plain operator.
+ */
+@FunctionalInterface
+public interface SortedOperatorListener {
+
+    void onComplete(OperatorStats stats);
+
+    static SortedOperatorListener noop() {
+        return OperatorProbe.NOOP;
+    }
+
+    /**
+     * Commits a {@code io.github.volyx.SortedOperator} Flight Recorder event per operation, when that event is
+     * enabled in a recording.
+     */
+    static SortedOperatorListener jfr() {
+        return SortedOperatorEvent.LISTENER;
+    }
+}
@@ -0,0 +1,550 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link Flow.Publisher} counterparts of {@link SortedIterators} operations for inputs that arrive asynchronously.
+ * <p>
+ * Every input is requested {@code prefetch} elements ahead and topped up once three quarters of them are consumed,
+ * so no more than {@code prefetch} elements per input are buffered and nothing is requested from the inputs while
+ * the downstream subscriber has no outstanding demand. No thread ever blocks: whichever thread delivers a signal
+ * runs the merge until it runs out of demand or of buffered input. Publishers are cold, each subscriber subscribes
+ * to the inputs anew. Unsorted input fails the subscriber with {@link IllegalStateException}.
+ */
+public final class SortedPublishers {
+
+    public static final int DEFAULT_PREFETCH = 128;
+
+    private SortedPublishers() {
+    }
+
+    public static <T> Flow.Publisher<T> union(List<? extends Flow.Publisher<T>> publishers, Comparator<T> comparator) {
+        return union(publishers, comparator, DEFAULT_PREFETCH);
+    }
+
+    public static <T> Flow.Publisher<T> union(List<? extends Flow.Publisher<T>> publishers, Comparator<T> comparator,
+                                              int prefetch) {
+        return new SetPublisher<>(publishers, comparator, prefetch, UnionCoordinator::new);
+    }
+
+    public static <T> Flow.Publisher<T> intersection(List<? extends Flow.Publisher<T>> publishers, Comparator<T> comparator) {
+        return intersection(publishers, comparator, DEFAULT_PREFETCH);
+    }
+
+    public static <T> Flow.Publisher<T> intersection(List<? extends Flow.Publisher<T>> publishers, Comparator<T> comparator,
+                                                     int prefetch) {
+        return new SetPublisher<>(publishers, comparator, prefetch, IntersectionCoordinator::new);
+    }
+
+    public static <T> Flow.Publisher<T> exclude(Flow.Publisher<T> source, Flow.Publisher<T> target, Comparator<T> comparator) {
+        return exclude(source, target, comparator, DEFAULT_PREFETCH);
+    }
+
+    public static <T> Flow.Publisher<T> exclude(Flow.Publisher<T> source, Flow.Publisher<T> target, Comparator<T> comparator,
+                                                int prefetch) {
+        return new SetPublisher<>(List.of(checkNotNull(source, "source"), checkNotNull(target, "target")),
+                comparator, prefetch, ExcludeCoordinator::new);
+    }
+
+    /**
+     * Subscribes to both inputs and calls {@code addConsumer} with the elements only in {@code target} and
+     * {@code removeConsumer} with the elements only in {@code source}. The returned future completes once both
+     * inputs are complete, or exceptionally with the first failure; cancelling it cancels the inputs.
+     */
+    public static <T> CompletableFuture<Void> differenceConsumer(Flow.Publisher<T> source, Flow.Publisher<T> target,
+                                                                 Comparator<T> comparator,
+                                                                 Consumer<T> addConsumer, Consumer<T> removeConsumer) {
+        return differenceConsumer(source, target, comparator, addConsumer, removeConsumer, DEFAULT_PREFETCH);
+    }
+
+    public static <T> CompletableFuture<Void> differenceConsumer(Flow.Publisher<T> source, Flow.Publisher<T> target,
+                                                                 Comparator<T> comparator,
+                                                                 Consumer<T> addConsumer, Consumer<T> removeConsumer,
+                                                                 int prefetch) {
+        checkNotNull(addConsumer, "addConsumer");
+        checkNotNull(removeConsumer, "removeConsumer");
+        final SetPublisher<T> publisher = new SetPublisher<>(
+                List.of(checkNotNull(source, "source"), checkNotNull(target, "target")), comparator, prefetch,
+                (downstream, inputs, order) -> new DifferenceCoordinator<>(downstream, inputs, order, addConsumer, removeConsumer));
+
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                future.whenComplete((result, error) -> subscription.cancel());
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    private interface CoordinatorFactory<T> {
+        Coordinator<T> create(Flow.Subscriber<? super T> downstream, Inner<T>[] inputs, Comparator<T> comparator);
+    }
+
+    private static final class SetPublisher<T> implements Flow.Publisher<T> {
+
+        private final List<Flow.Publisher<T>> publishers;
+        private final Comparator<T> comparator;
+        private final int prefetch;
+        private final CoordinatorFactory<T> factory;
+
+        SetPublisher(List<? extends Flow.Publisher<T>> publishers, Comparator<T> comparator, int prefetch,
+                     CoordinatorFactory<T> factory) {
+            checkNotNull(publishers, "publishers");
+            checkNotNull(comparator, "comparator");
+            checkArgument(prefetch > 0, "prefetch must be positive");
+            final List<Flow.Publisher<T>> list = new ArrayList<>();
+            for (Flow.Publisher<T> publisher : publishers) {
+                list.add(checkNotNull(publisher, "publisher"));
+            }
+            this.publishers = ImmutableList.copyOf(list);
+            this.comparator = comparator;
+            this.prefetch = prefetch;
+            this.factory = factory;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            checkNotNull(subscriber, "subscriber");
+            @SuppressWarnings("unchecked") final Inner<T>[] inputs = (Inner<T>[]) new Inner<?>[publishers.size()];
+            for (int i = 0; i < inputs.length; i++) {
+                inputs[i] = new Inner<>(comparator, prefetch);
+            }
+            final Coordinator<T> coordinator = factory.create(subscriber, inputs, comparator);
+            subscriber.onSubscribe(coordinator);
+            for (int i = 0; i < inputs.length && !coordinator.cancelled; i++) {
+                inputs[i].parent = coordinator;
+                publishers.get(i).subscribe(inputs[i]);
+            }
+            coordinator.drain();
+        }
+    }
+
+    /**
+     * Buffers up to {@code prefetch} elements of one input, dropping duplicates and checking the order as they
+     * are consumed.
+     */
+    private static final class Inner<T> implements Flow.Subscriber<T> {
+
+        private final Comparator<T> comparator;
+        private final int prefetch;
+        private final int limit;
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean done;
+        private Coordinator<T> parent;
+        private T last;
+        private int consumed;
+
+        Inner(Comparator<T> comparator, int prefetch) {
+            this.comparator = comparator;
+            this.prefetch = prefetch;
+            this.limit = Math.max(1, prefetch - (prefetch >> 2));
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            if (parent.cancelled) {
+                subscription.cancel();
+            } else {
+                subscription.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            queue.offer(checkNotNull(item, "item"));
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            parent.error.compareAndSet(null, throwable);
+            done = true;
+            parent.drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        /**
+         * Returns the next distinct element, or {@code null} if none has arrived yet.
+         */
+        @Nullable T head() {
+            T head;
+            while ((head = queue.peek()) != null && last != null) {
+                final int compare = comparator.compare(head, last);
+                if (compare > 0) {
+                    break;
+                }
+                if (compare < 0) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+                consume();
+            }
+            return head;
+        }
+
+        /**
+         * Returns {@code true} once the input is complete and every element is consumed.
+         */
+        boolean finished() {
+            final boolean terminated = done;
+            return terminated && head() == null;
+        }
+
+        T pop() {
+            last = consume();
+            return last;
+        }
+
+        private T consume() {
+            final T value = queue.poll();
+            if (++consumed == limit) {
+                consumed = 0;
+                subscription.request(limit);
+            }
+            return value;
+        }
+
+        void cancel() {
+            final Flow.Subscription local = subscription;
+            if (local != null) {
+                local.cancel();
+            }
+            queue.clear();
+        }
+    }
+
+    /**
+     * Serializes the merge: signals from any thread call {@link #drain()}, and only one of them at a time runs
+     * {@link #next()} and emits.
+     */
+    private abstract static class Coordinator<T> implements Flow.Subscription {
+
+        final Flow.Subscriber<? super T> downstream;
+        final Inner<T>[] inputs;
+        final Comparator<T> comparator;
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private long emitted;
+        volatile boolean cancelled;
+        private boolean terminated;
+
+        Coordinator(Flow.Subscriber<? super T> downstream, Inner<T>[] inputs, Comparator<T> comparator) {
+            this.downstream = downstream;
+            this.inputs = inputs;
+            this.comparator = comparator;
+        }
+
+        /**
+         * Consumes buffered input and returns the next element to emit, or {@code null} when more input is needed
+         * or the result is complete.
+         */
+        abstract @Nullable T next();
+
+        abstract boolean finished();
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error.compareAndSet(null, new IllegalArgumentException("non-positive request " + n));
+            } else {
+                requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            if (wip.getAndIncrement() == 0) {
+                cancelInputs();
+            }
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                drainLoop();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainLoop() {
+            if (terminated) {
+                return;
+            }
+            try {
+                while (true) {
+                    if (cancelled) {
+                        cancelInputs();
+                        return;
+                    }
+                    if (error.get() != null) {
+                        terminate(error.get());
+                        return;
+                    }
+                    final T value = emitted == requested.get() ? null : next();
+                    if (value == null) {
+                        if (finished()) {
+                            terminate(null);
+                        }
+                        return;
+                    }
+                    emitted++;
+                    downstream.onNext(value);
+                }
+            } catch (RuntimeException e) {
+                terminate(e);
+            }
+        }
+
+        private void terminate(@Nullable Throwable throwable) {
+            terminated = true;
+            // inputs subscribing from now on cancel right away instead of requesting their prefetch
+            cancelled = true;
+            cancelInputs();
+            if (throwable == null) {
+                downstream.onComplete();
+            } else {
+                downstream.onError(throwable);
+            }
+        }
+
+        private void cancelInputs() {
+            for (Inner<T> input : inputs) {
+                input.cancel();
+            }
+        }
+    }
+
+    private static final class UnionCoordinator<T> extends Coordinator<T> {
+
+        UnionCoordinator(Flow.Subscriber<? super T> downstream, Inner<T>[] inputs, Comparator<T> comparator) {
+            super(downstream, inputs, comparator);
+        }
+
+        @Override
+        @Nullable T next() {
+            T min = null;
+            for (Inner<T> input : inputs) {
+                if (input.finished()) {
+                    continue;
+                }
+                final T head = input.head();
+                if (head == null) {
+                    return null;
+                }
+                if (min == null || comparator.compare(head, min) < 0) {
+                    min = head;
+                }
+            }
+            if (min != null) {
+                for (Inner<T> input : inputs) {
+                    final T head = input.head();
+                    if (head != null && comparator.compare(head, min) == 0) {
+                        input.pop();
+                    }
+                }
+            }
+            return min;
+        }
+
+        @Override
+        boolean finished() {
+            for (Inner<T> input : inputs) {
+                if (!input.finished()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class IntersectionCoordinator<T> extends Coordinator<T> {
+
+        IntersectionCoordinator(Flow.Subscriber<? super T> downstream, Inner<T>[] inputs, Comparator<T> comparator) {
+            super(downstream, inputs, comparator);
+        }
+
+        @Override
+        @Nullable T next() {
+            while (true) {
+                T max = null;
+                boolean equal = true;
+                for (Inner<T> input : inputs) {
+                    final T head = input.head();
+                    if (head == null) {
+                        return null;
+                    }
+                    if (max != null) {
+                        final int compare = comparator.compare(head, max);
+                        equal &= compare == 0;
+                        if (compare > 0) {
+                            max = head;
+                        }
+                    } else {
+                        max = head;
+                    }
+                }
+                if (max == null) {
+                    return null;
+                }
+                for (Inner<T> input : inputs) {
+                    if (equal || comparator.compare(input.head(), max) < 0) {
+                        input.pop();
+                    }
+                }
+                if (equal) {
+                    return max;
+                }
+            }
+        }
+
+        @Override
+        boolean finished() {
+            if (inputs.length == 0) {
+                return true;
+            }
+            for (Inner<T> input : inputs) {
+                if (input.finished()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class ExcludeCoordinator<T> extends Coordinator<T> {
+
+        ExcludeCoordinator(Flow.Subscriber<? super T> downstream, Inner<T>[] inputs, Comparator<T> comparator) {
+            super(downstream, inputs, comparator);
+        }
+
+        @Override
+        @Nullable T next() {
+            final Inner<T> source = inputs[0];
+            final Inner<T> target = inputs[1];
+            while (true) {
+                final T head = source.head();
+                if (head == null) {
+                    return null;
+                }
+                if (target.finished()) {
+                    return source.pop();
+                }
+                final T targetHead = target.head();
+                if (targetHead == null) {
+                    return null;
+                }
+                final int compare = comparator.compare(head, targetHead);
+                if (compare < 0) {
+                    return source.pop();
+                }
+                target.pop();
+                if (compare == 0) {
+                    source.pop();
+                }
+            }
+        }
+
+        @Override
+        boolean finished() {
+            return inputs[0].finished();
+        }
+    }
+
+    /**
+     * Passes every element to its consumer as it is found and emits it only to drive the demand accounting.
+     */
+    private static final class DifferenceCoordinator<T> extends Coordinator<T> {
+
+        private final Consumer<T> addConsumer;
+        private final Consumer<T> removeConsumer;
+
+        DifferenceCoordinator(Flow.Subscriber<? super T> downstream, Inner<T>[] inputs, Comparator<T> comparator,
+                              Consumer<T> addConsumer, Consumer<T> removeConsumer) {
+            super(downstream, inputs, comparator);
+            this.addConsumer = addConsumer;
+            this.removeConsumer = removeConsumer;
+        }
+
+        @Override
+        @Nullable T next() {
+            final Inner<T> source = inputs[0];
+            final Inner<T> target = inputs[1];
+            while (true) {
+                final boolean sourceFinished = source.finished();
+                final boolean targetFinished = target.finished();
+                if (sourceFinished && targetFinished) {
+                    return null;
+                }
+                final T head = sourceFinished ? null : source.head();
+                final T targetHead = targetFinished ? null : target.head();
+                if ((!sourceFinished && head == null) || (!targetFinished && targetHead == null)) {
+                    return null;
+                }
+                final int compare = head == null ? 1 : targetHead == null ? -1 : comparator.compare(head, targetHead);
+                if (compare < 0) {
+                    removeConsumer.accept(source.pop());
+                    return head;
+                }
+                if (compare > 0) {
+                    addConsumer.accept(target.pop());
+                    return targetHead;
+                }
+                source.pop();
+                target.pop();
+            }
+        }
+
+        @Override
+        boolean finished() {
+            return inputs[0].finished() && inputs[1].finished();
+        }
+    }
+}
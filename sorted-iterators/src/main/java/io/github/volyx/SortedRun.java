@@ -0,0 +1,506 @@
+package io.github.volyx;
+
+import com.google.common.io.CountingOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Sorted distinct keys stored in a file and read through memory mapped buffers.
+ * <p>
+ * The file is a sequence of blocks of {@code blockSize} encoded keys, followed by a sparse index holding the
+ * offset and the first key of every block and a fixed size footer. The index is loaded on {@link #open},
+ * iterators decode keys straight from the mapped pages and seek with a binary search over the index.
+ * A run and its ranges are immutable and can be shared between threads, each thread reading through its own
+ * iterator; a single iterator is not thread safe. The mapping stays valid as long as the run, one of its ranges
+ * or one of their iterators is reachable, and is released by the garbage collector afterwards.
+ */
+public final class SortedRun<T> implements SortedSource<T> {
+
+    public static final int DEFAULT_BLOCK_SIZE = 128;
+
+    private static final int MAGIC = 0x52554E53;
+    private static final int VERSION = 1;
+    private static final int FOOTER_SIZE = 32;
+
+    private final Comparator<? super T> comparator;
+    private final KeyCodec<T> codec;
+    private final Mapping mapping;
+    private final int[] blockSegment;
+    private final int[] blockPosition;
+    private final Object[] firstKeys;
+    private final long count;
+    private final int blockSize;
+    private final @Nullable T from;
+    private final @Nullable T to;
+
+    private SortedRun(Comparator<? super T> comparator, KeyCodec<T> codec, Mapping mapping, int[] blockSegment,
+                      int[] blockPosition, Object[] firstKeys, long count, int blockSize, @Nullable T from, @Nullable T to) {
+        this.comparator = comparator;
+        this.codec = codec;
+        this.mapping = mapping;
+        this.blockSegment = blockSegment;
+        this.blockPosition = blockPosition;
+        this.firstKeys = firstKeys;
+        this.count = count;
+        this.blockSize = blockSize;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Writes the elements of {@code iterator} to {@code path} and returns the number of keys written.
+     * Duplicates are skipped, an element less than its predecessor fails with {@link IllegalStateException}.
+     */
+    public static <T> long write(Path path, Iterator<T> iterator, Comparator<? super T> comparator,
+                                 KeyCodec<T> codec) throws IOException {
+        return write(path, iterator, comparator, codec, DEFAULT_BLOCK_SIZE);
+    }
+
+    public static <T> long write(Path path, Iterator<T> iterator, Comparator<? super T> comparator,
+                                 KeyCodec<T> codec, int blockSize) throws IOException {
+        checkNotNull(path, "path");
+        checkNotNull(iterator, "iterator");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(codec, "codec");
+        checkArgument(blockSize > 0, "blockSize must be positive");
+
+        try (Writer<T> writer = new Writer<>(path, comparator, codec, blockSize)) {
+            while (iterator.hasNext()) {
+                writer.add(iterator.next());
+            }
+            return writer.finish();
+        }
+    }
+
+    public static <T> SortedRun<T> open(Path path, Comparator<? super T> comparator, KeyCodec<T> codec) throws IOException {
+        return open(path, comparator, codec, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Maps the blocks into buffers of at most {@code maxSegmentSize} bytes each, a single mapping is limited
+     * to 2 GiB.
+     */
+    static <T> SortedRun<T> open(Path path, Comparator<? super T> comparator, KeyCodec<T> codec,
+                                 long maxSegmentSize) throws IOException {
+        checkNotNull(path, "path");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(codec, "codec");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < FOOTER_SIZE) {
+                throw new IOException("not a sorted run: " + path);
+            }
+            // the footer and the index are read into the heap, so that the blocks are the only mapping to release
+            final ByteBuffer footer = read(channel, size - FOOTER_SIZE, FOOTER_SIZE);
+            final long indexOffset = footer.getLong();
+            final long count = footer.getLong();
+            final int blockCount = footer.getInt();
+            final int blockSize = footer.getInt();
+            final int version = footer.getInt();
+            if (footer.getInt() != MAGIC || version != VERSION || indexOffset < 0 || indexOffset > size - FOOTER_SIZE) {
+                throw new IOException("not a sorted run: " + path);
+            }
+            if (size - FOOTER_SIZE - indexOffset > Integer.MAX_VALUE) {
+                throw new IOException("index is too large: " + path);
+            }
+
+            final ByteBuffer index = read(channel, indexOffset, (int) (size - FOOTER_SIZE - indexOffset));
+            final long[] offsets = new long[blockCount + 1];
+            final Object[] firstKeys = new Object[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                offsets[i] = index.getLong();
+                firstKeys[i] = codec.read(index);
+            }
+            offsets[blockCount] = indexOffset;
+
+            final List<ByteBuffer> segments = new ArrayList<>();
+            final int[] blockSegment = new int[blockCount];
+            final int[] blockPosition = new int[blockCount];
+            int first = 0;
+            while (first < blockCount) {
+                int last = first + 1;
+                while (last < blockCount && offsets[last + 1] - offsets[first] <= maxSegmentSize) {
+                    last++;
+                }
+                final long length = offsets[last] - offsets[first];
+                if (length > Integer.MAX_VALUE) {
+                    throw new IOException("block is too large: " + path);
+                }
+                for (int i = first; i < last; i++) {
+                    blockSegment[i] = segments.size();
+                    blockPosition[i] = (int) (offsets[i] - offsets[first]);
+                }
+                segments.add(channel.map(FileChannel.MapMode.READ_ONLY, offsets[first], length));
+                first = last;
+            }
+
+            return new SortedRun<>(comparator, codec, new Mapping(segments.toArray(new ByteBuffer[0])), blockSegment,
+                    blockPosition, firstKeys, count, blockSize, null, null);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Returns the number of keys in the whole file.
+     */
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public SkippableSortedIterator<T> iterator() {
+        return new RunIterator();
+    }
+
+    /**
+     * Exact for the whole run, a range is estimated in whole blocks.
+     */
+    @Override
+    public long estimateSize() {
+        if (from == null && to == null) {
+            return count;
+        }
+        final int low = from == null ? 0 : Math.max(0, search(from, true) - 1);
+        final int high = to == null ? firstKeys.length : search(to, false);
+        return Math.min(count, (long) Math.max(0, high - low) * blockSize);
+    }
+
+    @Override
+    public SortedRun<T> range(@Nullable T fromElement, @Nullable T toElement) {
+        final T low = fromElement == null || (from != null && comparator.compare(from, fromElement) > 0) ? from : fromElement;
+        final T high = toElement == null || (to != null && comparator.compare(to, toElement) < 0) ? to : toElement;
+        return new SortedRun<>(comparator, codec, mapping, blockSegment, blockPosition, firstKeys, count, blockSize, low, high);
+    }
+
+    /**
+     * Unmaps the file at once, together with every range of this run, instead of waiting for the garbage collector.
+     * Only for a run that its caller opened and never handed out, once every iterator over it has been dropped:
+     * a read of an unmapped buffer crashes the JVM. Iterators created afterwards fail with
+     * {@link IllegalStateException}.
+     */
+    void unmap() {
+        mapping.close();
+    }
+
+    /**
+     * Returns the first key of the middle block among the blocks that start strictly inside this range.
+     */
+    @Override
+    public @Nullable T pivot() {
+        final int low = lowestSplitBlock();
+        final int high = to == null ? firstKeys.length : search(to, false);
+        return low < high ? firstKey((low + high) >>> 1) : null;
+    }
+
+    @Override
+    public List<T> sample(int partitions) {
+        final List<T> splitters = new ArrayList<>();
+        final int low = lowestSplitBlock();
+        final int high = to == null ? firstKeys.length : search(to, false);
+        int previous = low - 1;
+        for (int i = 1; i < partitions && low < high; i++) {
+            final int block = low + (int) ((long) (high - low) * i / partitions);
+            if (block > previous) {
+                splitters.add(firstKey(block));
+                previous = block;
+            }
+        }
+        return splitters;
+    }
+
+    /**
+     * The first key of the returned block is greater than the first element of this range.
+     */
+    private int lowestSplitBlock() {
+        return from == null ? 1 : search(from, true) + 1;
+    }
+
+    /**
+     * Returns the first block whose first key is greater than {@code key}, or not less than {@code key}
+     * when {@code strict} is {@code false}.
+     */
+    private int search(T key, boolean strict) {
+        int low = 0;
+        int high = firstKeys.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int compare = comparator.compare(firstKey(middle), key);
+            if (compare < 0 || (strict && compare == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T firstKey(int block) {
+        return (T) firstKeys[block];
+    }
+
+    private int blockLength(int block) {
+        return block == firstKeys.length - 1 ? (int) (count - (long) block * blockSize) : blockSize;
+    }
+
+    /**
+     * Writes a run one key at a time, for callers that cannot hand over an iterator. The file is complete
+     * once {@link #finish()} returns.
+     */
+    static final class Writer<T> implements Closeable {
+
+        private final Comparator<? super T> comparator;
+        private final KeyCodec<T> codec;
+        private final int blockSize;
+        private final CountingOutputStream counting;
+        private final DataOutputStream output;
+        private final List<T> firstKeys = new ArrayList<>();
+        private long[] offsets = new long[16];
+        private T previous;
+        private long count;
+
+        Writer(Path path, Comparator<? super T> comparator, KeyCodec<T> codec, int blockSize) throws IOException {
+            this.comparator = comparator;
+            this.codec = codec;
+            this.blockSize = blockSize;
+            this.counting = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+            this.output = new DataOutputStream(counting);
+        }
+
+        /**
+         * Returns {@code false} for a duplicate of the previous key, which is skipped, and fails with
+         * {@link IllegalStateException} for a key less than the previous one.
+         */
+        boolean add(T value) throws IOException {
+            checkNotNull(value, "element");
+            if (count > 0) {
+                final int compare = comparator.compare(value, previous);
+                if (compare == 0) {
+                    return false;
+                }
+                if (compare < 0) {
+                    throw new IllegalStateException("sorted predicate failed");
+                }
+            }
+            if (count % blockSize == 0) {
+                if (firstKeys.size() == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[firstKeys.size()] = counting.getCount();
+                firstKeys.add(value);
+            }
+            codec.write(value, output);
+            previous = value;
+            count++;
+            return true;
+        }
+
+        /**
+         * Writes the index and the footer and returns the number of keys written.
+         */
+        long finish() throws IOException {
+            final long indexOffset = counting.getCount();
+            for (int i = 0; i < firstKeys.size(); i++) {
+                output.writeLong(offsets[i]);
+                codec.write(firstKeys.get(i), output);
+            }
+            output.writeLong(indexOffset);
+            output.writeLong(count);
+            output.writeInt(firstKeys.size());
+            output.writeInt(blockSize);
+            output.writeInt(VERSION);
+            output.writeInt(MAGIC);
+            output.flush();
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+    }
+
+    /**
+     * The mapped blocks of a file, shared by a run and its ranges.
+     */
+    private static final class Mapping {
+
+        private static final @Nullable MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+        final ByteBuffer[] segments;
+        private volatile boolean closed;
+
+        Mapping(ByteBuffer[] segments) {
+            this.segments = segments;
+        }
+
+        void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("run is closed");
+            }
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (ByteBuffer segment : segments) {
+                unmap(segment);
+            }
+        }
+
+        /**
+         * Releases a mapping right away where {@code sun.misc.Unsafe.invokeCleaner} is available, otherwise
+         * leaves it to the garbage collector.
+         */
+        private static void unmap(ByteBuffer buffer) {
+            if (INVOKE_CLEANER == null || !buffer.isDirect()) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invokeExact(buffer);
+            } catch (Throwable e) {
+                // released when the buffer is collected
+            }
+        }
+
+        private static @Nullable MethodHandle invokeCleaner() {
+            try {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                return MethodHandles.lookup()
+                        .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                        .bindTo(field.get(null));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    private final class RunIterator implements SkippableSortedIterator<T> {
+
+        private int block = -1;
+        private int segment = -1;
+        private int remaining;
+        private ByteBuffer buffer;
+        private T head;
+        private boolean hasHead;
+
+        RunIterator() {
+            mapping.checkOpen();
+            if (firstKeys.length > 0) {
+                seek(from == null ? 0 : Math.max(0, search(from, true) - 1));
+                fetch();
+                if (from != null) {
+                    advanceTo(from);
+                }
+            }
+        }
+
+        private void seek(int target) {
+            mapping.checkOpen();
+            block = target;
+            if (blockSegment[target] != segment) {
+                segment = blockSegment[target];
+                buffer = mapping.segments[segment].duplicate();
+            }
+            buffer.position(blockPosition[target]);
+            remaining = blockLength(target);
+        }
+
+        private void fetch() {
+            if (remaining == 0) {
+                if (block + 1 == firstKeys.length) {
+                    hasHead = false;
+                    head = null;
+                    return;
+                }
+                seek(block + 1);
+            }
+            remaining--;
+            head = codec.read(buffer);
+            hasHead = to == null || comparator.compare(head, to) < 0;
+            if (!hasHead) {
+                head = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasHead;
+        }
+
+        @Override
+        public T peek() {
+            if (!hasHead) throw new NoSuchElementException("no element");
+            return head;
+        }
+
+        @Override
+        public T next() {
+            if (!hasHead) throw new NoSuchElementException("no element");
+            final T local = head;
+            fetch();
+            return local;
+        }
+
+        @Override
+        public void advanceTo(T target) {
+            if (!hasHead || comparator.compare(head, target) >= 0) {
+                return;
+            }
+            final int candidate = search(target, true) - 1;
+            if (candidate > block) {
+                seek(candidate);
+                fetch();
+            }
+            while (hasHead && comparator.compare(head, target) < 0) {
+                fetch();
+            }
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return comparator;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable set expression over named input slots, for example
+ * {@code slot("a").union(slot("b")).intersect(slot("c")).exclude(slot("d"))}.
+ * <p>
+ * An expression is {@link #compile compiled} once and then {@link Compiled#evaluate evaluated} any number of
+ * times against fresh inputs bound to its slots. Compilation flattens nested unions, intersections and
+ * differences, drops operands and wrappers that do not change the result, fuses chained exclusions into one
+ * and lays out equal subexpressions as one node of the compiled plan.
+ */
+public final class SortedSetExpression {
+
+    private static final SortedSetExpression EMPTY = new SortedSetExpression(null, null, ImmutableList.of());
+
+    private final @Nullable SetOperation operation;
+    private final @Nullable String name;
+    private final List<SortedSetExpression> operands;
+    private final int hashCode;
+
+    private SortedSetExpression(@Nullable SetOperation operation, @Nullable String name, List<SortedSetExpression> operands) {
+        this.operation = operation;
+        this.name = name;
+        this.operands = operands;
+        this.hashCode = Objects.hash(operation, name, operands);
+    }
+
+    public static SortedSetExpression slot(String name) {
+        checkNotNull(name, "name");
+        return new SortedSetExpression(null, name, ImmutableList.of());
+    }
+
+    public static SortedSetExpression empty() {
+        return EMPTY;
+    }
+
+    public SortedSetExpression union(SortedSetExpression... others) {
+        return combine(SetOperation.UNION, others);
+    }
+
+    public SortedSetExpression intersect(SortedSetExpression... others) {
+        return combine(SetOperation.INTERSECTION, others);
+    }
+
+    public SortedSetExpression exclude(SortedSetExpression other) {
+        return combine(SetOperation.EXCLUDE, other);
+    }
+
+    /**
+     * Symmetric difference, like {@link SortedIterators#difference}.
+     */
+    public SortedSetExpression difference(SortedSetExpression other) {
+        return combine(SetOperation.DIFFERENCE, other);
+    }
+
+    public <T> Compiled<T> compile(Comparator<T> comparator) {
+        return compile(comparator, InputValidation.CHECKED);
+    }
+
+    public <T> Compiled<T> compile(Comparator<T> comparator, InputValidation validation) {
+        checkNotNull(comparator, "comparator");
+        checkNotNull(validation, "validation");
+        return new Compiled<>(normalize(this), comparator, validation);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final SortedSetExpression that = (SortedSetExpression) o;
+        return hashCode == that.hashCode && operation == that.operation && Objects.equals(name, that.name)
+                && operands.equals(that.operands);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        if (name != null) {
+            return name;
+        }
+        if (operation == null) {
+            return "{}";
+        }
+        final StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < operands.size(); i++) {
+            if (i > 0) {
+                builder.append(' ').append(symbol(operation)).append(' ');
+            }
+            builder.append(operands.get(i));
+        }
+        return builder.append(')').toString();
+    }
+
+    private SortedSetExpression combine(SetOperation operation, SortedSetExpression... others) {
+        checkNotNull(others, "others");
+        final List<SortedSetExpression> list = new ArrayList<>();
+        list.add(this);
+        for (SortedSetExpression other : others) {
+            list.add(checkNotNull(other, "other"));
+        }
+        return new SortedSetExpression(operation, null, ImmutableList.copyOf(list));
+    }
+
+    private static String symbol(SetOperation operation) {
+        switch (operation) {
+            case UNION:
+                return "|";
+            case INTERSECTION:
+                return "&";
+            case EXCLUDE:
+                return "-";
+            default:
+                return "^";
+        }
+    }
+
+    private static SortedSetExpression normalize(SortedSetExpression expression) {
+        if (expression.operation == null) {
+            return expression;
+        }
+        final List<SortedSetExpression> operands = new ArrayList<>();
+        for (SortedSetExpression operand : expression.operands) {
+            operands.add(normalize(operand));
+        }
+
+        switch (expression.operation) {
+            case UNION:
+            case INTERSECTION:
+                return associative(expression.operation, operands);
+            case DIFFERENCE:
+                return difference(operands);
+            default:
+                return exclude(operands.get(0), operands.get(1));
+        }
+    }
+
+    /**
+     * Flattens, removes duplicates and empty operands of a union or an intersection.
+     */
+    private static SortedSetExpression associative(SetOperation operation, List<SortedSetExpression> operands) {
+        final Set<SortedSetExpression> unique = new LinkedHashSet<>();
+        for (SortedSetExpression operand : operands) {
+            if (operand == EMPTY) {
+                if (operation == SetOperation.INTERSECTION) {
+                    return EMPTY;
+                }
+            } else if (operand.operation == operation) {
+                unique.addAll(operand.operands);
+            } else {
+                unique.add(operand);
+            }
+        }
+        return of(operation, unique);
+    }
+
+    /**
+     * Flattens a symmetric difference, an operand present an even number of times cancels out.
+     */
+    private static SortedSetExpression difference(List<SortedSetExpression> operands) {
+        final Map<SortedSetExpression, Integer> counts = new LinkedHashMap<>();
+        for (SortedSetExpression operand : operands) {
+            final List<SortedSetExpression> flat = operand.operation == SetOperation.DIFFERENCE ? operand.operands : List.of(operand);
+            for (SortedSetExpression item : flat) {
+                if (item != EMPTY) {
+                    counts.merge(item, 1, Integer::sum);
+                }
+            }
+        }
+        final List<SortedSetExpression> odd = new ArrayList<>();
+        counts.forEach((item, count) -> {
+            if (count % 2 == 1) {
+                odd.add(item);
+            }
+        });
+        return of(SetOperation.DIFFERENCE, odd);
+    }
+
+    /**
+     * Removing {@code b} and then {@code c} from {@code a} becomes removing {@code b | c} in one pass.
+     */
+    private static SortedSetExpression exclude(SortedSetExpression source, SortedSetExpression target) {
+        if (source == EMPTY || source.equals(target)) {
+            return EMPTY;
+        }
+        if (target == EMPTY) {
+            return source;
+        }
+        if (source.operation == SetOperation.EXCLUDE) {
+            return exclude(source.operands.get(0), associative(SetOperation.UNION, List.of(source.operands.get(1), target)));
+        }
+        return new SortedSetExpression(SetOperation.EXCLUDE, null, ImmutableList.of(source, target));
+    }
+
+    /**
+     * Orders the operands of a commutative operation by their text, so that equal subexpressions look the same.
+     */
+    private static SortedSetExpression of(SetOperation operation, Collection<SortedSetExpression> operands) {
+        if (operands.isEmpty()) {
+            return EMPTY;
+        }
+        if (operands.size() == 1) {
+            return operands.iterator().next();
+        }
+        final List<SortedSetExpression> sorted = new ArrayList<>(operands);
+        sorted.sort(Comparator.comparing(SortedSetExpression::toString));
+        return new SortedSetExpression(operation, null, ImmutableList.copyOf(sorted));
+    }
+
+    /**
+     * A normalized expression laid out as an array of nodes, operands before the operations that use them.
+     * Immutable and safe to evaluate from several threads.
+     */
+    public static final class Compiled<T> {
+
+        private final SortedSetExpression expression;
+        private final Comparator<T> comparator;
+        private final InputValidation validation;
+        private final SortedSetExpression[] nodes;
+        private final int[][] operands;
+        private final List<String> slots;
+
+        private Compiled(SortedSetExpression expression, Comparator<T> comparator, InputValidation validation) {
+            this.expression = expression;
+            this.comparator = comparator;
+            this.validation = validation;
+
+            final Map<SortedSetExpression, Integer> index = new HashMap<>();
+            final List<SortedSetExpression> nodeList = new ArrayList<>();
+            final List<int[]> operandList = new ArrayList<>();
+            layout(expression, index, nodeList, operandList);
+
+            this.nodes = nodeList.toArray(new SortedSetExpression[0]);
+            this.operands = operandList.toArray(new int[0][]);
+            final List<String> slotList = new ArrayList<>();
+            for (SortedSetExpression node : nodes) {
+                if (node.name != null) {
+                    slotList.add(node.name);
+                }
+            }
+            this.slots = ImmutableList.copyOf(slotList);
+        }
+
+        private static int layout(SortedSetExpression expression, Map<SortedSetExpression, Integer> index,
+                                  List<SortedSetExpression> nodes, List<int[]> operands) {
+            final Integer existing = index.get(expression);
+            if (existing != null) {
+                return existing;
+            }
+            final int[] children = new int[expression.operands.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = layout(expression.operands.get(i), index, nodes, operands);
+            }
+            nodes.add(expression);
+            operands.add(children);
+            index.put(expression, nodes.size() - 1);
+            return nodes.size() - 1;
+        }
+
+        /**
+         * Returns the names of the slots the normalized expression reads.
+         */
+        public List<String> slots() {
+            return slots;
+        }
+
+        /**
+         * Evaluates the expression, {@code sources} is asked for a new iterator every time a slot is read, which
+         * happens once per slot unless the normalized expression uses it several times. A subexpression used
+         * several times shares its node in the compiled plan but is run again for every use, over new iterators
+         * of its slots, so that nothing is buffered and the result streams in constant memory.
+         */
+        public Iterator<T> evaluate(Function<? super String, ? extends Iterator<T>> sources) {
+            checkNotNull(sources, "sources");
+            if (nodes.length == 1 && nodes[0].name != null) {
+                // a lone slot still gets its order checked and duplicates removed
+                return SortedIterators.union(List.of(open(0, sources)), comparator, validation);
+            }
+            return open(nodes.length - 1, sources);
+        }
+
+        private Iterator<T> open(int node, Function<? super String, ? extends Iterator<T>> sources) {
+            final SortedSetExpression expression = nodes[node];
+            if (expression.name != null) {
+                final Iterator<T> iterator = sources.apply(expression.name);
+                checkArgument(iterator != null, "no input bound to slot %s", expression.name);
+                return iterator;
+            }
+            if (expression.operation == null) {
+                return ImmutableList.<T>of().iterator();
+            }
+            return apply(node, sources);
+        }
+
+        private Iterator<T> apply(int node, Function<? super String, ? extends Iterator<T>> sources) {
+            final int[] children = operands[node];
+            final List<Iterator<T>> iterators = new ArrayList<>(children.length);
+            for (int child : children) {
+                iterators.add(open(child, sources));
+            }
+            final SetOperation operation = nodes[node].operation;
+            if (operation == SetOperation.DIFFERENCE) {
+                Iterator<T> iterator = iterators.get(0);
+                for (int i = 1; i < iterators.size(); i++) {
+                    iterator = SortedIterators.difference(iterator, iterators.get(i), comparator, validation);
+                }
+                return iterator;
+            }
+            return operation.apply(iterators, comparator, validation);
+        }
+
+        @Override
+        public String toString() {
+            return expression.toString();
+        }
+    }
+}
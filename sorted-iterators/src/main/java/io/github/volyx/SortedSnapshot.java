@@ -0,0 +1,210 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Sorted key set kept in a {@link SortedRun} file between runs of a sync job, so that the job does not hold the
+ * previous state in memory. {@link #sync} streams the new keys against the stored ones to report what was added
+ * and removed, writing the new keys next to the snapshot as they are read, and then replaces the snapshot
+ * with them in a single atomic move.
+ * <p>
+ * Neither key set is loaded into the heap: the stored one is memory mapped, the new one is written as it is read.
+ * The mapping is released before the swap and the move is flushed to disk. A sync that fails leaves the previous
+ * snapshot in place. Syncs of the same file must not run concurrently.
+ */
+public final class SortedSnapshot<T> {
+
+    private final Path path;
+    private final Path temporary;
+    private final Comparator<? super T> comparator;
+    private final KeyCodec<T> codec;
+    private final int blockSize;
+
+    private SortedSnapshot(Path path, Comparator<? super T> comparator, KeyCodec<T> codec, int blockSize) {
+        this.path = path;
+        this.temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        this.comparator = comparator;
+        this.codec = codec;
+        this.blockSize = blockSize;
+    }
+
+    public static <T> SortedSnapshot<T> at(Path path, Comparator<? super T> comparator, KeyCodec<T> codec) {
+        return at(path, comparator, codec, SortedRun.DEFAULT_BLOCK_SIZE);
+    }
+
+    public static <T> SortedSnapshot<T> at(Path path, Comparator<? super T> comparator, KeyCodec<T> codec,
+                                           int blockSize) {
+        checkNotNull(path, "path");
+        checkNotNull(comparator, "comparator");
+        checkNotNull(codec, "codec");
+        checkArgument(blockSize > 0, "blockSize must be positive");
+        checkArgument(path.getFileName() != null, "path must name a file");
+        return new SortedSnapshot<>(path, comparator, codec, blockSize);
+    }
+
+    public boolean exists() {
+        return Files.exists(path);
+    }
+
+    /**
+     * Opens the stored keys, a snapshot that was never synced fails with {@link java.nio.file.NoSuchFileException}.
+     * The run keeps the file mapped until it is garbage collected, on some platforms, Windows among them, a later
+     * {@link #sync} cannot replace the file while it is.
+     */
+    public SortedRun<T> open() throws IOException {
+        return SortedRun.open(path, comparator, codec);
+    }
+
+    /**
+     * Passes the keys of {@code iterator} missing from the snapshot to {@code addConsumer} and the keys of the
+     * snapshot missing from {@code iterator} to {@code removeConsumer}, in order, then stores the keys of
+     * {@code iterator} as the new snapshot. A snapshot that does not exist yet is empty.
+     * <p>
+     * {@code iterator} must be sorted, duplicates are dropped and an unsorted element fails with
+     * {@link IllegalStateException}. When this method throws, the snapshot is unchanged.
+     */
+    public SortedIterators.DifferenceCounts sync(Iterator<T> iterator, Consumer<? super T> addConsumer,
+                                                 Consumer<? super T> removeConsumer) throws IOException {
+        checkNotNull(iterator, "iterator");
+        checkNotNull(addConsumer, "addConsumer");
+        checkNotNull(removeConsumer, "removeConsumer");
+
+        final long[] counts = new long[2];
+        final SortedRun<T> previous = exists() ? open() : null;
+        boolean synced = false;
+        try {
+            try (SortedRun.Writer<T> writer = new SortedRun.Writer<>(temporary, comparator, codec, blockSize)) {
+                // the stored keys were validated when they were written, the new ones are checked by the writer
+                SortedIterators.differenceConsumer(previous == null ? ImmutableList.<T>of().iterator() : previous.iterator(),
+                        new WritingIterator<>(iterator, writer), comparator::compare,
+                        value -> {
+                            counts[0]++;
+                            addConsumer.accept(value);
+                        },
+                        value -> {
+                            counts[1]++;
+                            removeConsumer.accept(value);
+                        },
+                        InputValidation.TRUSTED);
+                writer.finish();
+            } catch (WriteFailure e) {
+                throw e.getCause();
+            } finally {
+                // the run never left this method and differenceConsumer has returned, so nothing reads it any more
+                if (previous != null) {
+                    previous.unmap();
+                }
+            }
+            // the previous run is unmapped by now, a mapped file cannot be replaced on every platform
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            synced = true;
+        } finally {
+            if (!synced) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        forceDirectory();
+        return new SortedIterators.DifferenceCounts(counts[0], counts[1]);
+    }
+
+    /**
+     * Makes the move durable by flushing the directory entry, on platforms where a directory can be opened.
+     */
+    private void forceDirectory() throws IOException {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ);
+        } catch (IOException e) {
+            // directories cannot be opened on Windows
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Carries a failure of the writer through the consumers, so that only it is unwrapped.
+     */
+    private static final class WriteFailure extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        WriteFailure(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    /**
+     * Returns the distinct elements of a sorted input, writing each one to the new snapshot as it is read.
+     */
+    private static final class WritingIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> iterator;
+        private final SortedRun.Writer<T> writer;
+        private T head;
+        private boolean hasHead;
+        private boolean fetched;
+
+        WritingIterator(Iterator<T> iterator, SortedRun.Writer<T> writer) {
+            this.iterator = iterator;
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                fetched = true;
+                hasHead = false;
+                while (iterator.hasNext()) {
+                    final T value = iterator.next();
+                    if (write(value)) {
+                        head = value;
+                        hasHead = true;
+                        break;
+                    }
+                }
+            }
+            return hasHead;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched = false;
+            return head;
+        }
+
+        private boolean write(T value) {
+            try {
+                return writer.add(value);
+            } catch (IOException e) {
+                throw new WriteFailure(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.volyx;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Sorted input that can be iterated more than once and cut into key ranges, which lets set operations split
+ * their work.
+ *
+ * @see SortedSources
+ */
+public interface SortedSource<T> {
+
+    Comparator<? super T> comparator();
+
+    Iterator<T> iterator();
+
+    /**
+     * Returns the number of elements, or {@link Long#MAX_VALUE} when it is expensive to compute.
+     */
+    long estimateSize();
+
+    /**
+     * Returns a view of the elements in {@code [from, to)}, a {@code null} bound is unbounded.
+     */
+    SortedSource<T> range(@Nullable T from, @Nullable T to);
+
+    /**
+     * Returns an element that splits this source into two non-empty ranges of roughly equal size,
+     * or {@code null} when the source is too small to split.
+     */
+    @Nullable T pivot();
+
+    /**
+     * Returns up to {@code partitions - 1} ascending keys that cut this source into ranges of roughly equal size.
+     * By default the ranges are halved with {@link #pivot()} recursively.
+     */
+    default List<T> sample(int partitions) {
+        final List<T> splitters = new ArrayList<>();
+        SortedSources.sample(this, null, null, partitions, splitters);
+        return splitters;
+    }
+}
@@ -0,0 +1,370 @@
+package io.github.volyx;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public final class SortedSources {
+
+    private SortedSources() {
+    }
+
+    /**
+     * Ranges are {@link NavigableSet#subSet} views. Pivots and range sizes come from splitting the spliterator of
+     * the whole set down to the range, which follows the tree of a {@link java.util.TreeSet}; for sets whose
+     * spliterator does not split, such as views, the range is counted and the pivot is its middle element.
+     */
+    public static <T> SortedSource<T> forSet(NavigableSet<T> set) {
+        checkNotNull(set, "set");
+        return new SetSource<>(set, set, false);
+    }
+
+    /**
+     * The list must be sorted by {@code comparator} and support fast random access. Ranges are found with a
+     * binary search and the pivot is the middle element.
+     */
+    public static <T> SortedSource<T> forList(List<T> list, Comparator<? super T> comparator) {
+        checkNotNull(list, "list");
+        checkNotNull(comparator, "comparator");
+        checkArgument(list instanceof RandomAccess, "list must support random access");
+        return new ListSource<>(list, comparator, 0, list.size());
+    }
+
+    public static <T> SortedSource<T> forArray(T[] array, Comparator<? super T> comparator) {
+        checkNotNull(array, "array");
+        checkNotNull(comparator, "comparator");
+        return new ListSource<>(Arrays.asList(array), comparator, 0, array.length);
+    }
+
+    static <T> void sample(SortedSource<T> source, @Nullable T from, @Nullable T to, int partitions, List<T> splitters) {
+        if (partitions < 2) {
+            return;
+        }
+        final T pivot = source.range(from, to).pivot();
+        if (pivot == null) {
+            return;
+        }
+        sample(source, from, pivot, partitions / 2, splitters);
+        splitters.add(pivot);
+        sample(source, pivot, to, partitions - partitions / 2, splitters);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<? super T> comparatorOf(NavigableSet<T> set) {
+        final Comparator<? super T> comparator = set.comparator();
+        return comparator != null ? comparator : (Comparator<? super T>) Comparator.naturalOrder();
+    }
+
+    private static final class SetSource<T> implements SortedSource<T> {
+
+        private final NavigableSet<T> set;
+        private final NavigableSet<T> view;
+        private final boolean ranged;
+        private final Comparator<? super T> comparator;
+        private boolean described;
+        private @Nullable T middle;
+        private long estimate;
+
+        SetSource(NavigableSet<T> set, NavigableSet<T> view, boolean ranged) {
+            this.set = set;
+            this.view = view;
+            this.ranged = ranged;
+            this.comparator = comparatorOf(set);
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return SkippableSortedIterators.forSet(view);
+        }
+
+        @Override
+        public long estimateSize() {
+            if (!ranged) {
+                return set.size();
+            }
+            describe();
+            return estimate;
+        }
+
+        /**
+         * Keys outside the elements of the view are dropped or give an empty range, because a view of a view
+         * rejects keys beyond its own bounds, and the keys may come from a source with a wider range.
+         */
+        @Override
+        public SortedSource<T> range(@Nullable T from, @Nullable T to) {
+            if ((from == null && to == null) || view.isEmpty()) {
+                return this;
+            }
+            final T first = view.first();
+            final T last = view.last();
+            final T low = from == null || comparator.compare(from, first) <= 0 ? null : from;
+            final T high = to == null || comparator.compare(to, last) > 0 ? null : to;
+            if ((low != null && comparator.compare(low, last) > 0)
+                    || (high != null && comparator.compare(high, first) <= 0)
+                    || (low != null && high != null && comparator.compare(low, high) >= 0)) {
+                return new SetSource<>(set, Collections.emptyNavigableSet(), true);
+            }
+            final NavigableSet<T> range;
+            if (low != null && high != null) {
+                range = view.subSet(low, true, high, false);
+            } else if (low != null) {
+                range = view.tailSet(low, true);
+            } else if (high != null) {
+                range = view.headSet(high, false);
+            } else {
+                return this;
+            }
+            return new SetSource<>(set, range, true);
+        }
+
+        @Override
+        public @Nullable T pivot() {
+            describe();
+            return middle;
+        }
+
+        /**
+         * Finds the ranks of the ends of the view by splitting the spliterator of the whole set, which follows
+         * the tree of a {@link java.util.TreeSet}, and takes the key at the middle rank as the pivot. The ranks
+         * come from the split size estimates, so the pivot is checked against the view. Sets that do not split
+         * and views too small for the estimates are counted and cut at their middle element.
+         */
+        private void describe() {
+            if (described) {
+                return;
+            }
+            described = true;
+            if (view.isEmpty()) {
+                return;
+            }
+            final T first = view.first();
+            final T last = view.last();
+            final long low = rank(first);
+            final long high = rank(last);
+            if (low >= 0 && high > low) {
+                final T key = select(low + (high - low + 1) / 2);
+                if (key != null && comparator.compare(first, key) < 0 && comparator.compare(key, last) <= 0) {
+                    estimate = high - low + 1;
+                    middle = key;
+                    return;
+                }
+            }
+            long count = 0;
+            for (Iterator<T> iterator = view.iterator(); iterator.hasNext(); iterator.next()) {
+                count++;
+            }
+            estimate = count;
+            if (count > 1) {
+                final Iterator<T> iterator = view.iterator();
+                for (long i = 0; i < count / 2; i++) {
+                    iterator.next();
+                }
+                middle = iterator.next();
+            }
+        }
+
+        /**
+         * Returns the estimated number of elements of the set less than {@code key}, or {@code -1} when the set
+         * does not split.
+         */
+        private long rank(T key) {
+            final Object[] head = new Object[1];
+            Spliterator<T> piece = set.spliterator();
+            long rank = 0;
+            boolean split = false;
+            while (true) {
+                final Spliterator<T> prefix = piece.trySplit();
+                if (prefix == null) {
+                    if (!split) {
+                        return -1;
+                    }
+                    final long[] less = {rank};
+                    piece.forEachRemaining(value -> {
+                        if (comparator.compare(value, key) < 0) {
+                            less[0]++;
+                        }
+                    });
+                    return less[0];
+                }
+                split = true;
+                if (!piece.tryAdvance(value -> head[0] = value)) {
+                    piece = prefix;
+                    continue;
+                }
+                @SuppressWarnings("unchecked") final T separator = (T) head[0];
+                if (comparator.compare(key, separator) <= 0) {
+                    piece = prefix;
+                } else {
+                    rank += prefix.estimateSize() + 1;
+                }
+            }
+        }
+
+        /**
+         * Returns the element of the set at the estimated {@code rank}, the inverse of {@link #rank}.
+         */
+        private @Nullable T select(long rank) {
+            final Object[] head = new Object[1];
+            Spliterator<T> piece = set.spliterator();
+            long remaining = rank;
+            while (true) {
+                final Spliterator<T> prefix = piece.trySplit();
+                if (prefix == null) {
+                    head[0] = null;
+                    for (long i = 0; i <= remaining && piece.tryAdvance(value -> head[0] = value); i++) {
+                        // stops at the element of the remaining rank, or at the last one of the piece
+                    }
+                    @SuppressWarnings("unchecked") final T result = (T) head[0];
+                    return result;
+                }
+                final long size = prefix.estimateSize();
+                if (remaining < size) {
+                    piece = prefix;
+                    continue;
+                }
+                if (!piece.tryAdvance(value -> head[0] = value)) {
+                    piece = prefix;
+                    continue;
+                }
+                if (remaining == size) {
+                    @SuppressWarnings("unchecked") final T result = (T) head[0];
+                    return result;
+                }
+                remaining -= size + 1;
+            }
+        }
+
+        /**
+         * Splits the spliterator of the whole set recursively, which follows the tree structure of a
+         * {@link java.util.TreeSet}, and takes the first key of every piece but the first.
+         */
+        @Override
+        public List<T> sample(int partitions) {
+            if (ranged) {
+                return SortedSource.super.sample(partitions);
+            }
+            final List<Spliterator<T>> pieces = new ArrayList<>();
+            split(view.spliterator(), partitions, pieces);
+
+            final List<T> splitters = new ArrayList<>();
+            final Object[] first = new Object[1];
+            for (int i = 1; i < pieces.size(); i++) {
+                if (pieces.get(i).tryAdvance(value -> first[0] = value)) {
+                    @SuppressWarnings("unchecked") final T splitter = (T) first[0];
+                    if (splitters.isEmpty() || comparator.compare(splitters.get(splitters.size() - 1), splitter) < 0) {
+                        splitters.add(splitter);
+                    }
+                }
+            }
+            return splitters;
+        }
+
+        private static <E> void split(Spliterator<E> spliterator, int partitions, List<Spliterator<E>> pieces) {
+            if (partitions > 1) {
+                final Spliterator<E> prefix = spliterator.trySplit();
+                if (prefix != null) {
+                    split(prefix, partitions / 2, pieces);
+                    split(spliterator, partitions - partitions / 2, pieces);
+                    return;
+                }
+            }
+            pieces.add(spliterator);
+        }
+    }
+
+    private static final class ListSource<T> implements SortedSource<T> {
+
+        private final List<T> list;
+        private final Comparator<? super T> comparator;
+        private final int from;
+        private final int to;
+
+        ListSource(List<T> list, Comparator<? super T> comparator, int from, int to) {
+            this.list = list;
+            this.comparator = comparator;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return SkippableSortedIterators.forList(list.subList(from, to), comparator);
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public SortedSource<T> range(@Nullable T fromElement, @Nullable T toElement) {
+            final int low = fromElement == null ? from : lowerBound(fromElement);
+            final int high = toElement == null ? to : Math.max(low, lowerBound(toElement));
+            return new ListSource<>(list, comparator, low, high);
+        }
+
+        @Override
+        public @Nullable T pivot() {
+            if (to - from < 2) {
+                return null;
+            }
+            final T pivot = list.get((from + to) >>> 1);
+            return comparator.compare(list.get(from), pivot) < 0 ? pivot : null;
+        }
+
+        @Override
+        public List<T> sample(int partitions) {
+            final List<T> splitters = new ArrayList<>();
+            if (to - from < 2) {
+                return splitters;
+            }
+            T previous = list.get(from);
+            for (int i = 1; i < partitions; i++) {
+                final T splitter = list.get(from + (int) ((long) (to - from) * i / partitions));
+                if (comparator.compare(previous, splitter) < 0) {
+                    splitters.add(splitter);
+                    previous = splitter;
+                }
+            }
+            return splitters;
+        }
+
+        /**
+         * Returns the index of the first element not less than {@code key}.
+         */
+        private int lowerBound(T key) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (comparator.compare(list.get(middle), key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package io.github.volyx;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Set operations as spliterators that report {@code ORDERED | SORTED | DISTINCT | NONNULL} and the comparator.
+ * Operations over {@link SortedSource}s split by cutting the key space at a pivot of the largest source.
+ */
+public final class SortedSpliterators {
+
+    static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL;
+
+    private SortedSpliterators() {
+    }
+
+    public static <T> Spliterator<T> union(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator) {
+        return create(SetOperation.UNION, sources, comparator);
+    }
+
+    public static <T> Spliterator<T> intersection(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator) {
+        return create(SetOperation.INTERSECTION, sources, comparator);
+    }
+
+    public static <T> Spliterator<T> exclude(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator) {
+        return create(SetOperation.EXCLUDE, List.of(checkNotNull(source, "source"), checkNotNull(target, "target")), comparator);
+    }
+
+    public static <T> Spliterator<T> difference(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator) {
+        return create(SetOperation.DIFFERENCE, List.of(checkNotNull(source, "source"), checkNotNull(target, "target")), comparator);
+    }
+
+    /**
+     * Wraps the sorted and distinct result of a {@link SortedIterators} operation. It cannot be split.
+     */
+    public static <T> Spliterator<T> forIterator(Iterator<T> iterator, Comparator<? super T> comparator) {
+        checkNotNull(iterator, "iterator");
+        checkNotNull(comparator, "comparator");
+        return new IteratorSpliterator<>(iterator, comparator);
+    }
+
+    private static <T> Spliterator<T> create(SetOperation operation,
+                                             Iterable<? extends SortedSource<T>> sources,
+                                             Comparator<T> comparator) {
+        checkNotNull(sources, "sources");
+        checkNotNull(comparator, "comparator");
+
+        final List<SortedSource<T>> sourceList = new ArrayList<>();
+        for (SortedSource<T> source : sources) {
+            sourceList.add(checkNotNull(source, "source"));
+        }
+        checkArgument(!sourceList.isEmpty(), "sources must not be empty");
+
+        return new SetOperationSpliterator<>(operation, sourceList, comparator, null, null);
+    }
+
+    private static final class SetOperationSpliterator<T> implements Spliterator<T> {
+
+        private final SetOperation operation;
+        private final List<SortedSource<T>> sources;
+        private final Comparator<T> comparator;
+        private final @Nullable T to;
+        private @Nullable T from;
+
+        private List<SortedSource<T>> ranges;
+        private Iterator<T> iterator;
+
+        SetOperationSpliterator(SetOperation operation,
+                                List<SortedSource<T>> sources,
+                                Comparator<T> comparator,
+                                @Nullable T from,
+                                @Nullable T to) {
+            this.operation = operation;
+            this.sources = sources;
+            this.comparator = comparator;
+            this.from = from;
+            this.to = to;
+        }
+
+        private List<SortedSource<T>> ranges() {
+            if (ranges == null) {
+                ranges = new ArrayList<>(sources.size());
+                for (SortedSource<T> source : sources) {
+                    ranges.add(source.range(from, to));
+                }
+            }
+            return ranges;
+        }
+
+        private Iterator<T> iterator() {
+            if (iterator == null) {
+                final List<Iterator<T>> iterators = new ArrayList<>(sources.size());
+                for (SortedSource<T> range : ranges()) {
+                    iterators.add(range.iterator());
+                }
+                iterator = operation.apply(iterators, comparator, InputValidation.CHECKED);
+            }
+            return iterator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            final Iterator<T> iterator = iterator();
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            action.accept(iterator.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            iterator().forEachRemaining(action);
+        }
+
+        @Override
+        public @Nullable Spliterator<T> trySplit() {
+            if (iterator != null) {
+                return null;
+            }
+
+            SortedSource<T> largest = null;
+            for (SortedSource<T> range : ranges()) {
+                if (largest == null || range.estimateSize() > largest.estimateSize()) {
+                    largest = range;
+                }
+            }
+
+            final T pivot = largest.pivot();
+            if (pivot == null) {
+                return null;
+            }
+
+            final Spliterator<T> prefix = new SetOperationSpliterator<>(operation, sources, comparator, from, pivot);
+            from = pivot;
+            ranges = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            final List<SortedSource<T>> ranges = ranges();
+            final long[] sizes = new long[ranges.size()];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = ranges.get(i).estimateSize();
+            }
+            return operation.estimateSize(sizes);
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return comparator;
+        }
+    }
+
+    private static final class IteratorSpliterator<T> implements Spliterator<T> {
+
+        private final Iterator<T> iterator;
+        private final Comparator<? super T> comparator;
+
+        IteratorSpliterator(Iterator<T> iterator, Comparator<? super T> comparator) {
+            this.iterator = iterator;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            action.accept(iterator.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            iterator.forEachRemaining(action);
+        }
+
+        @Override
+        public @Nullable Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return comparator;
+        }
+    }
+}
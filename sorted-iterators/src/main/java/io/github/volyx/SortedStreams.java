@@ -0,0 +1,35 @@
+package io.github.volyx;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sequential streams over {@link SortedSpliterators}. Call {@link Stream#parallel()} to split the work by key range.
+ */
+public final class SortedStreams {
+
+    private SortedStreams() {
+    }
+
+    public static <T> Stream<T> union(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator) {
+        return StreamSupport.stream(SortedSpliterators.union(sources, comparator), false);
+    }
+
+    public static <T> Stream<T> intersection(Iterable<? extends SortedSource<T>> sources, Comparator<T> comparator) {
+        return StreamSupport.stream(SortedSpliterators.intersection(sources, comparator), false);
+    }
+
+    public static <T> Stream<T> exclude(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator) {
+        return StreamSupport.stream(SortedSpliterators.exclude(source, target, comparator), false);
+    }
+
+    public static <T> Stream<T> difference(SortedSource<T> source, SortedSource<T> target, Comparator<T> comparator) {
+        return StreamSupport.stream(SortedSpliterators.difference(source, target, comparator), false);
+    }
+
+    public static <T> Stream<T> of(Iterator<T> iterator, Comparator<? super T> comparator) {
+        return StreamSupport.stream(SortedSpliterators.forIterator(iterator, comparator), false);
+    }
+}
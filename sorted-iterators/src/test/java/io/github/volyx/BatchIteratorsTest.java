@@ -0,0 +1,106 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class BatchIteratorsTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 1000;
+
+    @Test
+    void fillArray() {
+        final BatchIterator<Integer> it = BatchIterators.forArray(new Integer[]{1, 2, 3, 4, 5}, 1, 5);
+        final Integer[] buffer = new Integer[3];
+
+        Assertions.assertEquals(3, it.fill(buffer));
+        Assertions.assertArrayEquals(new Integer[]{2, 3, 4}, buffer);
+        Assertions.assertEquals(5, it.next());
+        Assertions.assertEquals(0, it.fill(buffer));
+    }
+
+    @Test
+    void drainTo() {
+        final List<Integer> result = new ArrayList<>();
+
+        BatchIterators.drainTo(List.of(1, 2, 3, 4, 5).iterator(), new Integer[2],
+                (buffer, count) -> result.addAll(Arrays.asList(buffer).subList(0, count)));
+
+        Assertions.assertEquals(List.of(1, 2, 3, 4, 5), result);
+    }
+
+    @Test
+    void shortcutsSupportBatches() {
+        final List<Iterator<Integer>> iterators = List.of(
+                SortedIterators.intersection(List.<Integer>of().iterator(), List.of(1).iterator(), Integer::compare),
+                SortedIterators.exclude(List.<Integer>of().iterator(), List.of(1).iterator(), Integer::compare),
+                SortedIterators.intersection(List.of(List.of(1, 2).iterator()), Integer::compare, InputValidation.TRUSTED),
+                SortedIterators.exclude(List.of(1, 2).iterator(), List.<Integer>of().iterator(), Integer::compare,
+                        InputValidation.TRUSTED),
+                SortedIterators.<Integer>builder().comparator(Integer::compare).build());
+        for (Iterator<Integer> iterator : iterators) {
+            Assertions.assertTrue(iterator instanceof BatchIterator, iterator.getClass().getName());
+        }
+
+        final Iterator<Integer> linear = Plan.linear(SkippableSortedIterators.forList(List.of(1, 2, 3), Integer::compare));
+        Assertions.assertTrue(linear instanceof BatchIterator);
+        Assertions.assertFalse(linear instanceof SkippableSortedIterator);
+        Assertions.assertEquals(List.of(1, 2, 3), drain(linear));
+    }
+
+    @Test
+    void testRandom() {
+        int attempt = 0;
+        while (attempt++ < 100) {
+            final List<Integer> one = randomSorted();
+            final List<Integer> two = randomSorted();
+
+            final TreeSet<Integer> uniq1 = new TreeSet<>(one);
+            final TreeSet<Integer> uniq2 = new TreeSet<>(two);
+
+            Assertions.assertEquals(new ArrayList<>(Sets.intersection(uniq1, uniq2)),
+                    drain(SortedIterators.intersection(BatchIterators.forList(one), BatchIterators.forList(two), Integer::compare)),
+                    "one: " + one + " two: " + two);
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(uniq1, uniq2)),
+                    drain(SortedIterators.exclude(BatchIterators.forList(one), BatchIterators.forList(two), Integer::compare)),
+                    "one: " + one + " two: " + two);
+            Assertions.assertEquals(new TreeSet<>(Sets.symmetricDifference(uniq1, uniq2)).stream().collect(Collectors.toList()),
+                    drain(SortedIterators.difference(BatchIterators.forList(one), two.iterator(), Integer::compare)),
+                    "one: " + one + " two: " + two);
+            Assertions.assertEquals(new TreeSet<>(Sets.union(uniq1, uniq2)).stream().collect(Collectors.toList()),
+                    drain(SortedIterators.union(List.of(BatchIterators.forList(one), BatchIterators.forList(two)), Integer::compare)),
+                    "one: " + one + " two: " + two);
+
+            // nested operators feed each other through fill()
+            Assertions.assertEquals(ImmutableList.copyOf(SortedIterators.exclude(
+                    SortedIterators.union(List.of(one.iterator(), two.iterator()), Integer::compare),
+                    SortedIterators.intersection(one.iterator(), two.iterator(), Integer::compare), Integer::compare)),
+                    drain(SortedIterators.exclude(
+                            SortedIterators.union(List.of(BatchIterators.forList(one), BatchIterators.forList(two)), Integer::compare),
+                            SortedIterators.intersection(BatchIterators.forList(one), BatchIterators.forList(two), Integer::compare), Integer::compare)),
+                    "one: " + one + " two: " + two);
+        }
+    }
+
+    private static List<Integer> drain(Iterator<Integer> iterator) {
+        final List<Integer> result = new ArrayList<>();
+        BatchIterators.drainTo(iterator, new Integer[1 + RANDOM.nextInt(300)],
+                (buffer, count) -> result.addAll(Arrays.asList(buffer).subList(0, count)));
+        return result;
+    }
+
+    private static List<Integer> randomSorted() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+    }
+}
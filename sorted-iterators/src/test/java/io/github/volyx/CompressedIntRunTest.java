@@ -0,0 +1,106 @@
+package io.github.volyx;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class CompressedIntRunTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 100_000;
+
+    @Test
+    void extremes() {
+        final int[] values = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1, 0, 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        final CompressedIntRun run = CompressedIntRun.copyOf(Arrays.stream(values).iterator());
+
+        Assertions.assertEquals(values.length, run.size());
+        Assertions.assertArrayEquals(values, toArray(run.iterator()));
+    }
+
+    @Test
+    void denseRangeIsSmall() {
+        final CompressedIntRun run = CompressedIntRun.copyOf(IntStream.range(0, 1_000_000).iterator());
+
+        Assertions.assertEquals(1_000_000, run.size());
+        Assertions.assertTrue(run.sizeInBytes() < 200_000, "size " + run.sizeInBytes());
+        Assertions.assertArrayEquals(IntStream.range(0, 1_000_000).toArray(), toArray(run.iterator()));
+    }
+
+    @Test
+    void unsortedInput() {
+        final CompressedIntRun.Appender appender = CompressedIntRun.appender();
+        IntStream.range(0, CompressedIntRun.BLOCK_SIZE).forEach(appender);
+        Assertions.assertThrows(IllegalStateException.class, () -> appender.accept(CompressedIntRun.BLOCK_SIZE - 2));
+    }
+
+    @Test
+    void testAdvanceToRandom() {
+        int attempt = 0;
+        while (attempt++ < 50) {
+            final TreeSet<Integer> set = randomSet();
+            final SkippableIntIterator iterator = CompressedIntRun.copyOf(toIterator(set)).iterator();
+
+            int target = Integer.MIN_VALUE;
+            while (iterator.hasNext()) {
+                target = Math.max(target, iterator.peekInt()) + RANDOM.nextInt(1000);
+                iterator.advanceTo(target);
+                final Integer expected = set.ceiling(target);
+                if (expected == null) {
+                    Assertions.assertFalse(iterator.hasNext());
+                } else {
+                    Assertions.assertEquals(expected.intValue(), iterator.nextInt());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSetOperationsRandom() {
+        int attempt = 0;
+        while (attempt++ < 50) {
+            final TreeSet<Integer> one = randomSet();
+            final TreeSet<Integer> two = randomSet();
+            final CompressedIntRun run1 = CompressedIntRun.copyOf(toIterator(one));
+            final CompressedIntRun run2 = CompressedIntRun.copyOf(toIterator(two));
+
+            Assertions.assertArrayEquals(toArray(Sets.intersection(one, two)),
+                    toArray(SortedIntIterators.intersection(run1.iterator(), run2.iterator())));
+            Assertions.assertArrayEquals(toArray(Sets.intersection(one, two)),
+                    toArray(SortedIntIterators.intersection(run1.iterator(), toIterator(two))));
+            Assertions.assertArrayEquals(toArray(Sets.difference(one, two)),
+                    toArray(SortedIntIterators.exclude(run1.iterator(), run2.iterator())));
+            Assertions.assertArrayEquals(toArray(Sets.union(one, two)),
+                    toArray(SortedIntIterators.union(List.of(run1.iterator(), run2.iterator()))));
+        }
+    }
+
+    private static TreeSet<Integer> randomSet() {
+        final int limit = 1 + RANDOM.nextInt(MAX_VALUE);
+        return IntStream.generate(() -> RANDOM.nextInt(limit)).limit(RANDOM.nextInt(MAX_VALUE / 10)).boxed()
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static PrimitiveIterator.OfInt toIterator(Set<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).iterator();
+    }
+
+    private static int[] toArray(Set<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private static int[] toArray(PrimitiveIterator.OfInt iterator) {
+        final IntStream.Builder builder = IntStream.builder();
+        iterator.forEachRemaining(builder);
+        return builder.build().toArray();
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class MergeJoinIteratorTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_KEY = 30;
+
+    @Test
+    void testJoinTypes() {
+        final List<String> left = List.of("1:a", "2:b", "2:c", "4:d");
+        final List<Map.Entry<Integer, Integer>> right = List.of(Map.entry(2, 20), Map.entry(2, 21), Map.entry(3, 30));
+
+        Assertions.assertEquals(List.of(
+                        new JoinRow<>(2, "2:b", Map.entry(2, 20)), new JoinRow<>(2, "2:b", Map.entry(2, 21)),
+                        new JoinRow<>(2, "2:c", Map.entry(2, 20)), new JoinRow<>(2, "2:c", Map.entry(2, 21))),
+                join(left, right, JoinType.INNER));
+        Assertions.assertEquals(List.of(
+                        new JoinRow<>(1, "1:a", null),
+                        new JoinRow<>(2, "2:b", Map.entry(2, 20)), new JoinRow<>(2, "2:b", Map.entry(2, 21)),
+                        new JoinRow<>(2, "2:c", Map.entry(2, 20)), new JoinRow<>(2, "2:c", Map.entry(2, 21)),
+                        new JoinRow<>(4, "4:d", null)),
+                join(left, right, JoinType.LEFT));
+        Assertions.assertEquals(List.of(
+                        new JoinRow<>(1, "1:a", null),
+                        new JoinRow<>(2, "2:b", Map.entry(2, 20)), new JoinRow<>(2, "2:b", Map.entry(2, 21)),
+                        new JoinRow<>(2, "2:c", Map.entry(2, 20)), new JoinRow<>(2, "2:c", Map.entry(2, 21)),
+                        new JoinRow<>(3, null, Map.entry(3, 30)),
+                        new JoinRow<>(4, "4:d", null)),
+                join(left, right, JoinType.FULL));
+    }
+
+    @Test
+    void testRandom() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<String> left = new ArrayList<>();
+            for (int i = RANDOM.nextInt(MAX_KEY); i > 0; i--) {
+                left.add(RANDOM.nextInt(MAX_KEY) + ":" + i);
+            }
+            left.sort(Comparator.comparingInt(MergeJoinIteratorTest::key));
+            final List<Map.Entry<Integer, Integer>> right = new ArrayList<>();
+            for (int i = RANDOM.nextInt(MAX_KEY); i > 0; i--) {
+                right.add(Map.entry(RANDOM.nextInt(MAX_KEY), i));
+            }
+            right.sort(Map.Entry.comparingByKey());
+
+            for (JoinType type : JoinType.values()) {
+                Assertions.assertEquals(nestedLoopJoin(left, right, type), join(left, right, type), type.name());
+            }
+        }
+    }
+
+    @Test
+    void testGroupLimit() {
+        final List<Map.Entry<Integer, Integer>> right = List.of(Map.entry(1, 1), Map.entry(1, 2), Map.entry(1, 3));
+        Assertions.assertThrows(IllegalStateException.class, () -> ImmutableList.copyOf(SortedIterators.mergeJoin(
+                List.of("1:a").iterator(), MergeJoinIteratorTest::key, right.iterator(), Map.Entry::getKey,
+                Integer::compare, JoinType.INNER, 2)));
+    }
+
+    @Test
+    void testUnsorted() {
+        Assertions.assertThrows(IllegalStateException.class, () -> join(List.of("2:a", "1:b"), List.of(), JoinType.FULL));
+    }
+
+    private static List<JoinRow<Integer, String, Map.Entry<Integer, Integer>>> join(
+            List<String> left, List<Map.Entry<Integer, Integer>> right, JoinType type) {
+        return ImmutableList.copyOf(SortedIterators.mergeJoin(left.iterator(), MergeJoinIteratorTest::key,
+                right.iterator(), Map.Entry::getKey, Integer::compare, type));
+    }
+
+    private static List<JoinRow<Integer, String, Map.Entry<Integer, Integer>>> nestedLoopJoin(
+            List<String> left, List<Map.Entry<Integer, Integer>> right, JoinType type) {
+        final List<JoinRow<Integer, String, Map.Entry<Integer, Integer>>> rows = new ArrayList<>();
+        for (int key = 0; key < MAX_KEY; key++) {
+            final List<String> leftRows = new ArrayList<>();
+            for (String row : left) {
+                if (key(row) == key) {
+                    leftRows.add(row);
+                }
+            }
+            final List<Map.Entry<Integer, Integer>> rightRows = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> row : right) {
+                if (row.getKey() == key) {
+                    rightRows.add(row);
+                }
+            }
+            for (String leftRow : leftRows) {
+                for (Map.Entry<Integer, Integer> rightRow : rightRows) {
+                    rows.add(new JoinRow<>(key, leftRow, rightRow));
+                }
+                if (rightRows.isEmpty() && type != JoinType.INNER) {
+                    rows.add(new JoinRow<>(key, leftRow, null));
+                }
+            }
+            if (leftRows.isEmpty() && type == JoinType.FULL) {
+                for (Map.Entry<Integer, Integer> rightRow : rightRows) {
+                    rows.add(new JoinRow<>(key, null, rightRow));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static int key(String row) {
+        return Integer.parseInt(row.substring(0, row.indexOf(':')));
+    }
+}
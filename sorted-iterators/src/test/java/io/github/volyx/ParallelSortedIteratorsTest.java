@@ -0,0 +1,222 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ParallelSortedIteratorsTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 10_000;
+
+    @Test
+    void sample() {
+        final TreeSet<Integer> set = IntStream.range(0, MAX_VALUE).boxed().collect(Collectors.toCollection(TreeSet::new));
+        final List<Integer> list = List.copyOf(set);
+
+        Assertions.assertEquals(List.of(2500, 5000, 7500), SortedSources.forList(list, Integer::compare).sample(4));
+
+        final List<Integer> splitters = SortedSources.forSet(set).sample(4);
+        Assertions.assertEquals(3, splitters.size(), "splitters " + splitters);
+        Assertions.assertTrue(splitters.get(0) > 1000 && splitters.get(2) < 9000, "splitters " + splitters);
+    }
+
+    @Test
+    void testRandom() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int attempt = 0;
+            while (attempt++ < 20) {
+                final List<Integer> one = randomSorted();
+                final TreeSet<Integer> two = new TreeSet<>(randomSorted());
+                final int partitions = 1 + RANDOM.nextInt(32);
+
+                final SortedSource<Integer> source1 = SortedSources.forList(one, Integer::compare);
+                final SortedSource<Integer> source2 = SortedSources.forSet(two);
+
+                Assertions.assertEquals(
+                        ImmutableList.copyOf(SortedIterators.union(List.of(one.iterator(), two.iterator()), Integer::compare)),
+                        ImmutableList.copyOf(ParallelSortedIterators.union(List.of(source1, source2), Integer::compare, pool, partitions)));
+                Assertions.assertEquals(
+                        ImmutableList.copyOf(SortedIterators.intersection(one.iterator(), two.iterator(), Integer::compare)),
+                        ImmutableList.copyOf(ParallelSortedIterators.intersection(List.of(source1, source2), Integer::compare, pool, partitions)));
+                Assertions.assertEquals(
+                        ImmutableList.copyOf(SortedIterators.exclude(one.iterator(), two.iterator(), Integer::compare)),
+                        ImmutableList.copyOf(ParallelSortedIterators.exclude(source1, source2, Integer::compare, pool, partitions)));
+                Assertions.assertEquals(
+                        ImmutableList.copyOf(SortedIterators.difference(one.iterator(), two.iterator(), Integer::compare)),
+                        ImmutableList.copyOf(ParallelSortedIterators.difference(source1, source2, Integer::compare, pool)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void unsortedInput() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final SortedSource<Integer> source = SortedSources.forList(List.of(1, 5, 3, 7), Integer::compare);
+            final SortedSource<Integer> target = SortedSources.forList(List.of(2, 4), Integer::compare);
+
+            Assertions.assertThrows(IllegalStateException.class,
+                    () -> ImmutableList.copyOf(ParallelSortedIterators.exclude(source, target, Integer::compare, pool, 1)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void trustedInput() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final SortedSource<Integer> source = new ListSource(List.of(1, 5, 3, 7));
+            final SortedSource<Integer> target = new ListSource(List.of(2, 4));
+
+            Assertions.assertThrows(IllegalStateException.class,
+                    () -> ImmutableList.copyOf(ParallelSortedIterators.exclude(source, target, Integer::compare, pool, 1)));
+            // trusted inputs are not checked, the merge passes the unsorted elements through
+            Assertions.assertEquals(List.of(1, 5, 3, 7), ImmutableList.copyOf(ParallelSortedIterators.exclude(
+                    source, target, Integer::compare, InputValidation.TRUSTED, pool, 1)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testDifferentRanges() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final TreeSet<Integer> wide = IntStream.range(0, MAX_VALUE).boxed().collect(Collectors.toCollection(TreeSet::new));
+            final TreeSet<Integer> narrow = new TreeSet<>(wide.subSet(10, 20));
+            final SortedSource<Integer> source1 = SortedSources.forSet(wide.subSet(10, true, 20, false));
+            final SortedSource<Integer> source2 = SortedSources.forSet(wide);
+
+            Assertions.assertEquals(List.copyOf(wide),
+                    ImmutableList.copyOf(ParallelSortedIterators.union(List.of(source1, source2), Integer::compare, pool, 16)));
+            Assertions.assertEquals(List.copyOf(narrow),
+                    ImmutableList.copyOf(ParallelSortedIterators.intersection(List.of(source2, source1), Integer::compare, pool, 16)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testBoundedAndClosed() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final AtomicInteger computed = new AtomicInteger();
+            final SortedSource<Integer> source = new CountingSource(
+                    SortedSources.forList(IntStream.range(0, MAX_VALUE).boxed().collect(Collectors.toList()), Integer::compare),
+                    computed);
+
+            final ParallelSortedIterators.ParallelIterator<Integer> iterator =
+                    ParallelSortedIterators.union(List.of(source), Integer::compare, pool, 64);
+            Assertions.assertEquals(0, iterator.next());
+            iterator.close();
+            pool.awaitQuiescence(1, TimeUnit.MINUTES);
+
+            Assertions.assertFalse(iterator.hasNext());
+            Assertions.assertTrue(computed.get() <= 4, "computed " + computed.get() + " of 64 ranges");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static final class CountingSource implements SortedSource<Integer> {
+
+        private final SortedSource<Integer> source;
+        private final AtomicInteger ranges;
+
+        CountingSource(SortedSource<Integer> source, AtomicInteger ranges) {
+            this.source = source;
+            this.ranges = ranges;
+        }
+
+        @Override
+        public Comparator<? super Integer> comparator() {
+            return source.comparator();
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return source.iterator();
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public SortedSource<Integer> range(Integer from, Integer to) {
+            ranges.incrementAndGet();
+            return source.range(from, to);
+        }
+
+        @Override
+        public Integer pivot() {
+            return source.pivot();
+        }
+
+        @Override
+        public List<Integer> sample(int partitions) {
+            return source.sample(partitions);
+        }
+    }
+
+    /**
+     * Hands out its list in whatever order it is, as a single range.
+     */
+    private static final class ListSource implements SortedSource<Integer> {
+
+        private final List<Integer> list;
+
+        ListSource(List<Integer> list) {
+            this.list = list;
+        }
+
+        @Override
+        public Comparator<? super Integer> comparator() {
+            return Comparator.naturalOrder();
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return list.iterator();
+        }
+
+        @Override
+        public long estimateSize() {
+            return list.size();
+        }
+
+        @Override
+        public SortedSource<Integer> range(Integer from, Integer to) {
+            if (from != null || to != null) {
+                throw new UnsupportedOperationException();
+            }
+            return this;
+        }
+
+        @Override
+        public Integer pivot() {
+            return null;
+        }
+    }
+
+    private static List<Integer> randomSorted() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+    }
+}
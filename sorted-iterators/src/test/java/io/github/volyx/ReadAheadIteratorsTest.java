@@ -0,0 +1,106 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ReadAheadIteratorsTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 1000;
+
+    @Test
+    void testUnion() {
+        int attempt = 0;
+        while (attempt++ < 100) {
+            final Set<Integer> a = randomSet();
+            final Set<Integer> b = randomSet();
+            final List<Iterator<Integer>> inputs = ReadAheadIterators.readAhead(
+                    List.of(a.iterator(), b.iterator()), 1 + RANDOM.nextInt(16));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.union(a, b))),
+                    ImmutableList.copyOf(SortedIterators.union(inputs, Integer::compare)));
+        }
+    }
+
+    @Test
+    void testBoundedBuffer() throws InterruptedException {
+        final AtomicInteger pulled = new AtomicInteger();
+        final Iterator<Integer> source = IntStream.range(0, 1000).peek(i -> pulled.incrementAndGet()).iterator();
+        final ReadAheadIterators.ReadAheadIterator<Integer> iterator = ReadAheadIterators.readAhead(source, 8);
+
+        Assertions.assertEquals(0, iterator.next());
+        Thread.sleep(50);
+        Assertions.assertTrue(pulled.get() <= 10, "pulled " + pulled.get());
+
+        iterator.close();
+        Assertions.assertFalse(iterator.hasNext());
+        Thread.sleep(250);
+        final int stopped = pulled.get();
+        Thread.sleep(50);
+        Assertions.assertEquals(stopped, pulled.get());
+    }
+
+    @Test
+    void testFailure() {
+        final Iterator<Integer> source = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (next == 3) {
+                    throw new IllegalArgumentException("broken");
+                }
+                return next++;
+            }
+        };
+        final Iterator<Integer> iterator = ReadAheadIterators.readAhead(source, 2);
+        Assertions.assertEquals(0, iterator.next());
+        Assertions.assertEquals(1, iterator.next());
+        Assertions.assertEquals(2, iterator.next());
+        Assertions.assertThrows(IllegalArgumentException.class, iterator::hasNext);
+    }
+
+    @Test
+    @Timeout(10)
+    void testInterruptedWithFullBuffer() throws InterruptedException {
+        final AtomicInteger pulled = new AtomicInteger();
+        final Iterator<Integer> source = IntStream.iterate(0, i -> i + 1).peek(i -> pulled.incrementAndGet()).iterator();
+        final Thread[] producer = new Thread[1];
+        final Iterator<Integer> iterator = ReadAheadIterators.readAhead(source, 2, command -> {
+            producer[0] = new Thread(command);
+            producer[0].start();
+        });
+        while (pulled.get() < 3) {
+            Thread.sleep(10);
+        }
+        producer[0].interrupt();
+        producer[0].join();
+
+        Assertions.assertEquals(0, iterator.next());
+        Assertions.assertEquals(1, iterator.next());
+        final IllegalStateException failure = Assertions.assertThrows(IllegalStateException.class, iterator::hasNext);
+        Assertions.assertTrue(failure.getCause() instanceof InterruptedException);
+    }
+
+    private static Set<Integer> randomSet() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed()
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class SkippableSortedIteratorsTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 100;
+
+    @Test
+    void advanceTo() {
+        final List<Integer> list = List.of(1, 3, 3, 5, 8, 13, 21, 34);
+
+        for (SkippableSortedIterator<Integer> it : List.of(
+                SkippableSortedIterators.forList(new ArrayList<>(list), Integer::compare),
+                SkippableSortedIterators.forArray(list.toArray(new Integer[0]), Integer::compare),
+                SkippableSortedIterators.forSet(new TreeSet<>(list)),
+                SkippableSortedIterators.of(list.iterator(), Integer::compare))) {
+
+            Assertions.assertEquals(1, it.next());
+            it.advanceTo(2);
+            Assertions.assertEquals(3, it.next());
+            Assertions.assertEquals(5, it.peek());
+            it.advanceTo(1);
+            Assertions.assertEquals(5, it.next());
+            it.advanceTo(21);
+            Assertions.assertEquals(21, it.next());
+            it.advanceTo(35);
+            Assertions.assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    void unsortedList() {
+        final SkippableSortedIterator<Integer> it = SkippableSortedIterators.forList(List.of(1, 3, 2), Integer::compare);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> ImmutableList.copyOf(it));
+    }
+
+    @Test
+    void unsortedSkippableInput() {
+        final List<Integer> unsorted = List.of(1, 3, 2);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> ImmutableList.copyOf(SortedIterators.exclude(
+                List.of(1, 2, 3, 4).iterator(), new UncheckedIterator<>(unsorted, Integer::compare), Integer::compare)));
+        Assertions.assertThrows(IllegalStateException.class, () -> SortedIterators.countIntersection(
+                new UncheckedIterator<>(unsorted, Integer::compare), List.of(1, 2, 3, 4).iterator(), Integer::compare));
+        Assertions.assertEquals(List.of(2, 4), ImmutableList.copyOf(SortedIterators.exclude(
+                List.of(1, 2, 3, 4).iterator(), new UncheckedIterator<>(unsorted, Integer::compare), Integer::compare,
+                InputValidation.TRUSTED)));
+    }
+
+    @Test
+    void differentComparator() {
+        final TreeSet<Integer> reversed = new TreeSet<>(Comparator.reverseOrder());
+        reversed.addAll(List.of(1, 2, 3));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ImmutableList.copyOf(SortedIterators.exclude(
+                List.of(1, 2, 3).iterator(), SkippableSortedIterators.forSet(reversed), Integer::compare)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ImmutableList.copyOf(SortedIterators.intersection(
+                List.of(1, 2, 3).iterator(), SkippableSortedIterators.forSet(reversed), Integer::compare)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ImmutableList.copyOf(SortedIterators.union(
+                List.of(SkippableSortedIterators.forSet(reversed)), Integer::compare, InputValidation.CHECKED,
+                SortedBounds.from(2))));
+    }
+
+    @Test
+    void testIntersectionRandom() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Integer> one = randomSorted(MAX_VALUE);
+            final List<Integer> two = randomSorted(MAX_VALUE * 10);
+
+            final List<Integer> expected = new ArrayList<>(Sets.intersection(new TreeSet<>(one), new TreeSet<>(two)));
+
+            Assertions.assertEquals(expected, ImmutableList.copyOf(SortedIterators.intersection(
+                    one.iterator(), SkippableSortedIterators.forList(two, Integer::compare), Integer::compare)),
+                    "one: " + one + " two: " + two);
+            Assertions.assertEquals(expected, ImmutableList.copyOf(SortedIterators.intersection(
+                    SkippableSortedIterators.forSet(new TreeSet<>(two)), one.iterator(), Integer::compare)),
+                    "one: " + one + " two: " + two);
+        }
+    }
+
+    @Test
+    void testExcludeRandom() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Integer> one = randomSorted(MAX_VALUE);
+            final List<Integer> two = randomSorted(MAX_VALUE * 10);
+
+            final List<Integer> expected = new ArrayList<>(Sets.difference(new TreeSet<>(one), new TreeSet<>(two)));
+
+            Assertions.assertEquals(expected, ImmutableList.copyOf(SortedIterators.exclude(
+                    one.iterator(), SkippableSortedIterators.forArray(two.toArray(new Integer[0]), Integer::compare), Integer::compare)),
+                    "one: " + one + " two: " + two);
+        }
+    }
+
+    private static List<Integer> randomSorted(int limit) {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(limit)).boxed().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Seeks by stepping through a list without checking its order, like an input trusted to be sorted.
+     */
+    private static final class UncheckedIterator<T> implements SkippableSortedIterator<T> {
+
+        private final List<T> list;
+        private final Comparator<? super T> comparator;
+        private int position;
+
+        UncheckedIterator(List<T> list, Comparator<? super T> comparator) {
+            this.list = list;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < list.size();
+        }
+
+        @Override
+        public T next() {
+            final T value = peek();
+            position++;
+            return value;
+        }
+
+        @Override
+        public T peek() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return list.get(position);
+        }
+
+        @Override
+        public void advanceTo(T target) {
+            while (hasNext() && comparator.compare(list.get(position), target) < 0) {
+                position++;
+            }
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return comparator;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.volyx;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class SortedIntIteratorsTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 100;
+
+    @Test
+    void union() {
+        final PrimitiveIterator.OfInt it = SortedIntIterators.union(List.of(
+                IntStream.of(1, 2, 3, 3, 5, 5, 6, 8, 8).iterator(),
+                IntStream.of(1, 4, 5, 5, 5, 6, 8, 9).iterator(),
+                IntStream.of(0, 10).iterator()));
+
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 8, 9, 10}, toArray(it));
+    }
+
+    @Test
+    void unsortedInput() {
+        final PrimitiveIterator.OfInt it = SortedIntIterators.intersection(
+                IntStream.of(1, 3, 2).iterator(),
+                IntStream.of(1, 2, 3).iterator());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> toArray(it));
+    }
+
+    @Test
+    void testRandom() {
+        int attempts = 0;
+        while (attempts++ < 200) {
+            final int[] one = randomSorted();
+            final int[] two = randomSorted();
+
+            final Set<Integer> uniq1 = toSet(one);
+            final Set<Integer> uniq2 = toSet(two);
+
+            Assertions.assertArrayEquals(toArray(Sets.union(uniq1, uniq2)),
+                    toArray(SortedIntIterators.union(List.of(iterator(one), iterator(two)))),
+                    "union: one " + Arrays.toString(one) + " two " + Arrays.toString(two));
+            Assertions.assertArrayEquals(toArray(Sets.intersection(uniq1, uniq2)),
+                    toArray(SortedIntIterators.intersection(iterator(one), iterator(two))),
+                    "intersection: one " + Arrays.toString(one) + " two " + Arrays.toString(two));
+            Assertions.assertArrayEquals(toArray(Sets.difference(uniq1, uniq2)),
+                    toArray(SortedIntIterators.exclude(iterator(one), iterator(two))),
+                    "exclude: one " + Arrays.toString(one) + " two " + Arrays.toString(two));
+            Assertions.assertArrayEquals(toArray(Sets.symmetricDifference(uniq1, uniq2)),
+                    toArray(SortedIntIterators.difference(iterator(one), iterator(two))),
+                    "difference: one " + Arrays.toString(one) + " two " + Arrays.toString(two));
+
+            final List<Integer> addList = new ArrayList<>();
+            final List<Integer> removeList = new ArrayList<>();
+            SortedIntIterators.differenceConsumer(iterator(one), iterator(two), addList::add, removeList::add);
+
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(uniq2, uniq1)), addList,
+                    "add list: one " + Arrays.toString(one) + " two " + Arrays.toString(two));
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(uniq1, uniq2)), removeList,
+                    "remove list: one " + Arrays.toString(one) + " two " + Arrays.toString(two));
+        }
+    }
+
+    @Test
+    void testCounts() {
+        int attempts = 0;
+        while (attempts++ < 200) {
+            final int[] one = randomSorted();
+            final int[] two = randomSorted();
+
+            final Set<Integer> uniq1 = toSet(one);
+            final Set<Integer> uniq2 = toSet(two);
+            final int intersection = Sets.intersection(uniq1, uniq2).size();
+            final int union = Sets.union(uniq1, uniq2).size();
+
+            Assertions.assertEquals(union, SortedIntIterators.countUnion(iterator(one), iterator(two)));
+            Assertions.assertEquals(intersection, SortedIntIterators.countIntersection(iterator(one), iterator(two)));
+            Assertions.assertEquals(Sets.symmetricDifference(uniq1, uniq2).size(),
+                    SortedIntIterators.countDifference(iterator(one), iterator(two)));
+            Assertions.assertEquals(union == 0 ? 0 : (double) intersection / union,
+                    SortedIntIterators.jaccard(iterator(one), iterator(two)));
+            final int smaller = Math.min(uniq1.size(), uniq2.size());
+            Assertions.assertEquals(smaller == 0 ? 0 : (double) intersection / smaller,
+                    SortedIntIterators.overlap(iterator(one), iterator(two)));
+        }
+    }
+
+    @Test
+    void testDenseRandom() {
+        int attempts = 0;
+        while (attempts++ < 20) {
+            final int[] one = randomDense();
+            final int[] two = randomDense();
+
+            final Set<Integer> uniq1 = toSet(one);
+            final Set<Integer> uniq2 = toSet(two);
+
+            Assertions.assertArrayEquals(toArray(Sets.union(uniq1, uniq2)),
+                    toArray(SortedIntIterators.union(List.of(iterator(one), iterator(two)))));
+            Assertions.assertArrayEquals(toArray(Sets.intersection(uniq1, uniq2)),
+                    toArray(SortedIntIterators.intersection(iterator(one), iterator(two))));
+            Assertions.assertArrayEquals(toArray(Sets.difference(uniq1, uniq2)),
+                    toArray(SortedIntIterators.exclude(iterator(one), iterator(two))));
+            Assertions.assertArrayEquals(toArray(Sets.symmetricDifference(uniq1, uniq2)),
+                    toArray(SortedIntIterators.difference(iterator(one), iterator(two))));
+        }
+    }
+
+    /**
+     * Returns a few ranges spanning several 16 bit chunks, each filled with a random density.
+     */
+    private static int[] randomDense() {
+        final IntStream.Builder builder = IntStream.builder();
+        final int ranges = 1 + RANDOM.nextInt(3);
+        for (int i = 0; i < ranges; i++) {
+            final int from = RANDOM.nextInt(600_000) - 300_000;
+            final int length = RANDOM.nextInt(200_000);
+            final double density = RANDOM.nextDouble();
+            for (int j = 0; j < length; j++) {
+                if (RANDOM.nextDouble() < density) {
+                    builder.add(from + j);
+                }
+            }
+        }
+        return builder.build().sorted().toArray();
+    }
+
+    private static int[] randomSorted() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).sorted().toArray();
+    }
+
+    private static PrimitiveIterator.OfInt iterator(int[] values) {
+        return Arrays.stream(values).iterator();
+    }
+
+    private static Set<Integer> toSet(int[] values) {
+        return Arrays.stream(values).boxed().collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static int[] toArray(Set<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private static int[] toArray(PrimitiveIterator.OfInt it) {
+        final IntStream.Builder builder = IntStream.builder();
+        it.forEachRemaining((int value) -> builder.add(value));
+        return builder.build().toArray();
+    }
+}
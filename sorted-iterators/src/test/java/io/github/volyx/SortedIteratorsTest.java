@@ -7,12 +7,14 @@
 import org.junit.jupiter.api.Timeout;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -41,6 +43,36 @@ void mergeSorted() {
         Assertions.assertEquals(expected, result);
     }
 
+    @Test
+    void mergeSortedRandom() {
+        int attempts = 0;
+        while (attempts++ < 100) {
+            final List<List<Integer>> lists = new ArrayList<>();
+            final Set<Integer> union = new HashSet<>();
+            final int count = RANDOM.nextInt(300);
+            for (int i = 0; i < count; i++) {
+                List<Integer> list = IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE * 10)).limit(RANDOM.nextInt(10)).boxed().sorted().collect(Collectors.toList());
+                lists.add(list);
+                union.addAll(list);
+            }
+
+            final List<Integer> expected = union.stream().sorted().collect(Collectors.toList());
+
+            final Iterator<Integer> it = SortedIterators.union(lists.stream().map(List::iterator).collect(Collectors.toList()), Integer::compare);
+
+            Assertions.assertEquals(expected, ImmutableList.copyOf(it), "lists: " + lists);
+        }
+    }
+
+    @Test
+    void mergeUnsorted() {
+        final List<Integer> one = List.of(1, 4, 2);
+        final List<Integer> two = List.of(3, 5);
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> ImmutableList.copyOf(SortedIterators.union(List.of(one.iterator(), two.iterator()), Integer::compare)));
+    }
+
     @Timeout(value = 30)
     @Test
     void diffSortedBoth() {
@@ -219,6 +251,29 @@ void testIntersectionRandom() {
         }
     }
 
+    @Test
+    void testMultiIntersectionRandom() {
+
+        int attempt = 0;
+
+        while (attempt++ < 200) {
+            final List<List<Integer>> lists = new ArrayList<>();
+            final Set<Integer> intersection = new HashSet<>(IntStream.range(0, MAX_VALUE).boxed().collect(Collectors.toList()));
+            final int count = 1 + RANDOM.nextInt(8);
+            for (int i = 0; i < count; i++) {
+                List<Integer> list = IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE / 4)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+                lists.add(list);
+                intersection.retainAll(list);
+            }
+
+            final List<Integer> expected = intersection.stream().sorted().collect(Collectors.toList());
+
+            final Iterator<Integer> it = SortedIterators.intersection(lists.stream().map(List::iterator).collect(Collectors.toList()), Integer::compareTo);
+
+            Assertions.assertEquals(expected, ImmutableList.copyOf(it), "lists: " + lists);
+        }
+    }
+
     @Test
     void testExcludeRandom() {
 
@@ -247,6 +302,131 @@ void testExcludeRandom() {
         }
     }
 
+    @Test
+    void testTrustedRandom() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Integer> one = IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().distinct().collect(Collectors.toList());
+            final List<Integer> two = IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().distinct().collect(Collectors.toList());
+
+            Assertions.assertEquals(ImmutableList.copyOf(SortedIterators.union(List.of(one.iterator(), two.iterator()), Integer::compare)),
+                    ImmutableList.copyOf(SortedIterators.union(List.of(one.iterator(), two.iterator()), Integer::compare, InputValidation.TRUSTED)));
+            Assertions.assertEquals(ImmutableList.copyOf(SortedIterators.intersection(one.iterator(), two.iterator(), Integer::compare)),
+                    ImmutableList.copyOf(SortedIterators.intersection(one.iterator(), two.iterator(), Integer::compare, InputValidation.TRUSTED)));
+            Assertions.assertEquals(ImmutableList.copyOf(SortedIterators.exclude(one.iterator(), two.iterator(), Integer::compare)),
+                    ImmutableList.copyOf(SortedIterators.exclude(one.iterator(), two.iterator(), Integer::compare, InputValidation.TRUSTED)));
+            Assertions.assertEquals(ImmutableList.copyOf(SortedIterators.difference(one.iterator(), two.iterator(), Integer::compare)),
+                    ImmutableList.copyOf(SortedIterators.difference(one.iterator(), two.iterator(), Integer::compare, InputValidation.TRUSTED)));
+
+            final List<Integer> addList = new ArrayList<>();
+            final List<Integer> removeList = new ArrayList<>();
+            SortedIterators.differenceConsumer(one.iterator(), two.iterator(), Integer::compare, addList::add, removeList::add, InputValidation.TRUSTED);
+
+            Assertions.assertEquals(ImmutableList.copyOf(SortedIterators.exclude(two.iterator(), one.iterator(), Integer::compare)), addList);
+            Assertions.assertEquals(ImmutableList.copyOf(SortedIterators.exclude(one.iterator(), two.iterator(), Integer::compare)), removeList);
+        }
+    }
+
+    @Test
+    void testDifferenceBatchesAndCounts() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Integer> one = IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+            final List<Integer> two = IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+            final int batchSize = 1 + RANDOM.nextInt(10);
+
+            final List<Integer> addList = new ArrayList<>();
+            final List<Integer> removeList = new ArrayList<>();
+            SortedIterators.differenceConsumer(one.iterator(), two.iterator(), Integer::compare, addList::add, removeList::add);
+
+            final List<Integer> addBatches = new ArrayList<>();
+            final List<Integer> removeBatches = new ArrayList<>();
+            SortedIterators.differenceConsumer(one.iterator(), two.iterator(), Integer::compare, batchSize,
+                    batch -> {
+                        Assertions.assertTrue(batch.size() <= batchSize);
+                        addBatches.addAll(batch);
+                    },
+                    batch -> {
+                        Assertions.assertTrue(batch.size() <= batchSize);
+                        removeBatches.addAll(batch);
+                    });
+            Assertions.assertEquals(addList, addBatches);
+            Assertions.assertEquals(removeList, removeBatches);
+
+            final List<Integer> merged = new ArrayList<>();
+            SortedIterators.symmetricDifference(one.iterator(), two.iterator(), Integer::compare, batchSize, merged::addAll);
+            Assertions.assertEquals(ImmutableList.copyOf(SortedIterators.difference(one.iterator(), two.iterator(), Integer::compare)),
+                    merged);
+
+            final SortedIterators.DifferenceCounts counts = SortedIterators.differenceCounts(one.iterator(), two.iterator(), Integer::compare);
+            Assertions.assertEquals(addList.size(), counts.additions());
+            Assertions.assertEquals(removeList.size(), counts.removals());
+        }
+    }
+
+    @Test
+    void testDifferenceBatchesTrusted() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Integer> one = new ArrayList<>(new TreeSet<>(IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().collect(Collectors.toList())));
+            final List<Integer> two = new ArrayList<>(new TreeSet<>(IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().collect(Collectors.toList())));
+            final int batchSize = 1 + RANDOM.nextInt(10);
+
+            final List<Integer> addList = new ArrayList<>();
+            final List<Integer> removeList = new ArrayList<>();
+            SortedIterators.differenceConsumer(one.iterator(), two.iterator(), Integer::compare, batchSize,
+                    addList::addAll, removeList::addAll, InputValidation.TRUSTED);
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(new TreeSet<>(two), new TreeSet<>(one))), addList);
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(new TreeSet<>(one), new TreeSet<>(two))), removeList);
+
+            final List<Integer> merged = new ArrayList<>();
+            SortedIterators.symmetricDifference(one.iterator(), two.iterator(), Integer::compare, batchSize, merged::addAll,
+                    InputValidation.TRUSTED);
+            Assertions.assertEquals(ImmutableList.copyOf(SortedIterators.difference(one.iterator(), two.iterator(), Integer::compare)),
+                    merged);
+        }
+
+        final List<Integer> merged = new ArrayList<>();
+        Assertions.assertThrows(IllegalStateException.class, () -> SortedIterators.symmetricDifference(
+                List.of(2, 1).iterator(), List.of(3).iterator(), Integer::compare, 4, merged::addAll, InputValidation.CHECKED));
+    }
+
+    @Test
+    void testCounts() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Integer> one = IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+            final List<Integer> two = IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+            final Set<Integer> uniq1 = new TreeSet<>(one);
+            final Set<Integer> uniq2 = new TreeSet<>(two);
+            final int intersection = Sets.intersection(uniq1, uniq2).size();
+            final int union = Sets.union(uniq1, uniq2).size();
+
+            Assertions.assertEquals(union, SortedIterators.countUnion(one.iterator(), two.iterator(), Integer::compare));
+            Assertions.assertEquals(intersection, SortedIterators.countIntersection(one.iterator(), two.iterator(), Integer::compare));
+            Assertions.assertEquals(intersection, SortedIterators.countIntersection(
+                    SkippableSortedIterators.forList(new ArrayList<>(uniq1), Integer::compare), two.iterator(), Integer::compare));
+            Assertions.assertEquals(Sets.symmetricDifference(uniq1, uniq2).size(),
+                    SortedIterators.countDifference(one.iterator(), two.iterator(), Integer::compare));
+            Assertions.assertEquals(union == 0 ? 0 : (double) intersection / union,
+                    SortedIterators.jaccard(one.iterator(), two.iterator(), Integer::compare));
+            final int smaller = Math.min(uniq1.size(), uniq2.size());
+            Assertions.assertEquals(smaller == 0 ? 0 : (double) intersection / smaller,
+                    SortedIterators.overlap(one.iterator(), two.iterator(), Integer::compare));
+        }
+    }
+
+    @Test
+    void testCheckedUnsorted() {
+        final List<Integer> one = List.of(1, 3, 2);
+        final List<Integer> two = List.of(2, 4);
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> ImmutableList.copyOf(SortedIterators.exclude(one.iterator(), two.iterator(), Integer::compare)));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> SortedIterators.differenceConsumer(one.iterator(), two.iterator(), Integer::compare, value -> { }, value -> { }));
+    }
+
     @Test
     void testBuilder() {
         final Iterator<Integer> iterator = SortedIterators.<Integer>builder()
@@ -266,4 +446,182 @@ void testBuilder() {
         Assertions.assertEquals(List.of(1, 9), result);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBuilderMultiIntersect() {
+        final Iterator<Integer> iterator = SortedIterators.<Integer>builder()
+                .comparator(Integer::compareTo)
+                .union(List.of(1, 2, 3, 5, 8).iterator())
+                .union(List.of(2, 4, 6).iterator())
+                .intersect(List.of(1, 2, 4, 5, 6, 8).iterator())
+                .intersect(List.of(2, 3, 4, 6, 8).iterator())
+                .intersect(List.of(0, 2, 6, 8, 10).iterator())
+                .build();
+
+        Assertions.assertEquals(List.of(2, 6, 8), ImmutableList.copyOf(iterator));
+    }
+
+    @Test
+    void testBuilderTrusted() {
+        final Iterator<Integer> iterator = SortedIterators.<Integer>builder()
+                .comparator(Integer::compareTo)
+                .validation(InputValidation.TRUSTED)
+                .union(List.of(1, 2, 3).iterator())
+                .union(List.of(2, 4).iterator())
+                .union(List.of(7, 8).iterator())
+                .exclude(List.of(2, 3).iterator())
+                .exclude(List.of(2, 7).iterator())
+                .intersect(List.of(1, 8).iterator())
+                .difference(List.of(8, 9).iterator())
+                .build();
+
+        Assertions.assertEquals(List.of(1, 9), ImmutableList.copyOf(iterator));
+    }
+
+    @Test
+    void testBuilderDifferences() {
+        final Iterator<Integer> iterator = SortedIterators.<Integer>builder()
+                .comparator(Integer::compareTo)
+                .union(List.of(1, 2, 3).iterator())
+                .intersect(List.of(1, 2).iterator())
+                .difference(List.of(2, 5).iterator())
+                .difference(List.of(5, 6).iterator())
+                .build();
+
+        Assertions.assertEquals(List.of(1, 6), ImmutableList.copyOf(iterator));
+    }
+
+    @Test
+    void testBuilderExplain() {
+        final List<Integer> large = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        final SortedIterators.SortedIteratorsBuilder<Integer> builder = SortedIterators.<Integer>builder()
+                .comparator(Integer::compareTo)
+                .union(SkippableSortedIterators.forList(large, Integer::compare), large.size())
+                .intersect(SkippableSortedIterators.forList(large, Integer::compare), large.size())
+                .intersect(List.of(10, 20, 30).iterator(), 3)
+                .exclude(List.of(15, 20, 25).iterator(), 3);
+
+        Assertions.assertEquals(String.join("\n",
+                "exclude merge size=3",
+                "  intersection seek size=3",
+                "    intersect#1 size=3",
+                "    union#0 size=1000 skippable",
+                "    intersect#0 size=1000 skippable",
+                "  exclude#0 size=3",
+                ""), builder.explain());
+        Assertions.assertEquals(List.of(10, 30), ImmutableList.copyOf(builder.build()));
+    }
+
+    @Test
+    void testBuilderRandom() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final Set<Integer> union = new TreeSet<>(randomSorted());
+            final Set<Integer> exclude = new TreeSet<>(randomSorted());
+            final Set<Integer> intersect1 = new TreeSet<>(randomSorted());
+            final Set<Integer> intersect2 = new TreeSet<>(randomSorted());
+            final Set<Integer> difference = new TreeSet<>(randomSorted());
+
+            final Set<Integer> expected = new TreeSet<>(Sets.symmetricDifference(
+                    Sets.intersection(Sets.intersection(Sets.difference(union, exclude), intersect1), intersect2), difference));
+
+            final Iterator<Integer> iterator = SortedIterators.<Integer>builder()
+                    .comparator(Integer::compareTo)
+                    .union(input(union), union.size())
+                    .exclude(input(exclude), exclude.size())
+                    .intersect(input(intersect1))
+                    .intersect(input(intersect2), intersect2.size())
+                    .difference(input(difference))
+                    .build();
+
+            Assertions.assertEquals(new ArrayList<>(expected), ImmutableList.copyOf(iterator));
+        }
+    }
+
+    @Test
+    void testBounds() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final TreeSet<Integer> one = new TreeSet<>(randomSorted());
+            final TreeSet<Integer> two = new TreeSet<>(randomSorted());
+            final int from = RANDOM.nextInt(MAX_VALUE);
+            final int to = from + RANDOM.nextInt(MAX_VALUE);
+            final int limit = RANDOM.nextInt(20);
+            final SortedBounds<Integer> range = SortedBounds.range(from, to).limit(limit);
+            final SortedBounds<Integer> after = SortedBounds.<Integer>after(from).limit(limit);
+
+            Assertions.assertEquals(page(Sets.union(one, two), from, true, to, limit),
+                    ImmutableList.copyOf(SortedIterators.union(List.of(input(one), input(two)), Integer::compare, InputValidation.CHECKED, range)));
+            Assertions.assertEquals(page(Sets.intersection(one, two), from, false, Integer.MAX_VALUE, limit),
+                    ImmutableList.copyOf(SortedIterators.intersection(List.of(input(one), input(two)), Integer::compare, InputValidation.CHECKED, after)));
+            Assertions.assertEquals(page(Sets.difference(one, two), from, true, to, limit),
+                    ImmutableList.copyOf(SortedIterators.exclude(input(one), input(two), Integer::compare, InputValidation.CHECKED, range)));
+            Assertions.assertEquals(page(Sets.symmetricDifference(one, two), from, false, Integer.MAX_VALUE, limit),
+                    ImmutableList.copyOf(SortedIterators.difference(input(one), input(two), Integer::compare, InputValidation.CHECKED, after)));
+
+            final Iterator<Integer> iterator = SortedIterators.<Integer>builder()
+                    .comparator(Integer::compareTo)
+                    .union(input(one))
+                    .exclude(input(two))
+                    .bounds(range)
+                    .build();
+            Assertions.assertEquals(page(Sets.difference(one, two), from, true, to, limit), ImmutableList.copyOf(iterator));
+        }
+    }
+
+    @Test
+    void testBoundsStopReading() {
+        final List<Integer> pulled = new ArrayList<>();
+        final Iterator<Integer> source = IntStream.range(0, 1000).peek(pulled::add).boxed().iterator();
+        final Iterator<Integer> iterator = SortedIterators.union(List.of(source,
+                        SkippableSortedIterators.forList(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), Integer::compare)),
+                Integer::compare, InputValidation.CHECKED, SortedBounds.range(100, 200).limit(10));
+
+        Assertions.assertEquals(IntStream.range(100, 110).boxed().collect(Collectors.toList()), ImmutableList.copyOf(iterator));
+        Assertions.assertTrue(pulled.size() < 120, "pulled " + pulled.size());
+    }
+
+    @Test
+    void testBoundsLimit() {
+        final List<Integer> values = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        final Iterator<Integer> unlimited = SortedIterators.union(List.of(values.iterator()), Integer::compare,
+                InputValidation.CHECKED, SortedBounds.from(1).limit(3L * Integer.MAX_VALUE));
+        Assertions.assertEquals(values.subList(1, 100), ImmutableList.copyOf(unlimited));
+
+        final int limit = RANDOM.nextInt(100);
+        final Iterator<Integer> iterator = SortedIterators.union(List.of(values.iterator(), values.iterator()),
+                Integer::compare, InputValidation.CHECKED, SortedBounds.<Integer>unbounded().limit(limit));
+        Assertions.assertTrue(iterator instanceof BatchIterator);
+        final List<Integer> filled = new ArrayList<>();
+        final Integer[] buffer = new Integer[7];
+        int count;
+        while ((count = ((BatchIterator<Integer>) iterator).fill(buffer)) > 0) {
+            filled.addAll(Arrays.asList(buffer).subList(0, count));
+        }
+        Assertions.assertEquals(values.subList(0, limit), filled);
+        Assertions.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void testBuilderExplainBounds() {
+        final String explain = SortedIterators.<Integer>builder()
+                .comparator(Integer::compareTo)
+                .union(List.of(1, 2, 3).iterator())
+                .bounds(SortedBounds.<Integer>after(1).limit(5))
+                .explain();
+        Assertions.assertEquals("bounds (1, +inf) limit 5\nunion size=?\n  union#0 size=?\n", explain);
+    }
+
+    private static List<Integer> page(Set<Integer> set, int from, boolean inclusive, int to, int limit) {
+        return new TreeSet<>(set).subSet(from, inclusive, to, false).stream().limit(limit).collect(Collectors.toList());
+    }
+
+    private static List<Integer> randomSorted() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+    }
+
+    private static Iterator<Integer> input(Set<Integer> values) {
+        final List<Integer> list = new ArrayList<>(values);
+        return RANDOM.nextBoolean() ? SkippableSortedIterators.forList(list, Integer::compare) : list.iterator();
+    }
+}
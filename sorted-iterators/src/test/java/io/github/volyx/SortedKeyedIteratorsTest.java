@@ -0,0 +1,107 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+class SortedKeyedIteratorsTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 100;
+
+    @Test
+    void testRandom() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Row> one = randomRows();
+            final List<Row> two = randomRows();
+            final List<Row> three = randomRows();
+            final Set<Long> keys1 = keys(one);
+            final Set<Long> keys2 = keys(two);
+            final Set<Long> keys3 = keys(three);
+
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.union(Sets.union(keys1, keys2), keys3))),
+                    ids(SortedKeyedIterators.union(List.of(one.iterator(), two.iterator(), three.iterator()), Row::id)));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.intersection(Sets.intersection(keys1, keys2), keys3))),
+                    ids(SortedKeyedIterators.intersection(List.of(one.iterator(), two.iterator(), three.iterator()), Row::id)));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.difference(keys1, keys2))),
+                    ids(SortedKeyedIterators.exclude(one.iterator(), two.iterator(), Row::id)));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.symmetricDifference(keys1, keys2))),
+                    ids(SortedKeyedIterators.difference(one.iterator(), two.iterator(), Row::id)));
+
+            final List<Row> added = new ArrayList<>();
+            final List<Row> removed = new ArrayList<>();
+            SortedKeyedIterators.differenceConsumer(one.iterator(), two.iterator(), Row::id, added::add, removed::add);
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.difference(keys2, keys1))), ids(added.iterator()));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.difference(keys1, keys2))), ids(removed.iterator()));
+        }
+    }
+
+    @Test
+    void testKeysExtractedOnce() {
+        final List<Row> one = LongStream.range(0, 20).mapToObj(Row::new).collect(Collectors.toList());
+        final List<Row> two = LongStream.range(5, 15).mapToObj(Row::new).collect(Collectors.toList());
+        final AtomicInteger extracted = new AtomicInteger();
+        final ToLongFunction<Row> key = row -> {
+            extracted.incrementAndGet();
+            return row.id;
+        };
+
+        ImmutableList.copyOf(SortedKeyedIterators.union(List.of(
+                SortedKeyedIterators.exclude(one.iterator(), two.iterator(), key), two.iterator()), key));
+        Assertions.assertEquals(one.size() + 2 * two.size(), extracted.get());
+    }
+
+    @Test
+    void testReturnsOriginalElements() {
+        final Row row = new Row(1);
+        Assertions.assertSame(row, SortedKeyedIterators.union(List.of(List.of(row).iterator()), Row::id).next());
+    }
+
+    @Test
+    void testUnsorted() {
+        final List<Row> rows = List.of(new Row(2), new Row(1));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> ImmutableList.copyOf(SortedKeyedIterators.union(List.of(rows.iterator()), Row::id)));
+    }
+
+    private static List<Row> randomRows() {
+        return LongStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).sorted()
+                .mapToObj(Row::new).collect(Collectors.toList());
+    }
+
+    private static Set<Long> keys(List<Row> rows) {
+        return rows.stream().map(Row::id).collect(Collectors.toSet());
+    }
+
+    private static List<Long> ids(Iterator<Row> iterator) {
+        final List<Long> ids = new ArrayList<>();
+        iterator.forEachRemaining(row -> ids.add(row.id));
+        return ids;
+    }
+
+    private static final class Row {
+
+        final long id;
+
+        Row(long id) {
+            this.id = id;
+        }
+
+        long id() {
+            return id;
+        }
+    }
+}
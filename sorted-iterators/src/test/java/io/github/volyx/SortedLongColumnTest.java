@@ -0,0 +1,78 @@
+package io.github.volyx;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+class SortedLongColumnTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 10_000;
+
+    @Test
+    void appendAndRead() {
+        final SortedLongColumn.Appender appender = SortedLongColumn.appender(2);
+        appender.accept(Long.MIN_VALUE);
+        appender.accept(3);
+        appender.accept(3);
+        appender.accept(7);
+        final SortedLongColumn column = appender.appendAll(LongStream.of(8, 9).iterator()).build();
+
+        Assertions.assertEquals(5, column.size());
+        Assertions.assertEquals(7, column.get(2));
+        Assertions.assertArrayEquals(new long[]{Long.MIN_VALUE, 3, 7, 8, 9}, toArray(column));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> column.get(5));
+        Assertions.assertThrows(IllegalStateException.class, () -> appender.accept(10));
+    }
+
+    @Test
+    void unsortedInput() {
+        final SortedLongColumn.Appender appender = SortedLongColumn.appender();
+        appender.accept(5);
+        Assertions.assertThrows(IllegalStateException.class, () -> appender.accept(4));
+    }
+
+    @Test
+    void testChainedRandom() {
+        int attempt = 0;
+        while (attempt++ < 50) {
+            final long[] one = randomSorted();
+            final long[] two = randomSorted();
+            final long[] three = randomSorted();
+
+            final SortedLongColumn intersection = SortedLongColumn.appender(1 + RANDOM.nextInt(100))
+                    .appendAll(SortedLongIterators.intersection(Arrays.stream(one).iterator(), Arrays.stream(two).iterator()))
+                    .build();
+
+            Assertions.assertArrayEquals(
+                    toArray(SortedLongIterators.exclude(
+                            SortedLongIterators.intersection(Arrays.stream(one).iterator(), Arrays.stream(two).iterator()),
+                            Arrays.stream(three).iterator())),
+                    toArray(SortedLongIterators.exclude(intersection.iterator(), Arrays.stream(three).iterator())));
+            Assertions.assertArrayEquals(
+                    toArray(SortedLongIterators.union(List.of(
+                            SortedLongIterators.intersection(Arrays.stream(one).iterator(), Arrays.stream(two).iterator()),
+                            Arrays.stream(three).iterator()))),
+                    toArray(SortedLongIterators.union(List.of(intersection.iterator(), Arrays.stream(three).iterator()))));
+        }
+    }
+
+    private static long[] toArray(SortedLongColumn column) {
+        return toArray(column.iterator());
+    }
+
+    private static long[] toArray(PrimitiveIterator.OfLong iterator) {
+        final LongStream.Builder builder = LongStream.builder();
+        iterator.forEachRemaining(builder);
+        return builder.build().toArray();
+    }
+
+    private static long[] randomSorted() {
+        return LongStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).sorted().toArray();
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.volyx;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+class SortedLongIteratorsTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 100;
+
+    @Test
+    void union() {
+        final PrimitiveIterator.OfLong it = SortedLongIterators.union(List.of(
+                LongStream.of(1, 2, 3, 3, Long.MAX_VALUE).iterator(),
+                LongStream.of(Long.MIN_VALUE, 4, 5, 5).iterator()));
+
+        Assertions.assertArrayEquals(new long[]{Long.MIN_VALUE, 1, 2, 3, 4, 5, Long.MAX_VALUE}, toArray(it));
+    }
+
+    @Test
+    void testRandom() {
+        int attempts = 0;
+        while (attempts++ < 200) {
+            final long[] one = randomSorted();
+            final long[] two = randomSorted();
+
+            final Set<Long> uniq1 = toSet(one);
+            final Set<Long> uniq2 = toSet(two);
+
+            Assertions.assertArrayEquals(toArray(Sets.union(uniq1, uniq2)),
+                    toArray(SortedLongIterators.union(List.of(iterator(one), iterator(two)))));
+            Assertions.assertArrayEquals(toArray(Sets.intersection(uniq1, uniq2)),
+                    toArray(SortedLongIterators.intersection(iterator(one), iterator(two))));
+            Assertions.assertArrayEquals(toArray(Sets.difference(uniq1, uniq2)),
+                    toArray(SortedLongIterators.exclude(iterator(one), iterator(two))));
+            Assertions.assertArrayEquals(toArray(Sets.symmetricDifference(uniq1, uniq2)),
+                    toArray(SortedLongIterators.difference(iterator(one), iterator(two))));
+
+            final List<Long> addList = new ArrayList<>();
+            final List<Long> removeList = new ArrayList<>();
+            SortedLongIterators.differenceConsumer(iterator(one), iterator(two), addList::add, removeList::add);
+
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(uniq2, uniq1)), addList);
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(uniq1, uniq2)), removeList);
+        }
+    }
+
+    @Test
+    void testCounts() {
+        int attempts = 0;
+        while (attempts++ < 200) {
+            final long[] one = randomSorted();
+            final long[] two = randomSorted();
+
+            final Set<Long> uniq1 = toSet(one);
+            final Set<Long> uniq2 = toSet(two);
+            final int intersection = Sets.intersection(uniq1, uniq2).size();
+            final int union = Sets.union(uniq1, uniq2).size();
+
+            Assertions.assertEquals(union, SortedLongIterators.countUnion(iterator(one), iterator(two)));
+            Assertions.assertEquals(intersection, SortedLongIterators.countIntersection(iterator(one), iterator(two)));
+            Assertions.assertEquals(Sets.symmetricDifference(uniq1, uniq2).size(),
+                    SortedLongIterators.countDifference(iterator(one), iterator(two)));
+            Assertions.assertEquals(union == 0 ? 0 : (double) intersection / union,
+                    SortedLongIterators.jaccard(iterator(one), iterator(two)));
+            final int smaller = Math.min(uniq1.size(), uniq2.size());
+            Assertions.assertEquals(smaller == 0 ? 0 : (double) intersection / smaller,
+                    SortedLongIterators.overlap(iterator(one), iterator(two)));
+        }
+    }
+
+    @Test
+    void testDenseRandom() {
+        int attempts = 0;
+        while (attempts++ < 20) {
+            final long[] one = randomDense();
+            final long[] two = randomDense();
+
+            final Set<Long> uniq1 = toSet(one);
+            final Set<Long> uniq2 = toSet(two);
+
+            Assertions.assertArrayEquals(toArray(Sets.union(uniq1, uniq2)),
+                    toArray(SortedLongIterators.union(List.of(iterator(one), iterator(two)))));
+            Assertions.assertArrayEquals(toArray(Sets.intersection(uniq1, uniq2)),
+                    toArray(SortedLongIterators.intersection(iterator(one), iterator(two))));
+            Assertions.assertArrayEquals(toArray(Sets.difference(uniq1, uniq2)),
+                    toArray(SortedLongIterators.exclude(iterator(one), iterator(two))));
+            Assertions.assertArrayEquals(toArray(Sets.symmetricDifference(uniq1, uniq2)),
+                    toArray(SortedLongIterators.difference(iterator(one), iterator(two))));
+        }
+    }
+
+    /**
+     * Returns a few ranges spanning several 16 bit chunks, each filled with a random density.
+     */
+    private static long[] randomDense() {
+        final LongStream.Builder builder = LongStream.builder();
+        final int ranges = 1 + RANDOM.nextInt(3);
+        for (int i = 0; i < ranges; i++) {
+            final long from = RANDOM.nextLong() / 2;
+            final int length = RANDOM.nextInt(200_000);
+            final double density = RANDOM.nextDouble();
+            for (int j = 0; j < length; j++) {
+                if (RANDOM.nextDouble() < density) {
+                    builder.add(from + j);
+                }
+            }
+        }
+        return builder.build().sorted().toArray();
+    }
+
+    private static long[] randomSorted() {
+        return LongStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).sorted().toArray();
+    }
+
+    private static PrimitiveIterator.OfLong iterator(long[] values) {
+        return Arrays.stream(values).iterator();
+    }
+
+    private static Set<Long> toSet(long[] values) {
+        return Arrays.stream(values).boxed().collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static long[] toArray(Set<Long> values) {
+        return values.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static long[] toArray(PrimitiveIterator.OfLong it) {
+        final LongStream.Builder builder = LongStream.builder();
+        it.forEachRemaining((long value) -> builder.add(value));
+        return builder.build().toArray();
+    }
+}
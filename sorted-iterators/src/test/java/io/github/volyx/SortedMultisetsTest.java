@@ -0,0 +1,100 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+import com.google.common.collect.TreeMultiset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class SortedMultisetsTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 50;
+
+    @Test
+    void testCounts() {
+        Assertions.assertEquals(List.of(Multisets.immutableEntry(1, 2), Multisets.immutableEntry(3, 1)),
+                ImmutableList.copyOf(SortedMultisets.counts(List.of(1, 1, 3).iterator(), Integer::compare)));
+    }
+
+    @Test
+    void testRandom() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Integer> one = randomSorted();
+            final List<Integer> two = randomSorted();
+            final List<Integer> three = randomSorted();
+            final Multiset<Integer> bag1 = TreeMultiset.create(one);
+            final Multiset<Integer> bag2 = TreeMultiset.create(two);
+            final Multiset<Integer> bag3 = TreeMultiset.create(three);
+
+            Assertions.assertEquals(entries(Multisets.sum(Multisets.sum(bag1, bag2), bag3)),
+                    ImmutableList.copyOf(SortedMultisets.sum(List.of(one.iterator(), two.iterator(), three.iterator()), Integer::compare)));
+            Assertions.assertEquals(entries(Multisets.union(Multisets.union(bag1, bag2), bag3)),
+                    ImmutableList.copyOf(SortedMultisets.union(List.of(one.iterator(), two.iterator(), three.iterator()), Integer::compare)));
+            Assertions.assertEquals(entries(Multisets.intersection(Multisets.intersection(bag1, bag2), bag3)),
+                    ImmutableList.copyOf(SortedMultisets.intersection(List.of(one.iterator(), two.iterator(), three.iterator()), Integer::compare)));
+            Assertions.assertEquals(entries(Multisets.difference(bag1, bag2)),
+                    ImmutableList.copyOf(SortedMultisets.exclude(one.iterator(), two.iterator(), Integer::compare)));
+        }
+    }
+
+    @Test
+    void testUnsorted() {
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> ImmutableList.copyOf(SortedMultisets.sum(List.of(List.of(2, 1).iterator()), Integer::compare)));
+    }
+
+    @Test
+    void testLazy() {
+        final List<Integer> pulled = new ArrayList<>();
+        final Iterator<Multiset.Entry<Integer>> iterator = SortedMultisets.union(List.of(
+                IntStream.of(1, 1, 2).peek(pulled::add).boxed().iterator(),
+                IntStream.of(2, 2).peek(pulled::add).boxed().iterator()), Integer::compare);
+        Assertions.assertEquals(List.of(), pulled);
+
+        Assertions.assertEquals(Multisets.immutableEntry(1, 2), iterator.next());
+        Assertions.assertEquals(Multisets.immutableEntry(2, 2), iterator.next());
+        Assertions.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void testTrusted() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Integer> one = randomSorted();
+            final List<Integer> two = randomSorted();
+
+            Assertions.assertEquals(ImmutableList.copyOf(SortedMultisets.union(List.of(one.iterator(), two.iterator()), Integer::compare)),
+                    ImmutableList.copyOf(SortedMultisets.union(List.of(one.iterator(), two.iterator()), Integer::compare,
+                            InputValidation.TRUSTED)));
+            Assertions.assertEquals(ImmutableList.copyOf(SortedMultisets.exclude(one.iterator(), two.iterator(), Integer::compare)),
+                    ImmutableList.copyOf(SortedMultisets.exclude(one.iterator(), two.iterator(), Integer::compare,
+                            InputValidation.TRUSTED)));
+        }
+
+        Assertions.assertEquals(List.of(Multisets.immutableEntry(2, 2)),
+                ImmutableList.copyOf(SortedMultisets.counts(List.of(2, 1).iterator(), Integer::compare, InputValidation.TRUSTED)));
+    }
+
+    private static List<Multiset.Entry<Integer>> entries(Multiset<Integer> multiset) {
+        final List<Multiset.Entry<Integer>> entries = new ArrayList<>();
+        for (Multiset.Entry<Integer> entry : TreeMultiset.create(multiset).entrySet()) {
+            entries.add(Multisets.immutableEntry(entry.getElement(), entry.getCount()));
+        }
+        return entries;
+    }
+
+    private static List<Integer> randomSorted() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class SortedOperatorListenerTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testUnionStats() {
+        final List<OperatorStats> reported = new ArrayList<>();
+        final Iterator<Integer> iterator = SortedIterators.union(
+                List.of(List.of(1, 1, 2, 3).iterator(), List.of(2, 4).iterator()), Integer::compare,
+                InputValidation.CHECKED, reported::add);
+
+        Assertions.assertEquals(List.of(1, 2, 3, 4), ImmutableList.copyOf(iterator));
+        Assertions.assertFalse(iterator.hasNext());
+        Assertions.assertEquals(1, reported.size());
+        final OperatorStats stats = reported.get(0);
+        Assertions.assertEquals("union", stats.operator());
+        Assertions.assertEquals(2, stats.inputs());
+        Assertions.assertEquals(4, stats.pulled(0));
+        Assertions.assertEquals(2, stats.pulled(1));
+        Assertions.assertEquals(4, stats.emitted());
+        Assertions.assertEquals(2, stats.duplicatesDropped());
+        Assertions.assertTrue(stats.comparisons() > 0);
+    }
+
+    @Test
+    void testRandom() {
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final List<Integer> one = randomSorted();
+            final List<Integer> two = randomSorted();
+            final List<OperatorStats> reported = new ArrayList<>();
+
+            Assertions.assertEquals(
+                    ImmutableList.copyOf(SortedIterators.intersection(one.iterator(), two.iterator(), Integer::compare)),
+                    ImmutableList.copyOf(SortedIterators.intersection(one.iterator(), two.iterator(), Integer::compare,
+                            InputValidation.CHECKED, reported::add)));
+            Assertions.assertEquals(
+                    ImmutableList.copyOf(SortedIterators.exclude(one.iterator(), two.iterator(), Integer::compare)),
+                    ImmutableList.copyOf(SortedIterators.exclude(one.iterator(), two.iterator(), Integer::compare,
+                            InputValidation.CHECKED, reported::add)));
+            final List<Integer> difference =
+                    ImmutableList.copyOf(SortedIterators.difference(one.iterator(), two.iterator(), Integer::compare));
+            Assertions.assertEquals(difference,
+                    ImmutableList.copyOf(SortedIterators.difference(one.iterator(), two.iterator(), Integer::compare,
+                            InputValidation.CHECKED, reported::add)));
+            final List<Integer> changes = new ArrayList<>();
+            SortedIterators.differenceConsumer(one.iterator(), two.iterator(), Integer::compare, changes::add,
+                    changes::add, InputValidation.CHECKED, reported::add);
+
+            Assertions.assertEquals(4, reported.size());
+            Assertions.assertEquals(difference.size(), changes.size());
+            Assertions.assertEquals(difference.size(), reported.get(2).emitted());
+            Assertions.assertEquals(difference.size(), reported.get(3).emitted());
+            Assertions.assertEquals(one.size(), reported.get(3).pulled(0));
+            Assertions.assertEquals(two.size(), reported.get(3).pulled(1));
+        }
+    }
+
+    @Test
+    void testNoop() {
+        final Iterator<Integer> iterator = SortedIterators.union(List.of(List.of(1).iterator(), List.of(2).iterator()),
+                Integer::compare, InputValidation.CHECKED, SortedOperatorListener.noop());
+        Assertions.assertSame(SortedIterators.union(List.of(List.of(1).iterator(), List.of(2).iterator()),
+                Integer::compare).getClass(), iterator.getClass());
+    }
+
+    @Test
+    void testClose() throws Exception {
+        final List<OperatorStats> reported = new ArrayList<>();
+        final Iterator<Integer> iterator = SortedIterators.exclude(List.of(1, 2, 3).iterator(), List.of(2).iterator(),
+                Integer::compare, InputValidation.CHECKED, reported::add);
+        iterator.next();
+        Assertions.assertTrue(reported.isEmpty());
+        ((AutoCloseable) iterator).close();
+        ((AutoCloseable) iterator).close();
+        Assertions.assertEquals(1, reported.size());
+        Assertions.assertEquals(1, reported.get(0).emitted());
+    }
+
+    @Test
+    void testUnsorted() {
+        Assertions.assertThrows(IllegalStateException.class, () -> ImmutableList.copyOf(SortedIterators.union(
+                List.of(List.of(2, 1).iterator()), Integer::compare, InputValidation.CHECKED, stats -> {
+                })));
+    }
+
+    @Test
+    void testBuilder() {
+        final List<OperatorStats> reported = new ArrayList<>();
+        final Iterator<Integer> iterator = SortedIterators.<Integer>builder()
+                .comparator(Integer::compare)
+                .listener(reported::add)
+                .union(List.of(1, 2, 3).iterator())
+                .union(List.of(3, 4).iterator())
+                .exclude(List.of(2).iterator())
+                .build();
+
+        Assertions.assertEquals(List.of(1, 3, 4), ImmutableList.copyOf(iterator));
+        Assertions.assertEquals(List.of("union", "exclude"),
+                reported.stream().map(OperatorStats::operator).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testJfr() throws IOException {
+        final Path file = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("io.github.volyx.SortedOperator");
+            recording.start();
+            ImmutableList.copyOf(SortedIterators.union(List.of(List.of(1, 2).iterator(), List.of(2, 3).iterator()),
+                    Integer::compare, InputValidation.CHECKED, SortedOperatorListener.jfr()));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("io.github.volyx.SortedOperator"))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals("union", events.get(0).getString("operator"));
+        Assertions.assertEquals(3, events.get(0).getLong("emitted"));
+        Assertions.assertEquals(4, events.get(0).getLong("pulled"));
+    }
+
+    private static List<Integer> randomSorted() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).sorted().boxed()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,284 @@
+package io.github.volyx;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class SortedPublishersTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 200;
+
+    private static final Executor EXECUTOR = ForkJoinPool.commonPool();
+
+    @Test
+    void testUnion() throws Exception {
+        int attempt = 0;
+        while (attempt++ < 100) {
+            final Set<Integer> a = randomSet();
+            final Set<Integer> b = randomSet();
+            final Set<Integer> c = randomSet();
+            final List<Integer> actual = collect(SortedPublishers.union(
+                    List.of(publisher(a), publisher(b), publisher(c)), Integer::compare, 1 + RANDOM.nextInt(8)));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.union(Sets.union(a, b), c))), actual);
+        }
+    }
+
+    @Test
+    void testIntersection() throws Exception {
+        int attempt = 0;
+        while (attempt++ < 100) {
+            final Set<Integer> a = randomSet();
+            final Set<Integer> b = randomSet();
+            final Set<Integer> c = randomSet();
+            final List<Integer> actual = collect(SortedPublishers.intersection(
+                    List.of(publisher(a), publisher(b), publisher(c)), Integer::compare, 1 + RANDOM.nextInt(8)));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.intersection(Sets.intersection(a, b), c))), actual);
+        }
+    }
+
+    @Test
+    void testExclude() throws Exception {
+        int attempt = 0;
+        while (attempt++ < 100) {
+            final Set<Integer> a = randomSet();
+            final Set<Integer> b = randomSet();
+            final List<Integer> actual = collect(SortedPublishers.exclude(
+                    publisher(a), publisher(b), Integer::compare, 1 + RANDOM.nextInt(8)));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.difference(a, b))), actual);
+        }
+    }
+
+    @Test
+    void testDifferenceConsumer() throws Exception {
+        int attempt = 0;
+        while (attempt++ < 100) {
+            final Set<Integer> a = randomSet();
+            final Set<Integer> b = randomSet();
+            final List<Integer> added = new ArrayList<>();
+            final List<Integer> removed = new ArrayList<>();
+            SortedPublishers.differenceConsumer(publisher(a), publisher(b), Integer::compare,
+                    added::add, removed::add, 1 + RANDOM.nextInt(8)).get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.difference(b, a))), added);
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.difference(a, b))), removed);
+        }
+    }
+
+    @Test
+    void testPrefetchBoundsDemand() throws Exception {
+        final TestPublisher a = publisher(IntStream.range(0, 1000).boxed().collect(Collectors.toList()));
+        final TestPublisher b = publisher(IntStream.range(0, 1000).boxed().collect(Collectors.toList()));
+        final CollectingSubscriber subscriber = new CollectingSubscriber(0);
+        SortedPublishers.union(List.of(a, b), Integer::compare, 16).subscribe(subscriber);
+
+        subscriber.subscription.request(10);
+        Assertions.assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toList()), subscriber.awaitItems(10));
+        Thread.sleep(50);
+        Assertions.assertTrue(a.requested.get() <= 32, "requested " + a.requested.get());
+        Assertions.assertTrue(b.requested.get() <= 32, "requested " + b.requested.get());
+
+        subscriber.subscription.cancel();
+        Assertions.assertTrue(a.awaitCancelled());
+        Assertions.assertTrue(b.awaitCancelled());
+    }
+
+    @Test
+    void testIntersectionCancelsRemainingInputs() throws Exception {
+        final TestPublisher a = publisher(List.of(1, 2, 3));
+        final TestPublisher b = publisher(IntStream.range(0, 100_000).boxed().collect(Collectors.toList()));
+        Assertions.assertEquals(List.of(1, 2, 3), collect(SortedPublishers.intersection(List.of(a, b), Integer::compare, 4)));
+        Assertions.assertTrue(b.awaitCancelled());
+    }
+
+    @Test
+    void testUnsorted() {
+        final Flow.Publisher<Integer> publisher = SortedPublishers.union(
+                List.of(publisher(List.of(1, 3, 2)), publisher(List.of(1))), Integer::compare);
+        final ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> collect(publisher));
+        Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testLateSubscriptionAfterErrorIsCancelled() {
+        final List<Flow.Subscriber<? super Integer>> late = new ArrayList<>();
+        final Flow.Publisher<Integer> failing = subscriber -> {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalArgumentException("failed"));
+        };
+        final ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> collect(SortedPublishers.union(List.of(late::add, failing), Integer::compare)));
+        Assertions.assertTrue(e.getCause() instanceof IllegalArgumentException);
+
+        final AtomicLong requested = new AtomicLong();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        late.get(0).onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+        Assertions.assertEquals(0, requested.get());
+        Assertions.assertTrue(cancelled.get());
+    }
+
+    private List<Integer> collect(Flow.Publisher<Integer> publisher) throws Exception {
+        final CollectingSubscriber subscriber = new CollectingSubscriber(1 + RANDOM.nextInt(4));
+        publisher.subscribe(subscriber);
+        return subscriber.done.get(10, TimeUnit.SECONDS);
+    }
+
+    private static TestPublisher publisher(Set<Integer> set) {
+        return publisher(new ArrayList<>(new TreeSet<>(set)));
+    }
+
+    private static TestPublisher publisher(List<Integer> list) {
+        return new TestPublisher(list);
+    }
+
+    private static Set<Integer> randomSet() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed()
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Emits a list from the executor, never more than requested.
+     */
+    private static final class TestPublisher implements Flow.Publisher<Integer> {
+
+        private final List<Integer> values;
+        final AtomicLong requested = new AtomicLong();
+        private final CompletableFuture<Void> cancelled = new CompletableFuture<>();
+
+        TestPublisher(List<Integer> values) {
+            this.values = values;
+        }
+
+        boolean awaitCancelled() throws Exception {
+            cancelled.get(10, TimeUnit.SECONDS);
+            return true;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+            final Iterator<Integer> iterator = values.iterator();
+            final AtomicLong demand = new AtomicLong();
+            final AtomicInteger wip = new AtomicInteger();
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private volatile boolean stopped;
+
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    demand.addAndGet(n);
+                    EXECUTOR.execute(this::emit);
+                }
+
+                private void emit() {
+                    if (wip.getAndIncrement() != 0) {
+                        return;
+                    }
+                    do {
+                        while (!stopped && demand.get() > 0 && iterator.hasNext()) {
+                            demand.decrementAndGet();
+                            subscriber.onNext(iterator.next());
+                        }
+                        if (!stopped && !iterator.hasNext()) {
+                            stopped = true;
+                            subscriber.onComplete();
+                        }
+                    } while (wip.decrementAndGet() != 0);
+                }
+
+                @Override
+                public void cancel() {
+                    stopped = true;
+                    cancelled.complete(null);
+                }
+            });
+        }
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<Integer> {
+
+        private final int batch;
+        private final List<Integer> items = new ArrayList<>();
+        final CompletableFuture<List<Integer>> done = new CompletableFuture<>();
+        volatile Flow.Subscription subscription;
+        private int pending;
+
+        CollectingSubscriber(int batch) {
+            this.batch = batch;
+        }
+
+        synchronized List<Integer> awaitItems(int count) throws InterruptedException {
+            while (items.size() < count) {
+                wait(10);
+            }
+            return new ArrayList<>(items);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0) {
+                pending = batch;
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            synchronized (this) {
+                items.add(item);
+                notifyAll();
+            }
+            if (batch > 0 && --pending == 0) {
+                pending = batch;
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                done.complete(new ArrayList<>(items));
+            }
+        }
+    }
+}
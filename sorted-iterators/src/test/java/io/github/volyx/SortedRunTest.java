@@ -0,0 +1,136 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class SortedRunTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 10_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndRead() throws IOException {
+        final Path path = directory.resolve("strings.run");
+        final List<String> values = List.of("apple", "banana", "banana", "cherry", "date");
+
+        Assertions.assertEquals(4, SortedRun.write(path, values.iterator(), Comparator.naturalOrder(), KeyCodec.strings(), 3));
+
+        final SortedRun<String> run = SortedRun.open(path, Comparator.naturalOrder(), KeyCodec.strings());
+        Assertions.assertEquals(4, run.size());
+        Assertions.assertEquals(List.of("apple", "banana", "cherry", "date"), ImmutableList.copyOf(run.iterator()));
+        Assertions.assertEquals(List.of("banana", "cherry"), ImmutableList.copyOf(run.range("b", "d").iterator()));
+    }
+
+    @Test
+    void empty() throws IOException {
+        final Path path = directory.resolve("empty.run");
+        SortedRun.write(path, List.<Long>of().iterator(), Comparator.naturalOrder(), KeyCodec.longs());
+
+        final SortedRun<Long> run = SortedRun.open(path, Comparator.naturalOrder(), KeyCodec.longs());
+        Assertions.assertFalse(run.iterator().hasNext());
+        Assertions.assertNull(run.pivot());
+    }
+
+    @Test
+    void unsortedInput() {
+        final Path path = directory.resolve("unsorted.run");
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> SortedRun.write(path, List.of(1, 3, 2).iterator(), Integer::compare, KeyCodec.integers()));
+    }
+
+    @Test
+    void notARun() throws IOException {
+        final Path path = Files.write(directory.resolve("garbage.run"), new byte[64]);
+        Assertions.assertThrows(IOException.class, () -> SortedRun.open(path, Integer::compare, KeyCodec.integers()));
+    }
+
+    @Test
+    void testRandom() throws IOException {
+        int attempt = 0;
+        while (attempt++ < 20) {
+            final TreeSet<Integer> set = new TreeSet<>(randomSorted());
+            final int blockSize = 1 + RANDOM.nextInt(64);
+            final Path path = directory.resolve("random" + attempt + ".run");
+            SortedRun.write(path, set.iterator(), Integer::compare, KeyCodec.integers(), blockSize);
+
+            final SortedRun<Integer> run = SortedRun.open(path, Integer::compare, KeyCodec.integers(), 1 + RANDOM.nextInt(4096));
+            Assertions.assertEquals(new ArrayList<>(set), ImmutableList.copyOf(run.iterator()));
+
+            final int from = RANDOM.nextInt(MAX_VALUE);
+            final int to = from + RANDOM.nextInt(MAX_VALUE);
+            Assertions.assertEquals(new ArrayList<>(set.subSet(from, to)), ImmutableList.copyOf(run.range(from, to).iterator()));
+
+            final SkippableSortedIterator<Integer> iterator = run.iterator();
+            int target = 0;
+            while (iterator.hasNext()) {
+                target = Math.max(target + RANDOM.nextInt(200), iterator.peek());
+                iterator.advanceTo(target);
+                final Integer expected = set.ceiling(target);
+                if (expected == null) {
+                    Assertions.assertFalse(iterator.hasNext());
+                } else {
+                    Assertions.assertEquals(expected, iterator.next());
+                    target = expected + 1;
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSetOperations() throws IOException {
+        int attempt = 0;
+        while (attempt++ < 10) {
+            final TreeSet<Integer> one = new TreeSet<>(randomSorted());
+            final TreeSet<Integer> two = new TreeSet<>(randomSorted());
+            final Path path1 = directory.resolve("one" + attempt + ".run");
+            final Path path2 = directory.resolve("two" + attempt + ".run");
+            SortedRun.write(path1, one.iterator(), Integer::compare, KeyCodec.integers(), 16);
+            SortedRun.write(path2, two.iterator(), Integer::compare, KeyCodec.integers(), 16);
+
+            final SortedRun<Integer> run1 = SortedRun.open(path1, Integer::compare, KeyCodec.integers());
+            final SortedRun<Integer> run2 = SortedRun.open(path2, Integer::compare, KeyCodec.integers());
+
+            Assertions.assertEquals(new ArrayList<>(Sets.intersection(one, two)),
+                    ImmutableList.copyOf(SortedIterators.intersection(run1.iterator(), run2.iterator(), Integer::compare)));
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(one, two)),
+                    ImmutableList.copyOf(SortedIterators.exclude(run1.iterator(), run2.iterator(), Integer::compare)));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.symmetricDifference(one, two))),
+                    SortedStreams.difference(run1, run2, Integer::compare).parallel().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void testUnmap() throws IOException {
+        final Path path = directory.resolve("closed.run");
+        SortedRun.write(path, IntStream.range(0, 100).iterator(), Integer::compare, KeyCodec.integers(), 8);
+        final SortedRun<Integer> run = SortedRun.open(path, Integer::compare, KeyCodec.integers());
+        final SortedRun<Integer> range = run.range(10, 20);
+        Assertions.assertEquals(IntStream.range(10, 20).boxed().collect(Collectors.toList()), ImmutableList.copyOf(range.iterator()));
+
+        run.unmap();
+        run.unmap();
+        Assertions.assertThrows(IllegalStateException.class, run::iterator);
+        Assertions.assertThrows(IllegalStateException.class, range::iterator);
+    }
+
+    private static List<Integer> randomSorted() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+    }
+}
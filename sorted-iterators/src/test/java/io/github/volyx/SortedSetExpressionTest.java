@@ -0,0 +1,96 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.github.volyx.SortedSetExpression.slot;
+
+class SortedSetExpressionTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 100;
+
+    @Test
+    void normalize() {
+        final SortedSetExpression a = slot("a");
+        final SortedSetExpression b = slot("b");
+        final SortedSetExpression c = slot("c");
+        final SortedSetExpression d = slot("d");
+
+        Assertions.assertEquals("(a | b | c)", b.union(a).union(c, a).compile(Integer::compare).toString());
+        Assertions.assertEquals("a", a.intersect(a).compile(Integer::compare).toString());
+        Assertions.assertEquals("{}", a.exclude(a).compile(Integer::compare).toString());
+        Assertions.assertEquals("b", a.difference(b).difference(a).compile(Integer::compare).toString());
+        Assertions.assertEquals("(a - (b | c))", a.exclude(b).exclude(c).compile(Integer::compare).toString());
+        Assertions.assertEquals("{}", a.intersect(SortedSetExpression.empty()).compile(Integer::compare).toString());
+        Assertions.assertEquals(List.of("a", "b", "c", "d"),
+                a.union(b).intersect(c).exclude(d).compile(Integer::compare).slots());
+    }
+
+    @Test
+    void sharedSubexpression() {
+        final SortedSetExpression ab = slot("a").intersect(slot("b"));
+        final SortedSetExpression.Compiled<Integer> compiled = ab.exclude(slot("c")).union(slot("d").exclude(ab))
+                .compile(Integer::compare);
+
+        final Map<String, Integer> reads = new HashMap<>();
+        final Map<String, List<Integer>> inputs = Map.of(
+                "a", List.of(1, 2, 3, 4), "b", List.of(2, 3, 4, 5), "c", List.of(3), "d", List.of(4, 6));
+
+        final List<Integer> result = ImmutableList.copyOf(compiled.evaluate(name -> {
+            reads.merge(name, 1, Integer::sum);
+            return inputs.get(name).iterator();
+        }));
+
+        Assertions.assertEquals("(((a & b) - c) | (d - (a & b)))", compiled.toString());
+        Assertions.assertEquals(List.of(2, 4, 6), result);
+        // the shared node is run once per use instead of being buffered
+        Assertions.assertEquals(2, reads.get("a"));
+        Assertions.assertEquals(2, reads.get("b"));
+        Assertions.assertEquals(1, reads.get("c"));
+    }
+
+    @Test
+    void missingSlot() {
+        final SortedSetExpression.Compiled<Integer> compiled = slot("a").union(slot("b")).compile(Integer::compare);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> compiled.evaluate(name -> null));
+    }
+
+    @Test
+    void testRandom() {
+        final SortedSetExpression.Compiled<Integer> compiled = slot("a").union(slot("b")).intersect(slot("c"))
+                .exclude(slot("d")).difference(slot("e")).compile(Integer::compare);
+
+        int attempt = 0;
+        while (attempt++ < 200) {
+            final Map<String, Set<Integer>> inputs = new HashMap<>();
+            for (String name : List.of("a", "b", "c", "d", "e")) {
+                inputs.put(name, randomSet());
+            }
+
+            final Set<Integer> expected = new TreeSet<>(Sets.symmetricDifference(
+                    Sets.difference(Sets.intersection(Sets.union(inputs.get("a"), inputs.get("b")), inputs.get("c")), inputs.get("d")),
+                    inputs.get("e")));
+
+            Assertions.assertEquals(new ArrayList<>(expected),
+                    ImmutableList.copyOf(compiled.evaluate(name -> inputs.get(name).iterator())));
+        }
+    }
+
+    private static Set<Integer> randomSet() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed()
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class SortedSnapshotTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 10_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testFirstSync() throws IOException {
+        final SortedSnapshot<String> snapshot = SortedSnapshot.at(directory.resolve("keys.run"),
+                String::compareTo, KeyCodec.strings());
+        Assertions.assertFalse(snapshot.exists());
+
+        final List<String> added = new ArrayList<>();
+        final List<String> removed = new ArrayList<>();
+        final SortedIterators.DifferenceCounts counts = snapshot.sync(List.of("a", "b", "b", "c").iterator(),
+                added::add, removed::add);
+
+        Assertions.assertEquals(List.of("a", "b", "c"), added);
+        Assertions.assertEquals(List.of(), removed);
+        Assertions.assertEquals(new SortedIterators.DifferenceCounts(3, 0), counts);
+        Assertions.assertTrue(snapshot.exists());
+        Assertions.assertEquals(List.of("a", "b", "c"), read(snapshot));
+    }
+
+    @Test
+    void testRandom() throws IOException {
+        final SortedSnapshot<Integer> snapshot = SortedSnapshot.at(directory.resolve("random.run"),
+                Integer::compare, KeyCodec.integers(), 1 + RANDOM.nextInt(64));
+        TreeSet<Integer> previous = new TreeSet<>();
+        int attempt = 0;
+        while (attempt++ < 20) {
+            final TreeSet<Integer> next = new TreeSet<>(randomSorted());
+            final List<Integer> added = new ArrayList<>();
+            final List<Integer> removed = new ArrayList<>();
+            final SortedIterators.DifferenceCounts counts = snapshot.sync(next.iterator(), added::add, removed::add);
+
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(next, previous)), added);
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(previous, next)), removed);
+            Assertions.assertEquals(added.size(), counts.additions());
+            Assertions.assertEquals(removed.size(), counts.removals());
+            Assertions.assertEquals(new ArrayList<>(next), read(snapshot));
+            previous = next;
+        }
+    }
+
+    @Test
+    void testFailedSyncKeepsSnapshot() throws IOException {
+        final Path path = directory.resolve("kept.run");
+        final SortedSnapshot<Integer> snapshot = SortedSnapshot.at(path, Integer::compare, KeyCodec.integers());
+        snapshot.sync(List.of(1, 2, 3).iterator(), value -> {
+        }, value -> {
+        });
+
+        Assertions.assertThrows(IllegalStateException.class, () -> snapshot.sync(List.of(1, 4, 2).iterator(),
+                value -> {
+                }, value -> {
+                }));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> snapshot.sync(List.of(5).iterator(),
+                value -> {
+                    throw new IllegalArgumentException();
+                }, value -> {
+                }));
+
+        Assertions.assertEquals(List.of(1, 2, 3), read(snapshot));
+        Assertions.assertFalse(Files.exists(directory.resolve("kept.run.tmp")));
+    }
+
+    @Test
+    void testConsumerFailure() throws IOException {
+        final SortedSnapshot<Integer> snapshot = SortedSnapshot.at(directory.resolve("consumer.run"), Integer::compare,
+                KeyCodec.integers());
+        final UncheckedIOException failure = new UncheckedIOException(new IOException("consumer"));
+
+        Assertions.assertSame(failure, Assertions.assertThrows(UncheckedIOException.class,
+                () -> snapshot.sync(List.of(1).iterator(), value -> {
+                    throw failure;
+                }, value -> {
+                })));
+        Assertions.assertFalse(snapshot.exists());
+        snapshot.sync(List.of(1, 2).iterator(), value -> {
+        }, value -> {
+        });
+        Assertions.assertEquals(List.of(1, 2), read(snapshot));
+    }
+
+    private static <T> List<T> read(SortedSnapshot<T> snapshot) throws IOException {
+        return ImmutableList.copyOf(snapshot.open().iterator());
+    }
+
+    private static List<Integer> randomSorted() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.volyx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class SortedSpliteratorsTest {
+
+    private static final Random RANDOM = new Random();
+    private static final int MAX_VALUE = 10_000;
+
+    @Test
+    void characteristics() {
+        final Comparator<Integer> comparator = Comparator.reverseOrder();
+        final Spliterator<Integer> spliterator = SortedSpliterators.union(
+                List.of(SortedSources.forList(List.of(3, 2, 1), comparator), SortedSources.forList(List.of(4, 2), comparator)),
+                comparator);
+
+        Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT));
+        Assertions.assertSame(comparator, spliterator.getComparator());
+        Assertions.assertEquals(5, spliterator.estimateSize());
+        Assertions.assertEquals(List.of(4, 3, 2, 1), SortedStreams.union(
+                List.of(SortedSources.forList(List.of(3, 2, 1), comparator), SortedSources.forList(List.of(4, 2), comparator)),
+                comparator).collect(Collectors.toList()));
+    }
+
+    @Test
+    void splitsKeySpace() {
+        final TreeSet<Integer> set = IntStream.range(0, MAX_VALUE).boxed().collect(Collectors.toCollection(TreeSet::new));
+        final List<Integer> list = IntStream.range(0, MAX_VALUE).filter(i -> i % 3 == 0).boxed().collect(Collectors.toList());
+
+        final Spliterator<Integer> suffix = SortedSpliterators.intersection(
+                List.of(SortedSources.forSet(set), SortedSources.forList(list, Integer::compare)), Integer::compare);
+        final Spliterator<Integer> prefix = suffix.trySplit();
+
+        Assertions.assertNotNull(prefix);
+        final List<Integer> result = new ArrayList<>();
+        prefix.forEachRemaining(result::add);
+        final int size = result.size();
+        suffix.forEachRemaining(result::add);
+
+        Assertions.assertTrue(size > 0 && size < result.size(), "prefix " + size + " of " + result.size());
+        Assertions.assertEquals(list, result);
+    }
+
+    @Test
+    void testParallelRandom() {
+        int attempt = 0;
+        while (attempt++ < 20) {
+            final List<Integer> one = randomSorted();
+            final TreeSet<Integer> two = new TreeSet<>(randomSorted());
+
+            final TreeSet<Integer> uniq1 = new TreeSet<>(one);
+
+            final SortedSource<Integer> source1 = SortedSources.forList(one, Integer::compare);
+            final SortedSource<Integer> source2 = SortedSources.forSet(two);
+
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.union(uniq1, two))),
+                    SortedStreams.union(List.of(source1, source2), Integer::compare).parallel().collect(Collectors.toList()));
+            Assertions.assertEquals(new ArrayList<>(Sets.intersection(uniq1, two)),
+                    SortedStreams.intersection(List.of(source1, source2), Integer::compare).parallel().collect(Collectors.toList()));
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(uniq1, two)),
+                    SortedStreams.exclude(source1, source2, Integer::compare).parallel().collect(Collectors.toList()));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.symmetricDifference(uniq1, two))),
+                    SortedStreams.difference(source1, source2, Integer::compare).parallel().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void testParallelDifferentRanges() {
+        int attempt = 0;
+        while (attempt++ < 20) {
+            final TreeSet<Integer> one = new TreeSet<>(randomSorted());
+            final TreeSet<Integer> two = new TreeSet<>(randomSorted());
+            final int from = RANDOM.nextInt(MAX_VALUE);
+            final int to = from + RANDOM.nextInt(MAX_VALUE - from + 1);
+            final TreeSet<Integer> narrow = new TreeSet<>(one.subSet(from, to));
+
+            final SortedSource<Integer> source1 = SortedSources.forSet(one.subSet(from, true, to, false));
+            final SortedSource<Integer> source2 = SortedSources.forSet(two);
+
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.union(narrow, two))),
+                    SortedStreams.union(List.of(source1, source2), Integer::compare).parallel().collect(Collectors.toList()));
+            Assertions.assertEquals(new ArrayList<>(Sets.intersection(narrow, two)),
+                    SortedStreams.intersection(List.of(source2, source1), Integer::compare).parallel().collect(Collectors.toList()));
+            Assertions.assertEquals(new ArrayList<>(Sets.difference(two, narrow)),
+                    SortedStreams.exclude(source2, source1, Integer::compare).parallel().collect(Collectors.toList()));
+            Assertions.assertEquals(new ArrayList<>(new TreeSet<>(Sets.symmetricDifference(narrow, two))),
+                    SortedStreams.difference(source1, source2, Integer::compare).parallel().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void testSetRangeOutsideView() {
+        final TreeSet<Integer> set = IntStream.range(0, 100).boxed().collect(Collectors.toCollection(TreeSet::new));
+        final SortedSource<Integer> source = SortedSources.forSet(set.subSet(10, true, 20, false));
+
+        Assertions.assertEquals(List.of(15, 16, 17, 18, 19), ImmutableList.copyOf(source.range(15, 50).iterator()));
+        Assertions.assertEquals(List.of(10, 11), ImmutableList.copyOf(source.range(0, 12).iterator()));
+        Assertions.assertEquals(List.of(), ImmutableList.copyOf(source.range(30, 40).iterator()));
+        Assertions.assertEquals(List.of(), ImmutableList.copyOf(source.range(null, 5).iterator()));
+        Assertions.assertEquals(List.of(12, 13), ImmutableList.copyOf(source.range(12, 14).range(0, 50).iterator()));
+
+        final SkippableSortedIterator<Integer> iterator = (SkippableSortedIterator<Integer>) source.iterator();
+        iterator.advanceTo(50);
+        Assertions.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void testSetRangeSplitsInHalves() {
+        final TreeSet<Integer> set = IntStream.range(0, 100_000).boxed().collect(Collectors.toCollection(TreeSet::new));
+        final SortedSource<Integer> source = SortedSources.forSet(set);
+
+        Integer from = 1_000;
+        Integer to = 99_000;
+        int depth = 0;
+        while (depth++ < 8) {
+            final SortedSource<Integer> range = source.range(from, to);
+            final long size = to - from;
+            Assertions.assertTrue(range.estimateSize() >= size && range.estimateSize() <= 4 * size,
+                    "estimate " + range.estimateSize() + " of " + size);
+            final Integer pivot = range.pivot();
+            Assertions.assertNotNull(pivot);
+            Assertions.assertTrue(pivot > from + size / 8 && pivot < to - size / 8, "pivot " + pivot + " of " + from + ".." + to);
+            to = pivot;
+        }
+
+        final SortedSource<Integer> view = SortedSources.forSet(set.subSet(10, true, 20, false));
+        Assertions.assertEquals(10, view.range(0, 50).estimateSize());
+        Assertions.assertEquals(15, view.range(0, 50).pivot());
+        Assertions.assertEquals(12, view.range(11, 14).pivot());
+        Assertions.assertNull(view.range(11, 12).pivot());
+    }
+
+    private static List<Integer> randomSorted() {
+        return IntStream.generate(() -> RANDOM.nextInt(MAX_VALUE)).limit(RANDOM.nextInt(MAX_VALUE)).boxed().sorted().collect(Collectors.toList());
+    }
+}